@@ -2,8 +2,10 @@ package com.waiyannaung.sku;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling // 조회수/좋아요 주기 반영 등 예약 작업
 public class SkuApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,64 @@
+package com.waiyannaung.sku.config;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.waiyannaung.sku.model.service.LoginTokenService;
+import com.waiyannaung.sku.model.service.LoginTokenService.LoginToken;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 로그인 토큰 쿠키 검증 필터 (app.auth.mode=token)
+ * - 유효한 토큰이면 세션 대신 요청 속성(userId, email, memberEmail, userName)에 로그인 정보 설정
+ * - 만료가 가까운 토큰은 새로 발급, 잘못된/폐기된 토큰 쿠키는 삭제
+ */
+public class LoginTokenFilter extends OncePerRequestFilter {
+    private final LoginTokenService loginTokenService;
+
+    public LoginTokenFilter(LoginTokenService loginTokenService) {
+        this.loginTokenService = loginTokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String value = tokenCookie(request);
+        if (value != null) {
+            LoginToken token = loginTokenService.verify(value);
+            if (token != null) {
+                request.setAttribute("userId", token.id().toString());
+                request.setAttribute("email", token.email());
+                request.setAttribute("memberEmail", token.memberEmail());
+                request.setAttribute("userName", token.userName());
+                ResponseCookie renewed = loginTokenService.renewIfStale(token);
+                if (renewed != null) {
+                    response.addHeader(HttpHeaders.SET_COOKIE, renewed.toString());
+                }
+            } else {
+                response.addHeader(HttpHeaders.SET_COOKIE, loginTokenService.expiredCookie().toString());
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static String tokenCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (LoginTokenService.COOKIE_NAME.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+}
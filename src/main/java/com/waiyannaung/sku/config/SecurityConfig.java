@@ -1,12 +1,21 @@
 package com.waiyannaung.sku.config;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.security.SpringSessionBackedSessionRegistry;
+
+import com.waiyannaung.sku.model.service.LoginTokenService;
 // import static org.springframework.security.config.Customizer.withDefaults;
 
 @Configuration // 스프링 설정 클래스 지정, 등록된 Bean 생성 시점
@@ -14,25 +23,41 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig { // 스프링에서 보안 관리 클래스
     @Bean // 명시적 의존성 주입 : Autowired와 다름
     // 5.7버전 이저 WebSecurityConfigurerAdapter 사용
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+            @Value("${app.session.max-per-user:1}") int maxSessionsPerUser,
+            ObjectProvider<FindByIndexNameSessionRepository<? extends Session>> sessionRepository,
+            ObjectProvider<LoginTokenService> loginTokenService) throws Exception {
         http
                 .headers(headers -> headers
                         .addHeaderWriter((request, response) -> {
                             response.setHeader("X-XSS-Protection", "1; mode=block"); // XSS-Protection 헤더 설정
                         }))
                 // .csrf(withDefaults()) // 에러 시 import 추가
-                .csrf(csrf -> csrf.disable())
-                .sessionManagement(session -> session
-                        .invalidSessionUrl("/session-expired") // 세션 만료시 이동 페이지
-                        .maximumSessions(1) // 사용자 별 세션 최대 수
-                        .maxSessionsPreventsLogin(true) // 동시 세션 제한
-                );
+                .csrf(csrf -> csrf.disable());
+        LoginTokenService tokenService = loginTokenService.getIfAvailable();
+        if (tokenService != null) { // 토큰 모드 (app.auth.mode=token): 서버 세션 없이 서명된 쿠키로 로그인 유지
+            http
+                    .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                    .addFilterAfter(new LoginTokenFilter(tokenService), SecurityContextHolderFilter.class);
+            return http.build();
+        }
+        http
+                .sessionManagement(session -> {
+                    var concurrency = session
+                            .invalidSessionUrl("/session-expired") // 세션 만료시 이동 페이지
+                            .maximumSessions(maxSessionsPerUser) // 사용자 별 세션 최대 수
+                            .maxSessionsPreventsLogin(true); // 동시 세션 제한
+                    FindByIndexNameSessionRepository<? extends Session> repository = sessionRepository.getIfAvailable();
+                    if (repository != null) { // jdbc 세션 저장소: 모든 서버의 세션을 기준으로 제한
+                        concurrency.sessionRegistry(new SpringSessionBackedSessionRegistry<>(repository));
+                    }
+                });
         // 설정을 비워둠
         return http.build(); // 필터 체인을 통해 보안설정(HttpSecurity)을 반환
     }
 
     @Bean // 암호화 설정
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(); // 비밀번호 암호화 저장
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength); // 비밀번호 암호화 저장 (cost 변경 시 로그인할 때 재해싱)
     }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.waiyannaung.sku.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+/**
+ * 세션 저장소 선택 (app.session.store)
+ * - tomcat(기본): 서버 메모리 HttpSession, 단일 서버용
+ * - jdbc: JdbcSessionRepository를 HttpSession으로 사용, 여러 서버가 같은 DB 세션을 공유
+ *   (세션 쿠키 이름/보안 설정은 server.servlet.session.cookie.* 값을 그대로 사용)
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.session.store", havingValue = "jdbc")
+@EnableSpringHttpSession // SessionRepositoryFilter가 요청의 HttpSession을 저장소 세션으로 교체
+public class SessionConfig {
+}
@@ -0,0 +1,41 @@
+package com.waiyannaung.sku.config;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 업로드 요청 크기 사전 검사 필터
+ * - Content-Length가 허용 크기를 넘으면 본문을 읽기 전에 413으로 거절 (multipart 파싱, 임시 파일 생성 없음)
+ * - 남은 본문을 받지 않도록 연결을 닫음 (Connection: close)
+ * - Content-Length가 없는 요청(chunked)은 읽는 중에 각 업로드 경로에서 검사
+ */
+@Slf4j
+public class UploadRequestSizeFilter extends OncePerRequestFilter {
+    private final long maxRequestSize;
+
+    public UploadRequestSizeFilter(long maxRequestSize) {
+        this.maxRequestSize = maxRequestSize;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long contentLength = request.getContentLengthLong();
+        if (contentLength > maxRequestSize) {
+            log.warn("업로드 요청 크기 초과: {} ({} bytes)", request.getRequestURI(), contentLength);
+            response.setHeader(HttpHeaders.CONNECTION, "close");
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                    "요청 크기가 " + (maxRequestSize / (1024 * 1024)) + "MB를 초과했습니다.");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
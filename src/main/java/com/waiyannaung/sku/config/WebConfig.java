@@ -0,0 +1,45 @@
+package com.waiyannaung.sku.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.servlet.filter.OrderedHiddenHttpMethodFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.unit.DataSize;
+
+import com.waiyannaung.sku.controller.FileController;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * 웹 필터 설정
+ * - HiddenHttpMethodFilter는 _method 파라미터를 읽으면서 multipart 본문 전체를 임시 파일로 파싱하므로
+ *   스트리밍 업로드 경로는 제외 (기본 필터 대신 등록)
+ * - 업로드 경로는 다른 필터보다 먼저 Content-Length를 검사해 큰 요청을 본문을 받기 전에 거절
+ */
+@Configuration
+public class WebConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.mvc.hiddenmethod.filter.enabled", havingValue = "true")
+    public OrderedHiddenHttpMethodFilter hiddenHttpMethodFilter() {
+        return new OrderedHiddenHttpMethodFilter() {
+            @Override
+            protected boolean shouldNotFilter(HttpServletRequest request) {
+                return FileController.STREAM_UPLOAD_PATH.equals(request.getServletPath());
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<UploadRequestSizeFilter> uploadRequestSizeFilter(
+            @Value("${spring.servlet.multipart.max-request-size:30MB}") DataSize maxRequestSize) {
+        FilterRegistrationBean<UploadRequestSizeFilter> registration = new FilterRegistrationBean<>(
+                new UploadRequestSizeFilter(maxRequestSize.toBytes()));
+        registration.addUrlPatterns("/upload-files", FileController.STREAM_UPLOAD_PATH);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE); // multipart를 파싱하는 필터보다 먼저
+        return registration;
+    }
+}
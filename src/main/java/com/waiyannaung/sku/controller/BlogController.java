@@ -3,6 +3,8 @@ package com.waiyannaung.sku.controller;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.annotation.Validated;
@@ -13,23 +15,41 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 // import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 // import java.util.List;
 import java.util.Optional;
 
 // import com.waiyannaung.sku.model.domain.Article;
 import com.waiyannaung.sku.model.domain.Board;
+import com.waiyannaung.sku.model.domain.BoardSummary;
 
 import com.waiyannaung.sku.model.service.AddArticleRequest;
 import com.waiyannaung.sku.model.service.BlogService;
+import com.waiyannaung.sku.model.service.BoardCounterService;
+import com.waiyannaung.sku.model.service.BoardVersionRegistry;
 
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Controller
 @Validated
 public class BlogController {
+    private static final int BOARD_PAGE_SIZE = 3; // 한 페이지의 게시글 수
+
     @Autowired
     BlogService blogService; // 서비스 객체 주입
+    @Autowired
+    BoardCounterService boardCounterService; // 조회수/좋아요 카운터
+    @Autowired
+    BoardVersionRegistry boardVersionRegistry; // 게시글 버전 (ETag)
+    @Autowired
+    BoardViewRenderer boardViewRenderer; // 본문 렌더링 조각 캐시
 
     // @GetMapping("/article_list") // 게시판 링크 지정
     // public String article_list(Model model) {
@@ -71,21 +91,75 @@ public class BlogController {
     // }
 
     @GetMapping("/board_view/{id}") // 게시판 링크 지정
-    public String board_view(Model model, @PathVariable Long id) {
-        Optional<Board> list = blogService.findById(id); // 선택한 게시판 글
-        if (list.isPresent()) {
-            model.addAttribute("boards", list.get()); // 존재할 경우 실제 Board 객체를 모델에 추가
-        } else {
-            // 처리할 로직 추가 (예: 오류 페이지로 리다이렉트, 예외 처리 등)
-            return "/error_page/article_error"; // 오류 처리 페이지로 연결
+    public String board_view(Model model, @PathVariable Long id, WebRequest webRequest,
+            HttpServletResponse response) {
+        Optional<Board> list = blogService.findById(id); // 선택한 게시판 글 (캐시 우선)
+        if (list.isEmpty()) {
+            return "/error_page/article_error"; // 없는 글은 조건부 요청이어도 304를 주지 않음
+        }
+        // 변경되지 않은 글은 템플릿 렌더링 없이 304 응답 (조회수/좋아요는 재검증 시점 값 유지)
+        BoardVersionRegistry.Version version = boardVersionRegistry.current(id);
+        String etag = boardVersionRegistry.etag(id, version);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache"); // 매 요청 재검증
+        boardCounterService.recordView(id); // 조회수 증가 (메모리 누적 후 일괄 반영)
+        if (isNotModified(webRequest, etag, version.lastModified())
+                && webRequest.checkNotModified(etag, version.lastModified())) {
+            return null; // 304 Not Modified
         }
+        Board board = list.get();
+        model.addAttribute("boards", board); // 존재할 경우 실제 Board 객체를 모델에 추가
+        model.addAttribute("postBody", boardViewRenderer.renderBody(board)); // 캐시된 본문 HTML
+        response.setHeader(HttpHeaders.ETAG, etag); // 존재하는 글에만 검증자 부여
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, version.lastModified());
+        model.addAttribute("viewCount", board.getCount() + boardCounterService.pendingViews(id));
+        model.addAttribute("likeCount", board.getLikec() + boardCounterService.pendingLikes(id));
         return "board_view"; // .HTML 연결
     }
 
+    // If-None-Match 우선, 없으면 If-Modified-Since 비교 (응답 헤더는 건드리지 않음)
+    private static boolean isNotModified(WebRequest webRequest, String etag, long lastModified) {
+        String ifNoneMatch = webRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        String ifModifiedSince = webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        if (ifModifiedSince == null) {
+            return false;
+        }
+        try {
+            return ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME)
+                    .toInstant().toEpochMilli() >= lastModified;
+        } catch (DateTimeParseException e) {
+            return false; // 잘못된 날짜 형식
+        }
+    }
+
+    @PostMapping("/api/boards/{id}/like") // 좋아요 (로그인 회원당 한 번)
+    public String likeBoard(@PathVariable Long id, HttpServletRequest httpRequest) {
+        String memberEmail = LoginAttributes.get(httpRequest, "memberEmail");
+        if (memberEmail == null) {
+            memberEmail = LoginAttributes.get(httpRequest, "email");
+        }
+        if (memberEmail == null) {
+            return "redirect:/member_login"; // 로그인 필요
+        }
+        if (blogService.findById(id).isEmpty()) {
+            return "/error_page/article_error"; // 없는 게시글
+        }
+        boardCounterService.recordLike(id, memberEmail); // 이미 좋아요한 글이면 무시
+        return "redirect:/board_view/" + id;
+    }
+
     @GetMapping("/board_write")
-    public String board_write(Model model, HttpSession session) {
-        String userId = (String) session.getAttribute("userId");
-        String userName = (String) session.getAttribute("userName");
+    public String board_write(Model model, HttpServletRequest httpRequest) {
+        String userId = LoginAttributes.get(httpRequest, "userId");
+        String userName = LoginAttributes.get(httpRequest, "userName");
         if (userId == null || userName == null) {
             return "redirect:/member_login"; // 로그인 필요 시 리다이렉트
         }
@@ -95,33 +169,39 @@ public class BlogController {
     }
 
     @PostMapping("/api/boards") // 글쓰기 게시판 저장
-    public String addboards(@ModelAttribute @jakarta.validation.Valid AddArticleRequest request, HttpSession session) {
-        String userId = (String) session.getAttribute("userId");
-        String userName = (String) session.getAttribute("userName");
-        String email = (String) session.getAttribute("email");
+    public String addboards(@ModelAttribute @jakarta.validation.Valid AddArticleRequest request,
+            HttpServletRequest httpRequest) {
+        String userId = LoginAttributes.get(httpRequest, "userId");
+        String userName = LoginAttributes.get(httpRequest, "userName");
+        String email = LoginAttributes.get(httpRequest, "email");
         if (userId == null || userName == null) {
             return "redirect:/member_login"; // 인증 필요
         }
         request.setUser(userName); // 작성자 이름을 세션에서 설정
         request.setName(userName); // DB name 필드도 동일하게 설정
         request.setEmail(email != null ? email : ""); // 세션 이메일 주입 (DB NOT NULL 대응)
-        request.setCount("0"); // 조회수 초기화
-        request.setLikec("0"); // 좋아요 초기화
+        request.setCount(0L); // 조회수 초기화
+        request.setLikec(0L); // 좋아요 초기화
         blogService.save(request);
         return "redirect:/board_list"; // .HTML 연결
     }
 
     @GetMapping("/board_list") // 새로운 게시판 링크 지정
     public String board_list(Model model, @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "") String keyword, HttpSession session) {
-        String userId = (String) session.getAttribute("userId"); // 세션 아이디 존재 확인
-        String email = (String) session.getAttribute("email");
+            @RequestParam(defaultValue = "") String keyword,
+            @RequestParam(required = false) Long after, @RequestParam(required = false) Long before,
+            HttpServletRequest httpRequest) {
+        String userId = LoginAttributes.get(httpRequest, "userId"); // 로그인 여부 확인 (토큰 또는 세션)
+        String email = LoginAttributes.get(httpRequest, "email");
         if (userId == null) {
             return "redirect:/member_login"; // 로그인 페이지로 리다이렉션
         }
-        System.out.println("세션 userId: " + userId);
-        PageRequest pageable = PageRequest.of(page, 3); // 한 페이지의 게시글 수
-        Page<Board> list; // Page를 반환
+        log.debug("세션 userId: {}", userId);
+        if (keyword.isEmpty() && (after != null || before != null)) { // 커서 기반(키셋) 페이지 모드
+            return board_list_seek(model, after, before, email);
+        }
+        PageRequest pageable = PageRequest.of(page, BOARD_PAGE_SIZE); // 한 페이지의 게시글 수
+        Page<BoardSummary> list; // Page를 반환 (목록에 표시하는 컬럼만 조회)
         if (keyword.isEmpty()) {
             list = blogService.findAll(pageable); // 기본 전체 출력(키워드 x)
         } else {
@@ -135,4 +215,33 @@ public class BlogController {
         return "board_list"; // .HTML 연결
     }
 
+    // ?after=<id> / ?before=<id> 요청 처리 - 깊은 페이지도 첫 페이지와 같은 비용
+    private String board_list_seek(Model model, Long after, Long before, String email) {
+        Slice<BoardSummary> list;
+        boolean hasPrev;
+        boolean hasNext;
+        if (before != null) {
+            list = blogService.findBefore(before, BOARD_PAGE_SIZE);
+            hasPrev = list.hasNext(); // 더 이전 글 존재 여부
+            hasNext = true; // before 기준 글이 다음 페이지에 있음
+        } else {
+            list = blogService.findAfter(after, BOARD_PAGE_SIZE);
+            hasPrev = after > 0;
+            hasNext = list.hasNext();
+        }
+        long total = blogService.approximateCount(); // 캐시된 근사 게시글 수
+        model.addAttribute("boards", list);
+        model.addAttribute("seekMode", true);
+        model.addAttribute("hasPrev", hasPrev && list.hasContent());
+        model.addAttribute("hasNext", hasNext && list.hasContent());
+        model.addAttribute("firstId", list.hasContent() ? list.getContent().get(0).getId() : null);
+        model.addAttribute("lastId", list.hasContent() ? list.getContent().get(list.getNumberOfElements() - 1).getId() : null);
+        model.addAttribute("totalCount", total);
+        model.addAttribute("totalPages", (int) ((total + BOARD_PAGE_SIZE - 1) / BOARD_PAGE_SIZE));
+        model.addAttribute("currentPage", 0);
+        model.addAttribute("keyword", "");
+        model.addAttribute("email", email);
+        return "board_list"; // .HTML 연결
+    }
+
 }
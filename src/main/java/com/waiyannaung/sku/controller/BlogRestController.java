@@ -1,18 +1,36 @@
 package com.waiyannaung.sku.controller;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.web.bind.annotation.RestController;
 // import com.waiyannaung.sku.model.domain.Article;
 // import com.waiyannaung.sku.model.service.AddArticleRequest;
 // import com.waiyannaung.sku.model.service.BlogService;
+import com.waiyannaung.sku.model.service.BoardExportService;
+import com.waiyannaung.sku.model.service.BoardImportResult;
+import com.waiyannaung.sku.model.service.BoardImportService;
+
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
-// import org.springframework.http.HttpStatus;
-// import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 // import org.springframework.web.bind.annotation.*;
 
 @RequiredArgsConstructor
 @RestController // @Controller + @ResponseBody
 public class BlogRestController {
     // private final BlogService blogService;
+    private final BoardImportService boardImportService;
+    private final BoardExportService boardExportService;
 
     // @PostMapping("/api/articles") // post 요청
     // public ResponseEntity<Article> addArticle(@ModelAttribute AddArticleRequest
@@ -21,4 +39,64 @@ public class BlogRestController {
     // return ResponseEntity.status(HttpStatus.CREATED) // 상태 코드 및 게시글 정보 반환
     // .body(saveArticle);
     // }
+
+    /**
+     * 게시글 대량 가져오기 - 요청 본문(CSV 또는 NDJSON)을 스트리밍으로 읽어 저장
+     * 예) curl -X POST -H 'Content-Type: text/csv' --data-binary @boards.csv /api/boards/import
+     *
+     * @param format 생략 시 Content-Type으로 판단 (text/csv → csv, 그 외 → ndjson)
+     * @return 처리 결과 (저장/거부 행 수, 초당 처리량)
+     */
+    @PostMapping("/api/boards/import")
+    public ResponseEntity<?> importBoards(@RequestParam(defaultValue = "") String format,
+            HttpServletRequest request) throws IOException {
+        String userName = LoginAttributes.get(request, "userName");
+        String email = LoginAttributes.get(request, "email");
+        if (LoginAttributes.get(request, "userId") == null || userName == null || email == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build(); // 인증 필요
+        }
+        if (format.isEmpty()) {
+            String contentType = request.getContentType();
+            format = contentType != null && contentType.startsWith("text/csv")
+                    ? BoardImportService.FORMAT_CSV
+                    : BoardImportService.FORMAT_NDJSON;
+        }
+        try {
+            BoardImportResult result = boardImportService.importBoards(request.getInputStream(), format, userName, email);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/api/boards/import") // 로그인한 회원의 진행 중인 가져오기 현황
+    public ResponseEntity<List<BoardImportResult>> importProgress(HttpServletRequest request) {
+        String email = LoginAttributes.get(request, "email");
+        if (LoginAttributes.get(request, "userId") == null || email == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build(); // 인증 필요
+        }
+        return ResponseEntity.ok(boardImportService.runningImports(email));
+    }
+
+    /**
+     * 게시글 전체 내보내기 - DB 스트림을 응답으로 바로 흘려보냄 (메모리 일정)
+     *
+     * @param format ndjson(기본) 또는 csv
+     */
+    @GetMapping("/api/boards/export")
+    public ResponseEntity<StreamingResponseBody> exportBoards(@RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request) {
+        if (LoginAttributes.get(request, "userId") == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build(); // 인증 필요
+        }
+        boolean csv = BoardExportService.FORMAT_CSV.equals(format);
+        StreamingResponseBody body = out -> boardExportService.export(out,
+                csv ? BoardExportService.FORMAT_CSV : BoardExportService.FORMAT_NDJSON);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"boards." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
 }
@@ -0,0 +1,51 @@
+package com.waiyannaung.sku.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.waiyannaung.sku.model.domain.Board;
+import com.waiyannaung.sku.model.service.BoardVersionRegistry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * board_view 본문(제목, 작성자, 날짜, 글내용) 렌더링 결과 캐시
+ * - (게시글 id, 버전) 단위로 HTML 조각을 보관하므로 수정되면 자동으로 새로 렌더링
+ * - 조회수/좋아요처럼 자주 바뀌는 값은 조각에 포함하지 않음
+ */
+@Component
+class BoardViewRenderer {
+    private final ITemplateEngine templateEngine;
+    private final BoardVersionRegistry boardVersionRegistry;
+    private final Cache<FragmentKey, String> fragments;
+
+    private record FragmentKey(Long id, long version) {
+    }
+
+    BoardViewRenderer(ITemplateEngine templateEngine, BoardVersionRegistry boardVersionRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${app.board.fragment-cache.max-chars:20000000}") long maxChars) {
+        this.templateEngine = templateEngine;
+        this.boardVersionRegistry = boardVersionRegistry;
+        this.fragments = Caffeine.newBuilder()
+                .maximumWeight(maxChars) // 글자 수 기준 용량 제한
+                .weigher((FragmentKey key, String html) -> html.length())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, fragments, "boardFragments");
+    }
+
+    String renderBody(Board board) {
+        BoardVersionRegistry.Version version = boardVersionRegistry.current(board.getId());
+        return fragments.get(new FragmentKey(board.getId(), version.counter()), key -> templateEngine.process(
+                "board_view_body", new Context(LocaleContextHolder.getLocale(), Map.of("board", board))));
+    }
+}
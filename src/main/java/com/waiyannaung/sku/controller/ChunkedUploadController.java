@@ -0,0 +1,113 @@
+package com.waiyannaung.sku.controller;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.waiyannaung.sku.model.service.ChunkedUploadService;
+import com.waiyannaung.sku.model.service.ChunkedUploadService.Progress;
+import com.waiyannaung.sku.model.service.FileUploadResult;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 이어 올리기(분할) 업로드 API (로그인한 사용자 본인 폴더에 저장)
+ * 예) 1. POST /api/uploads?filename=a.zip&size=20971520 → uploadId, chunkSize
+ * 2. PUT /api/uploads/{uploadId}/chunks?offset=0 (본문: 조각 바이트, 순서 무관, 동시 전송 가능)
+ * 3. GET /api/uploads/{uploadId} → 끊긴 뒤 다시 보낼 조각(missingChunks)
+ * 4. POST /api/uploads/{uploadId}/complete → 저장 결과
+ */
+@RequiredArgsConstructor
+@RestController
+public class ChunkedUploadController {
+    private final ChunkedUploadService chunkedUploadService;
+
+    @PostMapping("/api/uploads") // 업로드 세션 생성
+    public ResponseEntity<?> create(@RequestParam String filename, @RequestParam long size,
+            HttpServletRequest request) throws IOException {
+        String userEmail = loginEmail(request);
+        if (userEmail == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build(); // 인증 필요
+        }
+        try {
+            Progress progress = chunkedUploadService.create(userEmail, filename, size);
+            return ResponseEntity.status(HttpStatus.CREATED).body(progress);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/api/uploads/{uploadId}") // 진행 상태 (받지 못한 조각)
+    public ResponseEntity<?> progress(@PathVariable String uploadId, HttpServletRequest request) {
+        String userEmail = loginEmail(request);
+        if (userEmail == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        Progress progress = chunkedUploadService.progress(uploadId, userEmail);
+        return progress != null ? ResponseEntity.ok(progress) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * 조각 전송 (같은 조각을 다시 보내도 됨)
+     *
+     * @param offset 조각 시작 위치 (chunkSize의 배수)
+     */
+    @PutMapping("/api/uploads/{uploadId}/chunks")
+    public ResponseEntity<?> writeChunk(@PathVariable String uploadId, @RequestParam long offset,
+            HttpServletRequest request) throws IOException {
+        String userEmail = loginEmail(request);
+        if (userEmail == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            Progress progress = chunkedUploadService.writeChunk(uploadId, userEmail, offset,
+                    request.getContentLengthLong(), request.getInputStream());
+            return progress != null ? ResponseEntity.ok(progress) : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/api/uploads/{uploadId}/complete") // 모든 조각을 받은 뒤 저장 (빠진 조각이 있으면 409)
+    public ResponseEntity<?> complete(@PathVariable String uploadId, HttpServletRequest request) {
+        String userEmail = loginEmail(request);
+        if (userEmail == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        FileUploadResult result = chunkedUploadService.complete(uploadId, userEmail);
+        if (result == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (result.isStored()) {
+            return ResponseEntity.ok(result);
+        }
+        return ResponseEntity.status(result.getStatus() == FileUploadResult.Status.REJECTED
+                ? HttpStatus.BAD_REQUEST // 사용량 한도 초과
+                : HttpStatus.INTERNAL_SERVER_ERROR).body(result);
+    }
+
+    @DeleteMapping("/api/uploads/{uploadId}") // 업로드 취소
+    public ResponseEntity<?> abort(@PathVariable String uploadId, HttpServletRequest request) {
+        String userEmail = loginEmail(request);
+        if (userEmail == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return chunkedUploadService.abort(uploadId, userEmail) ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    private static String loginEmail(HttpServletRequest request) {
+        String userEmail = LoginAttributes.get(request, "memberEmail");
+        return userEmail != null ? userEmail : LoginAttributes.get(request, "email");
+    }
+}
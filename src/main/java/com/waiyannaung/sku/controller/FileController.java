@@ -1,38 +1,47 @@
 package com.waiyannaung.sku.controller;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.waiyannaung.sku.model.service.FileUploadResult;
 import com.waiyannaung.sku.model.service.FileUploadService;
+import com.waiyannaung.sku.model.service.MailJournalService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * 파일 업로드를 처리하는 컨트롤러
- * - 이메일 콘텐츠 업로드 (텍스트 파일)
- * - 다중 파일 업로드 (최대 2개, 자동 이름 변경, 에러 처리)
+ * - 이메일 콘텐츠 업로드 (추가 전용 기록, 이메일별 이력 보존)
+ * - 다중 파일 업로드 (여러 파일 동시 저장, 자동 이름 변경, 파일별 결과)
+ * - 스트리밍 다중 파일 업로드 (임시 파일 없이 최종 경로에 바로 기록)
  */
+@Slf4j
 @Controller
 public class FileController {
 
-    @Value("${spring.servlet.multipart.location}") // properties 등록된 설정(경로) 주입
-    private String uploadFolder;
+    // 스트리밍 업로드 경로 (요청 본문을 직접 읽으므로 파라미터 파싱 필터에서 제외)
+    public static final String STREAM_UPLOAD_PATH = "/upload-files/stream";
 
     @Autowired
     private FileUploadService fileUploadService;
 
+    @Autowired
+    private MailJournalService mailJournalService;
+
     /**
      * 이메일 콘텐츠 업로드 (기존 기능)
      * 
@@ -49,23 +58,15 @@ public class FileController {
             @RequestParam("message") String message,
             RedirectAttributes redirectAttributes) {
         try {
-            Path uploadPath = Paths.get(uploadFolder).toAbsolutePath();
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-            String sanitizedEmail = email.replaceAll("[^a-zA-Z0-9]", "_");
-            Path filePath = uploadPath.resolve(sanitizedEmail + ".txt"); // 업로드 폴더에 .txt 이름 설정
-            System.out.println("File path: " + filePath); // 디버깅용 출력
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath.toFile()))) {
-                writer.write("메일 제목: " + subject); // 쓰기
-                writer.newLine(); // 줄 바꿈
-                writer.write("요청 메시지:");
-                writer.newLine();
-                writer.write(message);
-            }
+            long sequence = mailJournalService.append(email, subject, message); // 같은 이메일도 덮어쓰지 않고 추가
+            log.debug("메일 내용 기록: {} (#{})", email, sequence);
             redirectAttributes.addFlashAttribute("message", "메일 내용이 성공적으로 업로드되었습니다!");
+        } catch (IllegalArgumentException e) {
+            // 메일 내용이 너무 긴 경우
+            redirectAttributes.addFlashAttribute("message", e.getMessage());
+            return "/error_page/article_error";
         } catch (IOException e) {
-            e.printStackTrace();
+            log.warn("메일 내용 저장 실패: {}", email, e);
             redirectAttributes.addFlashAttribute("message", "업로드 중 오류가 발생했습니다.");
             return "/error_page/article_error"; // 오류 처리 페이지로 연결
         }
@@ -73,77 +74,161 @@ public class FileController {
     }
 
     /**
-     * 다중 파일 업로드 처리 (최대 2개)
+     * 다중 파일 업로드 처리 (최대 app.file.upload.max-files개)
      * 기능:
-     * - 최대 2개 파일 업로드 지원
+     * - 여러 파일 업로드 지원 (file1, file2, files 등 모든 파일 입력)
+     * - 파일별 검증 후 전용 I/O 풀에서 동시에 저장
      * - 파일명 중복 시 타임스탐프 추가하여 자동 이름 변경
-     * - 파일 크기 및 타입 검증
-     * - 상세한 에러 처리
+     * - 파일별 결과(저장/중복/거절/실패) 표시
+     * - 로그인 사용자 폴더에 저장 (로그인하지 않았으면 로그인 페이지로)
      * 
-     * @param file1              첫 번째 파일
-     * @param file2              두 번째 파일 (선택사항)
-     * @param userEmail          사용자 이메일 (사용자별 폴더 생성용)
+     * @param files              업로드할 파일 (입력 이름별)
+     * @param request            요청 (로그인 이메일)
      * @param model              모델 (뷰에 데이터 전달)
      * @param redirectAttributes 리다이렉트 속성
      * @return 성공 시 upload_end, 실패 시 에러 페이지
      */
     @PostMapping("/upload-files")
     public String uploadMultipleFiles(
-            @RequestParam(value = "file1", required = false) MultipartFile file1,
-            @RequestParam(value = "file2", required = false) MultipartFile file2,
-            @RequestParam("userEmail") String userEmail,
+            @RequestParam MultiValueMap<String, MultipartFile> files,
+            HttpServletRequest request,
             Model model,
             RedirectAttributes redirectAttributes) {
+        String userEmail = loginEmail(request);
+        if (userEmail == null) {
+            return "redirect:/member_login"; // 로그인 필요
+        }
 
         try {
-            // 파일 배열 생성
-            MultipartFile[] files = new MultipartFile[] { file1, file2 };
-
-            // 파일 유효성 검증
-            if ((file1 == null || file1.isEmpty()) && (file2 == null || file2.isEmpty())) {
-                // 파일이 없는 경우
-                model.addAttribute("errorType", "NO_FILE");
-                model.addAttribute("errorMessage", "업로드할 파일을 선택해주세요.");
-                return "/error_page/file_upload_error";
-            }
+            List<MultipartFile> selected = files.values().stream().flatMap(List::stream).toList();
 
             // FileUploadService를 사용하여 파일 업로드 처리
-            List<String> uploadedFilenames = fileUploadService.uploadFiles(files, userEmail);
-
-            // 성공 메시지 설정
-            String message = uploadedFilenames.size() + "개의 파일이 성공적으로 업로드되었습니다.\n";
-            message += "파일명: " + String.join(", ", uploadedFilenames);
-            redirectAttributes.addFlashAttribute("message", message);
-            redirectAttributes.addFlashAttribute("uploadedFiles", uploadedFilenames);
-
-            System.out.println("파일 업로드 성공: " + userEmail + " - " + uploadedFilenames);
-            return "redirect:/upload_end";
+            List<FileUploadResult> results = fileUploadService.uploadFilesConcurrently(selected, userEmail);
+            log.info("파일 업로드: {} - {}개", userEmail, results.size());
+            return uploadResultView(results, model, redirectAttributes);
 
         } catch (IllegalArgumentException e) {
-            // 파일 검증 실패 (파일 크기 초과, 허용되지 않는 파일 타입)
-            System.err.println("파일 검증 실패: " + e.getMessage());
-            model.addAttribute("errorType", "VALIDATION_ERROR");
-            model.addAttribute("errorMessage", e.getMessage());
-            model.addAttribute("errorDetail", "파일 크기나 타입을 확인해주세요.");
-            return "/error_page/file_upload_error";
+            // 파일 검증 실패 (파일 개수 초과, 사용할 수 없는 이메일)
+            return validationErrorView(e, model);
 
         } catch (IOException e) {
             // 파일 저장 실패
-            System.err.println("파일 저장 실패: " + e.getMessage());
-            e.printStackTrace();
-            model.addAttribute("errorType", "UPLOAD_ERROR");
-            model.addAttribute("errorMessage", "파일 업로드 중 오류가 발생했습니다.");
-            model.addAttribute("errorDetail", e.getMessage());
-            return "/error_page/file_upload_error";
+            return uploadErrorView(e, model);
 
         } catch (Exception e) {
             // 예상 외 오류
-            System.err.println("예상 외 오류 발생: " + e.getMessage());
-            e.printStackTrace();
+            log.error("예상 외 오류 발생: {}", e.getMessage(), e);
             model.addAttribute("errorType", "UNKNOWN_ERROR");
             model.addAttribute("errorMessage", "알 수 없는 오류가 발생했습니다.");
             model.addAttribute("errorDetail", e.getMessage());
             return "/error_page/file_upload_error";
         }
     }
+
+    /**
+     * 스트리밍 다중 파일 업로드 (최대 app.file.upload.max-files개)
+     * - 컨테이너 multipart 처리(임시 파일) 없이 요청 본문을 읽으며 바로 저장
+     * - 뷰/에러 속성은 /upload-files와 동일
+     * - HiddenHttpMethodFilter가 본문을 먼저 읽지 않도록 WebConfig에서 제외
+     * - 파일 검증에 실패하면 남은 본문을 받지 않고 연결을 닫음
+     * - 로그인 사용자 폴더에 저장 (로그인하지 않았으면 본문을 읽지 않고 로그인 페이지로)
+     *
+     * @param request            요청 (본문 스트림, 로그인 이메일)
+     * @param response           응답 (검증 실패 시 Connection: close)
+     * @param model              모델 (뷰에 데이터 전달)
+     * @param redirectAttributes 리다이렉트 속성
+     * @return 성공 시 upload_end, 실패 시 에러 페이지
+     */
+    @PostMapping(STREAM_UPLOAD_PATH)
+    public String uploadMultipleFilesStreaming(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Model model,
+            RedirectAttributes redirectAttributes) {
+        String userEmail = loginEmail(request);
+        if (userEmail == null) {
+            response.setHeader(HttpHeaders.CONNECTION, "close"); // 남은 본문을 읽지 않음
+            return "redirect:/member_login"; // 로그인 필요
+        }
+
+        try {
+            List<FileUploadResult> results = fileUploadService.uploadFilesStreaming(
+                    request.getInputStream(), request.getContentType(), userEmail);
+            log.info("파일 업로드 (스트리밍): {}개", results.size());
+            return uploadResultView(results, model, redirectAttributes);
+
+        } catch (IllegalArgumentException e) {
+            // 파일 검증 실패 (파일 개수, 요청 크기, 사용할 수 없는 이메일, 확장자, 내용 형식, 파일 크기)
+            response.setHeader(HttpHeaders.CONNECTION, "close"); // 남은 본문을 읽지 않음
+            return validationErrorView(e, model);
+
+        } catch (IOException e) {
+            // 파일 저장 실패 또는 업로드 중 연결 끊김
+            return uploadErrorView(e, model);
+        }
+    }
+
+    private static String loginEmail(HttpServletRequest request) {
+        String userEmail = LoginAttributes.get(request, "memberEmail");
+        return userEmail != null ? userEmail : LoginAttributes.get(request, "email");
+    }
+
+    /**
+     * 업로드 완료 화면 (파일별 결과 표시)
+     */
+    @GetMapping("/upload_end")
+    public String uploadEnd() {
+        return "upload_end";
+    }
+
+    // 파일별 결과에 따라 완료 화면 또는 에러 페이지로 이동
+    private String uploadResultView(List<FileUploadResult> results, Model model,
+            RedirectAttributes redirectAttributes) {
+        if (results.isEmpty()) {
+            // 파일이 없는 경우
+            model.addAttribute("errorType", "NO_FILE");
+            model.addAttribute("errorMessage", "업로드할 파일을 선택해주세요.");
+            return "/error_page/file_upload_error";
+        }
+
+        List<String> uploadedFilenames = results.stream()
+                .filter(FileUploadResult::isStored)
+                .map(FileUploadResult::getStoredFilename)
+                .toList();
+        if (uploadedFilenames.isEmpty()) {
+            // 모든 파일이 검증/저장에 실패한 경우
+            model.addAttribute("errorType", "VALIDATION_ERROR");
+            model.addAttribute("errorMessage", "업로드된 파일이 없습니다.");
+            model.addAttribute("errorDetail", results.stream()
+                    .map(result -> result.getOriginalFilename() + ": " + result.getMessage())
+                    .collect(Collectors.joining(", ")));
+            return "/error_page/file_upload_error";
+        }
+
+        // 성공 메시지 설정
+        String message = uploadedFilenames.size() + "개의 파일이 성공적으로 업로드되었습니다.\n";
+        message += "파일명: " + String.join(", ", uploadedFilenames);
+        redirectAttributes.addFlashAttribute("message", message);
+        redirectAttributes.addFlashAttribute("uploadedFiles", uploadedFilenames);
+        redirectAttributes.addFlashAttribute("uploadResults", results);
+
+        log.info("파일 업로드 성공: {}", uploadedFilenames);
+        return "redirect:/upload_end";
+    }
+
+    private String validationErrorView(IllegalArgumentException e, Model model) {
+        log.warn("파일 검증 실패: {}", e.getMessage());
+        model.addAttribute("errorType", "VALIDATION_ERROR");
+        model.addAttribute("errorMessage", e.getMessage());
+        model.addAttribute("errorDetail", "파일 크기나 타입을 확인해주세요.");
+        return "/error_page/file_upload_error";
+    }
+
+    private String uploadErrorView(IOException e, Model model) {
+        log.warn("파일 저장 실패: {}", e.getMessage(), e);
+        model.addAttribute("errorType", "UPLOAD_ERROR");
+        model.addAttribute("errorMessage", "파일 업로드 중 오류가 발생했습니다.");
+        model.addAttribute("errorDetail", e.getMessage());
+        return "/error_page/file_upload_error";
+    }
 }
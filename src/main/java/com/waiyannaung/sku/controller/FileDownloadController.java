@@ -0,0 +1,294 @@
+package com.waiyannaung.sku.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.waiyannaung.sku.model.service.BlobStore;
+import com.waiyannaung.sku.model.service.FileDownloadService;
+import com.waiyannaung.sku.model.service.FileDownloadService.FileInfo;
+import com.waiyannaung.sku.model.service.FileDownloadService.Lease;
+import com.waiyannaung.sku.model.service.ThumbnailService;
+import com.waiyannaung.sku.model.service.ThumbnailService.Thumbnail;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 업로드 파일 다운로드 컨트롤러 (로그인한 사용자 본인의 폴더만)
+ * - Range 요청(부분 다운로드, 이어받기, 분할 병렬 다운로드) 지원
+ * - 강한 ETag(내용 해시) / Last-Modified 조건부 요청 → 304
+ * - 큰 파일은 Tomcat sendfile(FileChannel.transferTo)로 커널에서 바로 전송,
+ *   작은 파일은 재사용하는 FileChannel에서 transferTo로 전송
+ * - 압축 저장 파일: gzip을 받는 클라이언트에는 저장된 내용을 그대로(Content-Encoding: gzip),
+ *   아니거나 Range 요청이면 풀면서 전송 (Range는 처음부터 풀면서 앞부분을 버리므로 범위 끝까지 읽음,
+ *   압축 저장은 app.file.storage.compression.max-size 이하 파일만 → 요청당 비용 상한)
+ * - 이미지 미리보기: 내용 해시(v)가 붙은 주소는 내용이 바뀌면 주소도 바뀌므로 오래 캐시
+ */
+@Slf4j
+@Controller
+public class FileDownloadController {
+    // Tomcat sendfile 요청 속성 (NIO 커넥터가 지원할 때만 사용)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private FileDownloadService fileDownloadService;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Value("${app.file.download.sendfile-min-size:49152}") // 이보다 작은 응답은 직접 전송
+    private long sendfileMinSize;
+
+    @Value("${app.file.download.cache-max-age-seconds:0}") // 0이면 매 요청 재검증
+    private long cacheMaxAgeSeconds;
+
+    @Value("${app.file.thumbnail.cache-max-age-seconds:31536000}") // 버전(v)이 맞는 미리보기 캐시 기간
+    private long thumbnailMaxAgeSeconds;
+
+    /**
+     * 파일 다운로드
+     *
+     * @param filename 사용자 폴더의 파일명
+     * @param download true면 첨부파일(저장)로, 아니면 브라우저에서 바로 열기
+     */
+    @RequestMapping(value = "/files/{filename}", method = { RequestMethod.GET, RequestMethod.HEAD })
+    public void download(@PathVariable String filename,
+            @RequestParam(value = "download", defaultValue = "false") boolean download,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String userEmail = LoginAttributes.get(request, "memberEmail");
+        if (userEmail == null) {
+            userEmail = LoginAttributes.get(request, "email");
+        }
+        if (userEmail == null) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "로그인이 필요합니다.");
+            return;
+        }
+
+        FileInfo file;
+        try {
+            file = fileDownloadService.find(userEmail, filename);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "파일이 없습니다.");
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheMaxAgeSeconds > 0
+                ? "private, max-age=" + cacheMaxAgeSeconds
+                : "private, no-cache");
+        // 압축 저장 파일: Range가 없고 gzip을 받으면 압축된 그대로 전송 (표현이 다르므로 ETag도 구분)
+        boolean compressed = BlobStore.GZIP.equals(file.contentEncoding());
+        boolean sendCompressed = false;
+        String etag = file.etag();
+        if (compressed) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            sendCompressed = request.getHeader(HttpHeaders.RANGE) == null && acceptsGzip(request);
+            if (sendCompressed) {
+                etag = etag.substring(0, etag.length() - 1) + "-gzip\"";
+            }
+        }
+        if (new ServletWebRequest(request, response).checkNotModified(etag, file.lastModified())) {
+            return; // 304 Not Modified (ETag, Last-Modified는 checkNotModified가 설정)
+        }
+
+        // 요청 범위 계산 (잘못된 범위는 416, 여러 범위나 If-Range 불일치는 전체 전송)
+        long start = 0;
+        long end = file.size() - 1;
+        HttpRange range;
+        try {
+            range = requestedRange(request, file);
+        } catch (IllegalArgumentException e) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + file.size());
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+
+        MediaType contentType = MediaTypeFactory.getMediaType(file.filename())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        response.setContentType(contentType.toString());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                (download ? ContentDisposition.attachment() : ContentDisposition.inline())
+                        .filename(file.filename(), StandardCharsets.UTF_8).build().toString());
+        if (range != null) {
+            start = range.getRangeStart(file.size());
+            end = range.getRangeEnd(file.size());
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + file.size());
+        }
+        if (sendCompressed) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, BlobStore.GZIP);
+            end = file.storedSize() - 1;
+        }
+        long length = end - start + 1;
+        response.setContentLengthLong(length);
+        if (RequestMethod.HEAD.name().equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        // 압축 저장 파일을 원본으로: 풀면서 요청 범위만 전송 (gzip은 임의 위치부터 풀 수 없어 앞부분은 읽고 버림)
+        if (compressed && !sendCompressed) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(file.path()))) {
+                StreamUtils.copyRange(in, response.getOutputStream(), start, end);
+            }
+            return;
+        }
+
+        // 큰 응답: Tomcat sendfile로 전송 (컨트롤러가 반환한 뒤 커넥터가 파일을 직접 전송)
+        if (length >= sendfileMinSize && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.path().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1); // 끝 위치는 포함하지 않음
+            return;
+        }
+
+        // 작은 응답 또는 sendfile 미지원: 재사용 채널에서 위치 지정 전송
+        try (Lease lease = fileDownloadService.open(file)) {
+            FileChannel channel = lease.channel();
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                long sent = channel.transferTo(position, end - position + 1, out);
+                if (sent <= 0) {
+                    break; // 전송 중 파일이 줄어든 경우
+                }
+                position += sent;
+            }
+        }
+    }
+
+    /**
+     * 이미지 미리보기 (없으면 생성될 때까지 잠시 대기)
+     *
+     * @param size 긴 변 픽셀 (app.file.thumbnail.sizes 중 하나)
+     * @param v    원본 내용 해시 (업로드 결과의 contentHash), 현재 내용과 같으면 오래 캐시
+     */
+    @RequestMapping(value = "/files/{filename}/thumbnail/{size}", method = { RequestMethod.GET, RequestMethod.HEAD })
+    public void thumbnail(@PathVariable String filename, @PathVariable int size,
+            @RequestParam(value = "v", required = false) String v,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String userEmail = LoginAttributes.get(request, "memberEmail");
+        if (userEmail == null) {
+            userEmail = LoginAttributes.get(request, "email");
+        }
+        if (userEmail == null) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "로그인이 필요합니다.");
+            return;
+        }
+
+        FileInfo file;
+        Thumbnail thumbnail;
+        try {
+            file = fileDownloadService.find(userEmail, filename);
+            if (file == null || file.contentHash() == null || !ThumbnailService.isImage(filename)) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND, "미리보기가 없습니다.");
+                return;
+            }
+            thumbnail = thumbnailService.find(file.contentHash(), file.path(), size);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        if (thumbnail == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "미리보기를 만들 수 없는 이미지입니다.");
+            return;
+        }
+
+        // 버전이 현재 내용과 같으면 내용이 바뀔 수 없으므로 재검증 없이 캐시
+        response.setHeader(HttpHeaders.CACHE_CONTROL, file.contentHash().equals(v)
+                ? "private, max-age=" + thumbnailMaxAgeSeconds + ", immutable"
+                : "private, no-cache");
+        String etag = "\"" + file.contentHash() + "-" + size + "\"";
+        if (new ServletWebRequest(request, response).checkNotModified(etag, file.lastModified())) {
+            return;
+        }
+        response.setContentType(thumbnail.contentType());
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setContentLengthLong(Files.size(thumbnail.path()));
+        if (!RequestMethod.HEAD.name().equals(request.getMethod())) {
+            Files.copy(thumbnail.path(), response.getOutputStream());
+        }
+    }
+
+    // Accept-Encoding에 gzip(없으면 *)이 q > 0으로 있는지
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (header == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String token : header.split(",")) {
+            String[] parts = token.split(";");
+            String coding = parts[0].trim();
+            double q = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (coding.equalsIgnoreCase(BlobStore.GZIP)) {
+                gzip = q;
+            } else if (coding.equals("*")) {
+                any = q;
+            }
+        }
+        return (gzip >= 0 ? gzip : any) > 0;
+    }
+
+    // 단일 Range만 처리, If-Range는 강한 ETag가 일치할 때만 인정 (아니면 null → 전체 전송)
+    private static HttpRange requestedRange(HttpServletRequest request, FileInfo file) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !(file.strongEtag() && ifRange.trim().equals(file.etag()))) {
+            return null;
+        }
+        List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+        if (ranges.size() != 1) {
+            return null;
+        }
+        HttpRange range = ranges.get(0);
+        if (range.getRangeStart(file.size()) >= file.size()) { // 시작 위치가 파일 끝을 넘음
+            throw new IllegalArgumentException("요청 범위가 파일 크기를 벗어났습니다.");
+        }
+        return range;
+    }
+}
@@ -0,0 +1,24 @@
+package com.waiyannaung.sku.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * 로그인 정보(userId, email, memberEmail, userName) 조회
+ * - 토큰 모드: LoginTokenFilter가 설정한 요청 속성
+ * - 세션 모드: 기존 세션 속성 (세션이 없으면 새로 만들지 않음)
+ */
+final class LoginAttributes {
+
+    private LoginAttributes() {
+    }
+
+    static String get(HttpServletRequest request, String name) {
+        Object value = request.getAttribute(name);
+        if (value == null) {
+            HttpSession session = request.getSession(false);
+            value = session != null ? session.getAttribute(name) : null;
+        }
+        return (String) value;
+    }
+}
@@ -0,0 +1,38 @@
+package com.waiyannaung.sku.controller;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.waiyannaung.sku.model.service.MailJournalService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 로그인한 사용자가 보낸 메일 내용(/upload-email) 조회 API (최신 순)
+ */
+@RequiredArgsConstructor
+@RestController
+public class MailSubmissionController {
+    private static final int MAX_LIMIT = 100;
+
+    private final MailJournalService mailJournalService;
+
+    @GetMapping("/api/mail-submissions")
+    public ResponseEntity<?> list(@RequestParam(defaultValue = "20") int limit, HttpServletRequest request)
+            throws IOException {
+        String userEmail = LoginAttributes.get(request, "memberEmail");
+        if (userEmail == null) {
+            userEmail = LoginAttributes.get(request, "email");
+        }
+        if (userEmail == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build(); // 인증 필요
+        }
+        return ResponseEntity.ok(mailJournalService.findByEmail(userEmail, Math.clamp(limit, 1, MAX_LIMIT)));
+    }
+}
@@ -3,6 +3,10 @@ package com.waiyannaung.sku.controller;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,17 +15,27 @@ import org.springframework.web.bind.annotation.PostMapping;
 
 import com.waiyannaung.sku.model.domain.Member;
 import com.waiyannaung.sku.model.service.AddMemberRequest;
+import com.waiyannaung.sku.model.service.LoginTokenService;
 import com.waiyannaung.sku.model.service.MemberService;
 
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Controller
 public class MemberController {
     @Autowired
     MemberService memberService;
+    @Autowired(required = false)
+    LoginTokenService loginTokenService; // 토큰 모드 (app.auth.mode=token)에서만 존재
+    @Autowired(required = false)
+    FindByIndexNameSessionRepository<? extends Session> sessionRepository; // jdbc 세션 저장소 (tomcat 모드에서는 없음)
+
+    @Value("${app.session.max-per-user:1}") // 사용자 별 세션 최대 수 (모든 서버 합계)
+    int maxSessionsPerUser;
 
     @GetMapping("/join_new") // 회원 가입 페이지 연결
     public String join_new() {
@@ -43,11 +57,22 @@ public class MemberController {
     public String checkMembers(@ModelAttribute AddMemberRequest request, Model model, HttpServletRequest request2,
             HttpServletResponse response) {
         try {
-            // 새로운 세션을 생성하여 다른 사용자의 세션을 유지함 (다중 사용자 로그인 지원)
-            HttpSession newSession = request2.getSession(true); // 새로운 세션 생성
-
+            if (loginTokenService != null) { // 토큰 모드: 서버에 세션을 만들지 않고 서명된 쿠키 발급
+                Member member = memberService.loginCheck(request.getEmail(), request.getPassword());
+                response.addHeader(HttpHeaders.SET_COOKIE,
+                        loginTokenService.issue(request.getEmail(), member).toString());
+                return "redirect:/board_list";
+            }
             // 로그인 인증 확인
             Member member = memberService.loginCheck(request.getEmail(), request.getPassword());
+            HttpSession existingSession = request2.getSession(false); // 인증/제한 확인 전에는 세션을 만들지 않음
+            if (isSessionLimitReached(member.getEmail(), existingSession != null ? existingSession.getId() : null)) {
+                model.addAttribute("error", "이미 다른 곳에서 로그인되어 있습니다. 로그아웃 후 다시 시도해주세요.");
+                return "login";
+            }
+
+            // 새로운 세션을 생성하여 다른 사용자의 세션을 유지함 (다중 사용자 로그인 지원)
+            HttpSession newSession = request2.getSession(true); // 새로운 세션 생성
 
             // 현재 사용자의 세션에만 정보 저장 (각 사용자마다 독립적인 세션 데이터)
             String sessionId = UUID.randomUUID().toString(); // 사용자별 고유 ID
@@ -65,9 +90,26 @@ public class MemberController {
         }
     }
 
+    // 다른 세션(다른 브라우저, 다른 서버)에서 이미 로그인된 수가 제한에 도달했는지 확인 (currentSessionId는 없으면 null)
+    private boolean isSessionLimitReached(String memberEmail, String currentSessionId) {
+        if (sessionRepository == null) {
+            return false; // tomcat 세션 저장소: 서버별 메모리 세션만 존재
+        }
+        long otherSessions = sessionRepository.findByPrincipalName(memberEmail).keySet().stream()
+                .filter(id -> !id.equals(currentSessionId))
+                .count();
+        return otherSessions >= maxSessionsPerUser;
+    }
+
     @GetMapping("/api/logout") // 로그아웃 버튼 동작
     public String member_logout(Model model, HttpServletRequest request2, HttpServletResponse response) {
         try {
+            String tokenId = (String) request2.getAttribute("userId"); // 토큰 모드: 검증된 토큰 id
+            if (loginTokenService != null && tokenId != null) {
+                loginTokenService.revoke(UUID.fromString(tokenId)); // 같은 토큰 재사용 방지 (모든 서버)
+                response.addHeader(HttpHeaders.SET_COOKIE, loginTokenService.expiredCookie().toString());
+                log.info("사용자 로그아웃: {}", request2.getAttribute("email"));
+            }
             HttpSession session = request2.getSession(false); // 현재 사용자의 세션 가져오기
             if (session != null) {
                 // 현재 사용자의 세션만 제거 (다른 사용자의 세션은 유지)
@@ -80,7 +122,7 @@ public class MemberController {
                 cookie.setMaxAge(0); // 쿠키 만료 시간을 0으로 설정하여 삭제
                 response.addCookie(cookie); // 응답에 쿠키 설정
 
-                System.out.println("사용자 로그아웃: " + userEmail); // 로그아웃 정보 출력
+                log.info("사용자 로그아웃: {}", userEmail); // 로그아웃 정보 출력
             }
             return "login"; // 로그인 페이지로 리다이렉트
         } catch (IllegalArgumentException e) {
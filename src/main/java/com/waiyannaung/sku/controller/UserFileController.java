@@ -0,0 +1,62 @@
+package com.waiyannaung.sku.controller;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.waiyannaung.sku.model.service.FileIndexService;
+import com.waiyannaung.sku.model.service.FileUploadService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 로그인한 사용자의 업로드 파일 목록, 사용량, 삭제 API (디렉토리 대신 파일 색인 조회)
+ */
+@RequiredArgsConstructor
+@RestController
+public class UserFileController {
+    private final FileIndexService fileIndexService;
+    private final FileUploadService fileUploadService;
+
+    @GetMapping("/api/files") // 파일 목록 (최근 업로드 순) 및 사용량
+    public ResponseEntity<?> list(HttpServletRequest request) {
+        String userEmail = loginEmail(request);
+        if (userEmail == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build(); // 인증 필요
+        }
+        try {
+            String owner = fileUploadService.ownerOf(userEmail);
+            return ResponseEntity.ok(Map.of(
+                    "usage", fileIndexService.usage(owner),
+                    "files", fileIndexService.list(owner)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/api/files/{filename}") // 파일 삭제 (같은 내용을 참조하는 파일이 없으면 blob도 삭제)
+    public ResponseEntity<?> delete(@PathVariable String filename, HttpServletRequest request) throws IOException {
+        String userEmail = loginEmail(request);
+        if (userEmail == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            return fileUploadService.deleteFile(userEmail, filename) ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static String loginEmail(HttpServletRequest request) {
+        String userEmail = LoginAttributes.get(request, "memberEmail");
+        return userEmail != null ? userEmail : LoginAttributes.get(request, "email");
+    }
+}
@@ -8,8 +8,12 @@ import jakarta.persistence.*; // 기존 javax 후속 버전
 @Table(name = "board") // 테이블 이름을 지정. 없는 경우 클래스이름으로 설정
 @NoArgsConstructor(access = AccessLevel.PROTECTED) // 외부 생성자 접근 방지
 public class Board {
+    public static final int ID_ALLOCATION_SIZE = 50; // 한 번에 할당받는 id 개수 (hibernate.jdbc.batch_size와 맞춤)
+
     @Id // 기본 키
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // 기본 키 1씩 증가
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "board_id") // 블록 단위로 미리 할당 (insert batch 가능)
+    @TableGenerator(name = "board_id", table = "id_sequence", pkColumnName = "seq_name", valueColumnName = "next_val",
+            pkColumnValue = "board", allocationSize = Board.ID_ALLOCATION_SIZE)
     @Column(name = "id", updatable = false) // 수정 x
     private Long id;
     @Column(name = "title", nullable = false) // null x
@@ -20,10 +24,10 @@ public class Board {
     private String user = "";
     @Column(name = "newdate", nullable = false) // 날짜
     private String newdate = "";
-    @Column(name = "count", nullable = false) // 조회수
-    private String count = "";
-    @Column(name = "likec", nullable = false) // 좋아요
-    private String likec = "";
+    @Column(name = "count", nullable = false) // 조회수 (BoardCounterService가 일괄 증가)
+    private long count = 0;
+    @Column(name = "likec", nullable = false) // 좋아요 (BoardCounterService가 일괄 증가)
+    private long likec = 0;
     @Column(name = "password", nullable = false) // 게시글 비밀번호 (DB에서 NOT NULL)
     private String password = ""; // 기본값 빈 문자열
     @Column(name = "address", nullable = true) // 주소 (선택사항)
@@ -38,13 +42,13 @@ public class Board {
     private String name = ""; // 기본값 빈 문자열
 
     @Builder // 생성자에 빌더 패턴 적용(불변성)
-    public Board(String title, String content, String user, String newdate, String count, String likec, String password, String address, String age, String email, String mobile, String name) {
+    public Board(String title, String content, String user, String newdate, Long count, Long likec, String password, String address, String age, String email, String mobile, String name) {
         this.title = title;
         this.content = content;
         this.user = user;
         this.newdate = newdate;
-        this.count = count;
-        this.likec = likec;
+        this.count = count != null ? count : 0; // 기본값 처리
+        this.likec = likec != null ? likec : 0; // 기본값 처리
         this.password = password != null ? password : ""; // 기본값 처리
         this.address = address != null ? address : ""; // 기본값 처리
         this.age = age != null ? age : "0"; // 기본값 처리
@@ -53,13 +57,13 @@ public class Board {
         this.name = name != null ? name : ""; // 기본값 처리
     }
 
-    public void update(String title, String content, String user, String newdate, String count, String likec, String password, String address, String age, String email, String mobile, String name) {
+    public void update(String title, String content, String user, String newdate, Long count, Long likec, String password, String address, String age, String email, String mobile, String name) {
         this.title = title;
         this.content = content;
         this.user = user;
         this.newdate = newdate;
-        this.count = count;
-        this.likec = likec;
+        this.count = count != null ? count : 0; // 기본값 처리
+        this.likec = likec != null ? likec : 0; // 기본값 처리
         this.password = password != null ? password : ""; // 기본값 처리
         this.address = address != null ? address : ""; // 기본값 처리
         this.age = age != null ? age : "0"; // 기본값 처리
@@ -0,0 +1,14 @@
+package com.waiyannaung.sku.model.domain;
+
+import lombok.*; // 어노테이션 자동 생성
+
+@Getter // 목록 화면에서 읽기만 함
+@AllArgsConstructor // JPQL 생성자 표현식(select new ...)에서 사용
+public class BoardSummary { // 게시글 목록 조회용 프로젝션 (본문, 비밀번호 등 제외)
+    private Long id;
+    private String title;
+    private String user; // 작성자
+    private String newdate; // 날짜
+    private long count; // 조회수
+    private long likec; // 좋아요
+}
@@ -34,4 +34,8 @@ public class Member {
         this.mobile = mobile;
         this.address = address;
     }
+
+    public void updatePassword(String password) { // 해시 재생성 (BCrypt cost 변경 시)
+        this.password = password;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.waiyannaung.sku.model.domain;
+
+import java.time.LocalDateTime;
+
+import lombok.*; // 어노테이션 자동 생성
+import jakarta.persistence.*; // 기존 javax 후속 버전
+
+@Getter // setter는 없음(무분별한 변경 x)
+@Entity // 사용자별 업로드 파일 색인 (디렉토리를 읽지 않고 목록, 사용량, 이름 중복 확인)
+@Table(name = "uploaded_file", uniqueConstraints = @UniqueConstraint(name = "uk_uploaded_file_owner_filename",
+        columnNames = { "owner", "filename" }))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class UploadedFile {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY) // 기본 키 1씩 증가
+    @Column(name = "id", updatable = false) // 수정 x
+    private Long id;
+    @Column(name = "owner", nullable = false, length = 320) // 사용자 폴더명 (이메일에서 변환)
+    private String owner = "";
+    @Column(name = "filename", nullable = false) // 사용자 폴더의 파일명
+    private String filename = "";
+    @Column(name = "file_size", nullable = false)
+    private long size = 0;
+    @Column(name = "content_hash", nullable = true, length = 64) // SHA-256 (blob에 연결되지 않은 파일은 null)
+    private String contentHash;
+    @Column(name = "content_encoding", nullable = true, length = 16) // 저장 형식 (gzip, 원본이면 null)
+    private String contentEncoding;
+    @Column(name = "uploaded_at", nullable = false)
+    private LocalDateTime uploadedAt;
+
+    @Builder // 생성자에 빌더 패턴 적용(불변성)
+    public UploadedFile(String owner, String filename, long size, String contentHash, String contentEncoding,
+            LocalDateTime uploadedAt) {
+        this.owner = owner;
+        this.filename = filename;
+        this.size = size;
+        this.contentHash = contentHash;
+        this.contentEncoding = contentEncoding;
+        this.uploadedAt = uploadedAt;
+    }
+
+    public void update(long size, String contentHash, String contentEncoding, LocalDateTime uploadedAt) { // 같은 이름으로 다시 저장, 디스크와 맞춤
+        this.size = size;
+        this.contentHash = contentHash;
+        this.contentEncoding = contentEncoding;
+        this.uploadedAt = uploadedAt;
+    }
+}
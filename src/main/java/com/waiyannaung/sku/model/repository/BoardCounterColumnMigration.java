@@ -0,0 +1,46 @@
+package com.waiyannaung.sku.model.repository;
+
+import java.util.List;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * board.count / board.likec 문자열 컬럼 → bigint 변환
+ * - 예전 스키마는 varchar 컬럼이라 "count = count + ?" 일괄 증가가 문자열 연산이 됨
+ * - ddl-auto=update 는 컬럼 타입을 바꾸지 않으므로 시작 시 한 번 직접 변환 (이미 숫자형이면 아무것도 안 함)
+ * - 숫자가 아닌 값은 0으로 맞춘 뒤 변환
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BoardCounterColumnMigration implements InitializingBean {
+    private static final List<String> TEXT_TYPES = List.of("char", "varchar", "tinytext", "text", "mediumtext", "longtext");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory; // 스키마 갱신 완료 후 실행되도록 의존
+
+    @Override
+    public void afterPropertiesSet() {
+        List<String> textColumns = jdbcTemplate.queryForList("select column_name from information_schema.columns"
+                + " where table_schema = database() and lower(table_name) = 'board'"
+                + " and lower(column_name) in ('count', 'likec') and lower(data_type) in ("
+                + String.join(", ", TEXT_TYPES.stream().map(type -> "'" + type + "'").toList()) + ")", String.class);
+        if (textColumns.isEmpty()) {
+            return; // 이미 숫자형
+        }
+        for (String column : textColumns) {
+            jdbcTemplate.update("update board set " + column + " = '0'"
+                    + " where " + column + " is null or " + column + " not regexp '^[0-9]+$'");
+        }
+        jdbcTemplate.execute("alter table board"
+                + " modify count bigint not null default 0,"
+                + " modify likec bigint not null default 0");
+        log.info("board 카운터 컬럼을 bigint로 변환: {}", textColumns);
+    }
+}
@@ -0,0 +1,32 @@
+package com.waiyannaung.sku.model.repository;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.waiyannaung.sku.model.domain.Board;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * board id 할당 테이블(id_sequence) 초기화
+ * - 기존 AUTO_INCREMENT 로 생성된 id와 겹치지 않도록 시작값을 현재 최대 id 이후로 맞춤
+ * - EntityManagerFactory(스키마 갱신) 이후, 첫 insert 이전에 실행
+ */
+@Component
+@RequiredArgsConstructor
+public class BoardIdSequenceInitializer implements InitializingBean {
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory; // 스키마 갱신 완료 후 실행되도록 의존
+
+    @Override
+    public void afterPropertiesSet() {
+        jdbcTemplate.update("insert into id_sequence (seq_name, next_val) select 'board', 0 from dual"
+                + " where not exists (select 1 from id_sequence where seq_name = 'board')");
+        // pooled 할당은 (읽은 값 - allocationSize) 부터 사용하므로 한 블록 만큼 여유를 둠
+        jdbcTemplate.update("update id_sequence set next_val = greatest(next_val,"
+                + " (select coalesce(max(id), 0) + ? from board)) where seq_name = 'board'",
+                Board.ID_ALLOCATION_SIZE + 1);
+    }
+}
@@ -1,12 +1,52 @@
 package com.waiyannaung.sku.model.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
 import com.waiyannaung.sku.model.domain.Board;
+import com.waiyannaung.sku.model.domain.BoardSummary;
 
 @Repository
 public interface BoardRepository extends JpaRepository<Board, Long> {
-    Page<Board> findByTitleContainingIgnoreCase(String title, Pageable pageable);
-}
\ No newline at end of file
+    // 목록 화면용 프로젝션 - 화면에 표시하는 컬럼만 조회
+    String SUMMARY_SELECT = "select new com.waiyannaung.sku.model.domain.BoardSummary("
+            + "b.id, b.title, b.user, b.newdate, b.count, b.likec) from Board b";
+
+    @Query(value = SUMMARY_SELECT, countQuery = "select count(b) from Board b")
+    Page<BoardSummary> findSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " where lower(b.title) like lower(concat('%', :keyword, '%'))",
+            countQuery = "select count(b) from Board b where lower(b.title) like lower(concat('%', :keyword, '%'))")
+    Page<BoardSummary> findSummariesByTitle(@Param("keyword") String keyword, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " where b.id in :ids")
+    List<BoardSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 키셋(seek) 페이지네이션 - PK 인덱스로 위치를 찾으므로 OFFSET, COUNT 쿼리 없음
+    @Query(SUMMARY_SELECT + " where b.id > :id order by b.id asc")
+    Slice<BoardSummary> findSummariesAfter(@Param("id") Long id, Pageable pageable); // id 다음 글
+
+    @Query(SUMMARY_SELECT + " where b.id < :id order by b.id desc")
+    Slice<BoardSummary> findSummariesBefore(@Param("id") Long id, Pageable pageable); // id 이전 글(역순)
+
+    // 전체 내보내기용 전방향 스트림 - useCursorFetch=true(MySQL)일 때 fetch size 만큼씩 서버 커서로 읽음
+    // 트랜잭션 안에서 사용하고 반드시 close 해야 함
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("select b from Board b order by b.id")
+    Stream<Board> streamAllOrderById();
+}
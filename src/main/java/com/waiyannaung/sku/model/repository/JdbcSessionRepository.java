@@ -0,0 +1,310 @@
+package com.waiyannaung.sku.model.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+import org.springframework.stereotype.Repository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 여러 서버가 공유하는 DB 세션 저장소 (app.session.store=jdbc)
+ * - 속성은 SessionAttributeCodec으로 압축 인코딩하여 한 행에 저장
+ * - 속성이 바뀌지 않은 요청의 마지막 접근 시각은 메모리에 모았다가 주기적으로 batch UPDATE
+ * - 회원 이메일(principal_name) 색인으로 사용자별 세션 조회 (서버 전체 동시 세션 제한)
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "app.session.store", havingValue = "jdbc")
+public class JdbcSessionRepository
+        implements FindByIndexNameSessionRepository<JdbcSessionRepository.StoredSession>, InitializingBean {
+    private static final String PRINCIPAL_ATTRIBUTE = "memberEmail"; // 로그인 시 저장하는 회원 이메일
+
+    private static final String SELECT_COLUMNS = "select session_id, creation_time, last_access_time,"
+            + " max_inactive_interval, attributes from app_session";
+    private static final String TOUCH_SQL = "update app_session set last_access_time = greatest(last_access_time, ?),"
+            + " expiry_time = greatest(expiry_time, ?) where session_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration defaultMaxInactiveInterval;
+    private final long touchGraceMillis; // 지연 반영 중인 접근 시각을 고려한 만료 여유
+
+    // 세션 id → 아직 DB에 반영하지 않은 마지막 접근 (epoch ms)
+    private final Map<String, Touch> pendingTouches = new ConcurrentHashMap<>();
+
+    private record Touch(long lastAccess, long expiry) {
+        static Touch latest(Touch a, Touch b) {
+            return a.lastAccess >= b.lastAccess ? a : b;
+        }
+    }
+    private final ReentrantLock flushLock = new ReentrantLock(); // 주기 반영과 종료 반영이 겹치지 않도록
+
+    public JdbcSessionRepository(JdbcTemplate jdbcTemplate,
+            @Value("${server.servlet.session.timeout:30m}") Duration defaultMaxInactiveInterval,
+            @Value("${app.session.touch-flush-interval-ms:10000}") long touchFlushIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+        this.touchGraceMillis = touchFlushIntervalMillis * 2;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        jdbcTemplate.execute("create table if not exists app_session ("
+                + " session_id varchar(64) not null primary key,"
+                + " principal_name varchar(255),"
+                + " creation_time bigint not null,"
+                + " last_access_time bigint not null,"
+                + " max_inactive_interval int not null,"
+                + " expiry_time bigint not null,"
+                + " attributes blob,"
+                + " index app_session_principal_idx (principal_name),"
+                + " index app_session_expiry_idx (expiry_time))");
+    }
+
+    /**
+     * DB 세션 + 변경 추적 (새 세션, 속성 변경, id 변경 여부)
+     */
+    public static final class StoredSession implements Session {
+        private final MapSession delegate;
+        private String persistedId; // DB에 저장된 id (null이면 새 세션)
+        private boolean attributesChanged;
+
+        StoredSession(MapSession delegate, String persistedId) {
+            this.delegate = delegate;
+            this.persistedId = persistedId;
+        }
+
+        @Override
+        public String getId() {
+            return delegate.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            return delegate.changeSessionId();
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return delegate.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return delegate.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            delegate.setAttribute(attributeName, attributeValue);
+            attributesChanged = true;
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            delegate.removeAttribute(attributeName);
+            attributesChanged = true;
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return delegate.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            delegate.setLastAccessedTime(lastAccessedTime);
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return delegate.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            delegate.setMaxInactiveInterval(interval);
+            attributesChanged = true;
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return delegate.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return delegate.isExpired();
+        }
+
+        String principalName() {
+            Object principal = delegate.getAttribute(PRINCIPAL_NAME_INDEX_NAME);
+            if (principal == null) {
+                principal = delegate.getAttribute(PRINCIPAL_ATTRIBUTE);
+            }
+            return principal != null ? principal.toString() : null;
+        }
+
+        long expiryMillis() {
+            return getLastAccessedTime().plus(getMaxInactiveInterval()).toEpochMilli();
+        }
+    }
+
+    @Override
+    public StoredSession createSession() {
+        MapSession session = new MapSession();
+        session.setMaxInactiveInterval(defaultMaxInactiveInterval);
+        return new StoredSession(session, null);
+    }
+
+    /**
+     * 세션 저장 - 새 세션/속성 변경/id 변경은 즉시 반영, 접근 시각만 바뀐 경우는 지연 반영
+     */
+    @Override
+    public void save(StoredSession session) {
+        if (session.persistedId == null) {
+            jdbcTemplate.update("insert into app_session (session_id, principal_name, creation_time,"
+                    + " last_access_time, max_inactive_interval, expiry_time, attributes) values (?, ?, ?, ?, ?, ?, ?)",
+                    session.getId(), session.principalName(), session.getCreationTime().toEpochMilli(),
+                    session.getLastAccessedTime().toEpochMilli(), (int) session.getMaxInactiveInterval().toSeconds(),
+                    session.expiryMillis(), SessionAttributeCodec.encode(attributesOf(session)));
+        } else if (session.attributesChanged || !session.persistedId.equals(session.getId())) {
+            jdbcTemplate.update("update app_session set session_id = ?, principal_name = ?, last_access_time = ?,"
+                    + " max_inactive_interval = ?, expiry_time = ?, attributes = ? where session_id = ?",
+                    session.getId(), session.principalName(), session.getLastAccessedTime().toEpochMilli(),
+                    (int) session.getMaxInactiveInterval().toSeconds(), session.expiryMillis(),
+                    SessionAttributeCodec.encode(attributesOf(session)), session.persistedId);
+            pendingTouches.remove(session.persistedId);
+        } else {
+            // 읽기만 한 요청 - 다음 반영 주기에 batch UPDATE
+            pendingTouches.merge(session.getId(),
+                    new Touch(session.getLastAccessedTime().toEpochMilli(), session.expiryMillis()), Touch::latest);
+            return;
+        }
+        session.persistedId = session.getId();
+        session.attributesChanged = false;
+    }
+
+    @Override
+    public StoredSession findById(String id) {
+        List<StoredSession> found = jdbcTemplate.query(SELECT_COLUMNS + " where session_id = ?", sessionMapper(), id);
+        if (found.isEmpty()) {
+            return null;
+        }
+        StoredSession session = found.get(0);
+        if (isExpired(session)) {
+            deleteById(id);
+            return null;
+        }
+        return session;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        pendingTouches.remove(id);
+        jdbcTemplate.update("delete from app_session where session_id = ?", id);
+    }
+
+    /**
+     * 회원 이메일로 살아 있는 세션 조회 (모든 서버의 세션 대상)
+     */
+    @Override
+    public Map<String, StoredSession> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+        if (!PRINCIPAL_NAME_INDEX_NAME.equals(indexName)) {
+            return Map.of();
+        }
+        List<StoredSession> sessions = jdbcTemplate.query(
+                SELECT_COLUMNS + " where principal_name = ? and expiry_time > ?", sessionMapper(),
+                indexValue, System.currentTimeMillis() - touchGraceMillis);
+        Map<String, StoredSession> result = new HashMap<>();
+        for (StoredSession session : sessions) {
+            if (!isExpired(session)) {
+                result.put(session.getId(), session);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 지연된 마지막 접근 시각을 batch UPDATE로 반영
+     */
+    @Scheduled(fixedDelayString = "${app.session.touch-flush-interval-ms:10000}")
+    public void flushTouches() {
+        flushLock.lock();
+        try {
+            Map<String, Touch> flushed = new HashMap<>(pendingTouches);
+            if (flushed.isEmpty()) {
+                return;
+            }
+            List<Object[]> batchArgs = new ArrayList<>(flushed.size());
+            flushed.forEach((id, touch) -> batchArgs.add(new Object[] { touch.lastAccess(), touch.expiry(), id }));
+            jdbcTemplate.batchUpdate(TOUCH_SQL, batchArgs); // 세션 수와 무관하게 한 번의 batch
+            // 그 사이 더 최근 접근이 들어온 세션은 남겨 두고 다음 주기에 반영
+            flushed.forEach((id, touch) -> pendingTouches.remove(id, touch));
+        } catch (RuntimeException e) {
+            log.warn("세션 접근 시각 반영 실패, 다음 주기에 재시도: {}", e.getMessage());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.session.cleanup-interval-ms:60000}")
+    public void deleteExpired() { // 만료된 세션 정리 (지연 반영 여유만큼 늦게 삭제)
+        int deleted = jdbcTemplate.update("delete from app_session where expiry_time < ?",
+                System.currentTimeMillis() - touchGraceMillis);
+        if (deleted > 0) {
+            log.debug("만료 세션 {}건 삭제", deleted);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() { // 정상 종료 시 남은 접근 시각 반영
+        flushTouches();
+    }
+
+    // DB 접근 시각과 아직 반영되지 않은 이 서버의 접근 시각 중 최신 값으로 만료 판단
+    private boolean isExpired(StoredSession session) {
+        Touch pending = pendingTouches.get(session.getId());
+        if (pending != null && pending.lastAccess() > session.getLastAccessedTime().toEpochMilli()) {
+            session.delegate.setLastAccessedTime(Instant.ofEpochMilli(pending.lastAccess()));
+        }
+        return session.expiryMillis() + touchGraceMillis < System.currentTimeMillis();
+    }
+
+    private static Map<String, Object> attributesOf(StoredSession session) {
+        Map<String, Object> attributes = new HashMap<>();
+        for (String name : session.getAttributeNames()) {
+            attributes.put(name, session.getAttribute(name));
+        }
+        return attributes;
+    }
+
+    private static RowMapper<StoredSession> sessionMapper() {
+        return (rs, rowNum) -> {
+            String id = rs.getString("session_id");
+            MapSession session = new MapSession(id);
+            session.setCreationTime(Instant.ofEpochMilli(rs.getLong("creation_time")));
+            session.setLastAccessedTime(Instant.ofEpochMilli(rs.getLong("last_access_time")));
+            session.setMaxInactiveInterval(Duration.ofSeconds(rs.getInt("max_inactive_interval")));
+            SessionAttributeCodec.decode(rs.getBytes("attributes")).forEach(session::setAttribute);
+            return new StoredSession(session, id);
+        };
+    }
+}
@@ -1,10 +1,24 @@
 package com.waiyannaung.sku.model.repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.waiyannaung.sku.model.domain.Member;;
 
 @Repository
 public interface MemberRepository extends JpaRepository<Member, Long> {
     Member findByEmail(String email);
+
+    @Query("select m.email from Member m") // 블룸 필터 초기화용 (트랜잭션 안에서 사용)
+    Stream<String> streamAllEmails();
+
+    @Query("select coalesce(max(m.id), 0) from Member m")
+    long findMaxId();
+
+    @Query("select m.email from Member m where m.id > :id") // 다른 서버에서 가입한 이메일 반영용
+    List<String> findEmailsAfter(@Param("id") long id);
 }
@@ -0,0 +1,205 @@
+package com.waiyannaung.sku.model.repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 세션 속성 바이너리 인코딩 (Java 직렬화 대비 수십 배 작음)
+ * - 로그인 시 저장하는 속성 이름(userId, email, memberEmail, userName)은 1바이트 코드로 기록
+ * - 문자열은 UTF-8, UUID 문자열은 16바이트, 숫자/불리언은 고정 길이로 기록
+ * - 그 외 타입만 Java 직렬화로 기록
+ *   (세션 테이블은 모든 노드가 읽으므로 역직렬화는 허용 목록의 클래스와 크기 제한 안에서만,
+ *   허용되지 않은 클래스가 든 속성은 읽지 않고 버림)
+ *
+ * 형식: [버전][속성 수(varint)] { [이름 코드 | 0 + 이름][타입][값] }*
+ */
+@Slf4j
+final class SessionAttributeCodec {
+    private static final int VERSION = 1;
+    // 세션에 들어가는 타입: 로그인 정보, Spring Security 컨텍스트/저장된 요청, 플래시 속성, 이 애플리케이션의 값
+    private static final ObjectInputFilter SERIALIZATION_FILTER = ObjectInputFilter.Config.createFilter(
+            "maxdepth=20;maxrefs=10000;maxarray=10000;maxbytes=1048576;"
+                    + "java.lang.*;java.util.*;java.time.*;"
+                    + "org.springframework.security.**;"
+                    + "org.springframework.web.servlet.FlashMap;org.springframework.util.LinkedMultiValueMap;"
+                    + "com.waiyannaung.sku.**;!*");
+
+    // 이름 코드는 목록 순서 + 1 (0은 이름을 직접 기록) - 순서를 바꾸면 기존 세션을 읽을 수 없음
+    private static final List<String> KNOWN_NAMES = List.of("userId", "email", "memberEmail", "userName");
+
+    private static final byte TYPE_STRING = 'S';
+    private static final byte TYPE_UUID = 'U';
+    private static final byte TYPE_LONG = 'L';
+    private static final byte TYPE_INT = 'I';
+    private static final byte TYPE_BOOLEAN = 'B';
+    private static final byte TYPE_SERIALIZED = 'J';
+
+    private SessionAttributeCodec() {
+    }
+
+    static byte[] encode(Map<String, Object> attributes) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            writeVarInt(out, attributes.size());
+            for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+                int code = KNOWN_NAMES.indexOf(entry.getKey()) + 1;
+                out.writeByte(code);
+                if (code == 0) {
+                    writeString(out, entry.getKey());
+                }
+                writeValue(out, entry.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("세션 속성 인코딩 실패", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Map<String, Object> decode(byte[] data) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        if (data == null || data.length == 0) {
+            return attributes;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IllegalStateException("지원하지 않는 세션 형식: " + version);
+            }
+            int count = readVarInt(in);
+            for (int i = 0; i < count; i++) {
+                int code = in.readUnsignedByte();
+                String name = code == 0 ? readString(in) : KNOWN_NAMES.get(code - 1);
+                Object value = readValue(in, name);
+                if (value != null) {
+                    attributes.put(name, value);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("세션 속성 디코딩 실패", e);
+        }
+        return attributes;
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof String s) {
+            UUID uuid = asCanonicalUuid(s);
+            if (uuid != null) {
+                out.writeByte(TYPE_UUID);
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+            } else {
+                out.writeByte(TYPE_STRING);
+                writeString(out, s);
+            }
+        } else if (value instanceof Long l) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong(l);
+        } else if (value instanceof Integer n) {
+            out.writeByte(TYPE_INT);
+            out.writeInt(n);
+        } else if (value instanceof Boolean b) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean(b);
+        } else if (value instanceof Serializable serializable) {
+            ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+            try (ObjectOutputStream objects = new ObjectOutputStream(serialized)) {
+                objects.writeObject(serializable);
+            }
+            out.writeByte(TYPE_SERIALIZED);
+            writeVarInt(out, serialized.size());
+            serialized.writeTo(out);
+        } else {
+            throw new IllegalArgumentException("세션에 저장할 수 없는 타입: " + value.getClass().getName());
+        }
+    }
+
+    // 허용되지 않은 직렬화 속성이면 null
+    private static Object readValue(DataInputStream in, String name) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_STRING:
+                return readString(in);
+            case TYPE_UUID:
+                return new UUID(in.readLong(), in.readLong()).toString();
+            case TYPE_LONG:
+                return in.readLong();
+            case TYPE_INT:
+                return in.readInt();
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            case TYPE_SERIALIZED:
+                byte[] serialized = in.readNBytes(readVarInt(in));
+                try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+                    objects.setObjectInputFilter(SERIALIZATION_FILTER);
+                    return objects.readObject();
+                } catch (InvalidClassException e) { // 필터 거부 (다른 속성은 그대로 읽음)
+                    log.warn("허용되지 않은 세션 속성 무시: {} - {}", name, e.getMessage());
+                    return null;
+                } catch (ClassNotFoundException e) {
+                    throw new IOException("세션 속성 클래스를 찾을 수 없음", e);
+                }
+            default:
+                throw new IOException("알 수 없는 세션 속성 타입: " + type);
+        }
+    }
+
+    // 소문자 표준 형식의 UUID 문자열만 16바이트로 기록 (복원 시 같은 문자열이 되도록)
+    private static UUID asCanonicalUuid(String s) {
+        if (s.length() != 36 || s.charAt(8) != '-' || s.charAt(13) != '-') {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(s);
+            return uuid.toString().equals(s) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(in.readNBytes(readVarInt(in)), StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("잘못된 varint");
+    }
+}
@@ -0,0 +1,20 @@
+package com.waiyannaung.sku.model.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.waiyannaung.sku.model.domain.UploadedFile;
+
+@Repository
+public interface UploadedFileRepository extends JpaRepository<UploadedFile, Long> {
+    List<UploadedFile> findByOwner(String owner);
+
+    Optional<UploadedFile> findByOwnerAndFilename(String owner, String filename);
+
+    @Query("select distinct f.owner from UploadedFile f") // 디스크에서 폴더가 사라진 사용자 정리용
+    List<String> findOwners();
+}
@@ -21,8 +21,8 @@ public class AddArticleRequest {
     private String content;
     private String user;
     private String newdate;
-    private String count;
-    private String likec;
+    private Long count;
+    private Long likec;
     private String password; // 게시글 비밀번호 (DB 컬럼 대응)
     private String address; // 주소 필드 추가
     private String age; // 나이 필드 추가 (DB 컬럼 대응)
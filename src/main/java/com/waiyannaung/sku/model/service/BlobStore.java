@@ -0,0 +1,421 @@
+package com.waiyannaung.sku.model.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 업로드 파일 내용 기준 저장소 (같은 내용은 한 번만 저장)
+ * - 내용은 {업로드 폴더}/.blobs/{sha256 앞 2자리}/{나머지} 에 한 번만 저장
+ * - gzip으로 압축해 저장한 내용은 {나머지}.gz (해시는 원본 기준, 사용자 폴더의 링크도 압축된 내용)
+ * - 사용자 폴더의 파일은 blob에 대한 하드 링크 → 참조 수 = 링크 수(nlink) - 1
+ * - 마지막 참조가 삭제되면 blob도 삭제
+ * - 하드 링크를 지원하지 않는(또는 사용자 폴더가 다른 파일 시스템인) 경우에만 복사로 대체 (중복 제거 없음)
+ * - 저장 용량, 중복 제거로 절약한 용량을 actuator 지표로 노출 (upload.blob.*)
+ */
+@Slf4j
+@Service
+public class BlobStore {
+    static final String BLOB_DIR = ".blobs";
+    public static final String GZIP = "gzip";
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * 저장 결과
+     *
+     * @param filename     사용자 폴더에 저장된 파일명
+     * @param deduplicated 같은 내용이 이미 있어 새로 저장하지 않았으면 true
+     * @param encoding     사용자 폴더 파일의 압축 형식 (GZIP, 원본이면 null)
+     */
+    public record StoredFile(String filename, boolean deduplicated, String encoding) {
+    }
+
+    /**
+     * 저장소 현황
+     *
+     * @param blobs       저장된 blob 수
+     * @param storedBytes 실제 디스크 사용량
+     * @param savedBytes  중복 제거로 절약한 용량 (참조 수 - 1) × 크기 합 (압축된 blob은 압축 크기)
+     */
+    public record Stats(long blobs, long storedBytes, long savedBytes) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Path root;
+    private final Path tmp;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES]; // 같은 blob 저장/삭제 직렬화
+    private final Map<Object, String> hashByFileKey = new ConcurrentHashMap<>(); // inode → blob 해시 (삭제 시 조회)
+    private final Set<String> gzipped = ConcurrentHashMap.newKeySet(); // gzip으로 저장된 blob 해시
+    private final AtomicLong blobCount = new AtomicLong();
+    private final AtomicLong storedBytes = new AtomicLong();
+    private final AtomicLong savedBytes = new AtomicLong();
+    private volatile boolean hardLinks = true;
+    private final List<Consumer<String>> removalListeners = new CopyOnWriteArrayList<>(); // blob 삭제 시 해시 전달
+
+    public BlobStore(MeterRegistry meterRegistry,
+            @Value("${spring.servlet.multipart.location}") String uploadFolder) {
+        this.meterRegistry = meterRegistry;
+        this.root = Paths.get(uploadFolder, BLOB_DIR).toAbsolutePath();
+        this.tmp = root.resolve("tmp");
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(tmp);
+        // 이전 실행에서 남은 임시 파일 정리
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(tmp)) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+        scan();
+        Gauge.builder("upload.blob.count", blobCount, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("upload.blob.stored.bytes", storedBytes, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("upload.blob.saved.bytes", savedBytes, AtomicLong::get).register(meterRegistry);
+        Stats stats = stats();
+        log.info("blob 저장소: {}개, 저장 {} bytes, 중복 제거로 절약 {} bytes",
+                stats.blobs(), stats.storedBytes(), stats.savedBytes());
+    }
+
+    /**
+     * 업로드 임시 파일 생성 (blob과 같은 파일 시스템이므로 이동만으로 저장 완료)
+     */
+    public Path createTempFile() throws IOException {
+        // createTempFile은 소유자 전용 권한(600)이므로 기존 업로드와 같은 기본 권한으로 생성
+        return Files.createFile(tmp.resolve("upload-" + UUID.randomUUID() + ".part"));
+    }
+
+    /**
+     * 임시 파일을 blob으로 저장하고 사용자 폴더에 링크
+     * - 같은 내용의 blob이 있으면 임시 파일은 버리고 기존 blob에 링크
+     * - 사용자 폴더에 같은 이름, 같은 내용의 파일이 이미 있으면 그대로 사용
+     *
+     * @param temp      createTempFile()로 만든 임시 파일 (항상 이동 또는 삭제됨)
+     * @param sha256    원본 내용의 SHA-256
+     * @param encoding  임시 파일 압축 형식 (GZIP 또는 원본이면 null, 같은 내용이 이미 있으면 기존 형식 유지)
+     * @param directory 사용자 폴더
+     * @param names     후보 파일명 (0: 원본, 1부터 이름이 겹칠 때 사용할 새 이름)
+     */
+    public StoredFile store(Path temp, byte[] sha256, String encoding, Path directory, IntFunction<String> names)
+            throws IOException {
+        String hash = HexFormat.of().formatHex(sha256);
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            Path blob = existingBlob(hash);
+            boolean deduplicated = blob != null;
+            if (deduplicated) {
+                Files.delete(temp);
+            } else {
+                blob = GZIP.equals(encoding) ? gzipPath(hash) : blobPath(hash);
+                Files.createDirectories(blob.getParent());
+                Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+                blobCount.incrementAndGet();
+                storedBytes.addAndGet(Files.size(blob));
+                if (GZIP.equals(encoding)) {
+                    gzipped.add(hash);
+                }
+                Object fileKey = Files.readAttributes(blob, BasicFileAttributes.class).fileKey();
+                if (fileKey != null) {
+                    hashByFileKey.put(fileKey, hash);
+                }
+            }
+
+            for (int attempt = 0;; attempt++) {
+                String filename = names.apply(attempt);
+                Path target = directory.resolve(filename);
+                try {
+                    link(blob, target);
+                } catch (FileAlreadyExistsException e) {
+                    if (hardLinks && Files.isSameFile(blob, target)) {
+                        return new StoredFile(filename, true, encodingOf(hash)); // 이미 같은 파일을 가지고 있음
+                    }
+                    if (attempt >= 10) {
+                        throw e;
+                    }
+                    continue;
+                }
+                if (deduplicated && hardLinks) {
+                    savedBytes.addAndGet(Files.size(blob));
+                }
+                return new StoredFile(filename, deduplicated, hardLinks ? encodingOf(hash) : null);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 사용자 폴더의 파일 삭제 (마지막 참조였으면 blob도 삭제)
+     *
+     * @return 파일이 있어서 삭제했으면 true
+     */
+    public boolean delete(Path file) throws IOException {
+        Object fileKey;
+        try {
+            fileKey = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        String hash = fileKey != null ? hashByFileKey.get(fileKey) : null;
+        if (hash == null) { // blob에 연결되지 않은 파일 (복사 대체 또는 이전 업로드)
+            return Files.deleteIfExists(file);
+        }
+        boolean blobRemoved = false;
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            if (!Files.deleteIfExists(file)) {
+                return false;
+            }
+            Path blob = existingBlob(hash);
+            if (blob == null) {
+                return true;
+            }
+            long size = Files.size(blob);
+            if (linkCount(blob) <= 1) { // 남은 참조 없음
+                Files.delete(blob);
+                hashByFileKey.remove(fileKey);
+                gzipped.remove(hash);
+                blobCount.decrementAndGet();
+                storedBytes.addAndGet(-size);
+                blobRemoved = true;
+            } else {
+                savedBytes.addAndGet(-size);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (blobRemoved) { // 잠금 밖에서 파생 파일(미리보기 등) 정리
+            removalListeners.forEach(listener -> listener.accept(hash));
+        }
+        return true;
+    }
+
+    /**
+     * 참조하는 사용자 파일이 없는 blob 삭제 (사용자 폴더에서 직접 지운 파일 등)
+     *
+     * @param hash SHA-256 (16진수)
+     * @return 삭제한 크기, 참조 중이거나 없으면 0
+     */
+    public long removeIfUnreferenced(String hash) throws IOException {
+        long size;
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            Path blob = existingBlob(hash);
+            if (blob == null) {
+                return 0;
+            }
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(blob, BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                return 0;
+            }
+            if (linkCount(blob) > 1) {
+                return 0;
+            }
+            size = attributes.size();
+            Files.delete(blob);
+            if (attributes.fileKey() != null) {
+                hashByFileKey.remove(attributes.fileKey());
+            }
+            gzipped.remove(hash);
+            blobCount.decrementAndGet();
+            storedBytes.addAndGet(-size);
+        } finally {
+            lock.unlock();
+        }
+        removalListeners.forEach(listener -> listener.accept(hash));
+        return size;
+    }
+
+    /**
+     * blob 삭제 알림 등록 (내용 해시 기준으로 만든 파생 파일 정리용)
+     */
+    public void onBlobRemoved(Consumer<String> listener) {
+        removalListeners.add(listener);
+    }
+
+    /**
+     * 해당 내용의 blob이 있는지
+     *
+     * @param hash SHA-256 (16진수)
+     */
+    public boolean contains(String hash) {
+        return hash.length() > 2 && existingBlob(hash) != null;
+    }
+
+    /**
+     * 저장 형식 (gzip으로 저장됐으면 GZIP, 원본이면 null)
+     */
+    public String encodingOf(String hash) {
+        return hash != null && gzipped.contains(hash) ? GZIP : null;
+    }
+
+    /**
+     * 사용자 파일의 원본 크기 (gzip 저장이면 gzip 끝에 기록된 원본 크기, 최대 4GB)
+     *
+     * @param hash 파일의 blob 해시 (hashOf 결과, 없으면 null)
+     */
+    public long originalSize(Path file, String hash) throws IOException {
+        if (encodingOf(hash) == null) {
+            return Files.size(file);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer trailer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            long position = channel.size() - 4;
+            while (trailer.hasRemaining() && channel.read(trailer, position + trailer.position()) > 0) {
+                // ISIZE: 원본 크기 mod 2^32
+            }
+            return Integer.toUnsignedLong(trailer.getInt(0));
+        }
+    }
+
+    // blob 디렉토리 항목 이름 → 해시 (.gz 제외)
+    static String hashOfBlobName(String prefix, String name) {
+        return prefix + (name.endsWith(GZIP_SUFFIX) ? name.substring(0, name.length() - GZIP_SUFFIX.length()) : name);
+    }
+
+    /**
+     * 파일 내용의 SHA-256 (blob에 연결된 파일만, 아니면 null)
+     *
+     * @param fileKey 파일의 BasicFileAttributes.fileKey()
+     */
+    public String hashOf(Object fileKey) {
+        return fileKey != null ? hashByFileKey.get(fileKey) : null;
+    }
+
+    public Stats stats() {
+        return new Stats(blobCount.get(), storedBytes.get(), savedBytes.get());
+    }
+
+    private void link(Path blob, Path target) throws IOException {
+        if (hardLinks) {
+            try {
+                Files.createLink(target, blob);
+                return;
+            } catch (UnsupportedOperationException e) {
+                hardLinks = false;
+                log.warn("하드 링크를 사용할 수 없어 복사로 저장합니다 (중복 제거 없음): {}", e.getMessage());
+            } catch (FileSystemException e) {
+                if (!isCrossDevice(e)) {
+                    throw e; // 이미 있는 파일, 권한, 공간 부족 등은 이 요청만 실패
+                }
+                hardLinks = false;
+                log.warn("blob과 사용자 폴더가 다른 파일 시스템이라 복사로 저장합니다 (중복 제거 없음): {}", e.getMessage());
+            }
+        }
+        if (blob.getFileName().toString().endsWith(GZIP_SUFFIX)) { // 복사본은 blob에 연결되지 않으므로 원본으로 풀어서 저장
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(blob))) {
+                Files.copy(in, target);
+            }
+            return;
+        }
+        Files.copy(blob, target);
+    }
+
+    // EXDEV (리눅스 "Invalid cross-device link", 윈도우 "...different disk drive")
+    private static boolean isCrossDevice(FileSystemException e) {
+        String reason = e.getReason() != null ? e.getReason().toLowerCase(Locale.ROOT) : "";
+        return reason.contains("cross-device") || reason.contains("different disk drive");
+    }
+
+    // 시작 시 blob 현황 계산, 참조가 없는 blob(중단된 삭제)은 정리
+    private void scan() throws IOException {
+        try (DirectoryStream<Path> prefixes = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path prefix : prefixes) {
+                if (prefix.equals(tmp)) {
+                    continue;
+                }
+                try (DirectoryStream<Path> blobs = Files.newDirectoryStream(prefix)) {
+                    for (Path blob : blobs) {
+                        BasicFileAttributes attributes = Files.readAttributes(blob, BasicFileAttributes.class);
+                        int links = linkCount(blob);
+                        if (links <= 1) {
+                            Files.delete(blob);
+                            continue;
+                        }
+                        blobCount.incrementAndGet();
+                        storedBytes.addAndGet(attributes.size());
+                        savedBytes.addAndGet(attributes.size() * (links - 2));
+                        String hash = hashOfBlobName(prefix.getFileName().toString(), blob.getFileName().toString());
+                        if (blob.getFileName().toString().endsWith(GZIP_SUFFIX)) {
+                            gzipped.add(hash);
+                        }
+                        if (attributes.fileKey() != null) {
+                            hashByFileKey.put(attributes.fileKey(), hash);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static int linkCount(Path path) throws IOException {
+        try {
+            return (Integer) Files.getAttribute(path, "unix:nlink");
+        } catch (UnsupportedOperationException | IllegalArgumentException e) {
+            return 2; // 링크 수를 알 수 없으면 참조 중으로 간주 (삭제하지 않음)
+        }
+    }
+
+    private Path blobPath(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2));
+    }
+
+    private Path gzipPath(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2) + GZIP_SUFFIX);
+    }
+
+    // 저장된 blob 경로 (원본 또는 압축, 없으면 null)
+    private Path existingBlob(String hash) {
+        Path blob = gzipped.contains(hash) ? gzipPath(hash) : blobPath(hash);
+        return Files.exists(blob) ? blob : null;
+    }
+
+    private ReentrantLock lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+}
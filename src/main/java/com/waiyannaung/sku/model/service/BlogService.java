@@ -1,16 +1,35 @@
 package com.waiyannaung.sku.model.service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import com.waiyannaung.sku.model.domain.Article;
 import com.waiyannaung.sku.model.domain.Board;
+import com.waiyannaung.sku.model.domain.BoardSummary;
 import com.waiyannaung.sku.model.repository.BlogRepository;
 import com.waiyannaung.sku.model.repository.BoardRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -20,13 +39,51 @@ public class BlogService {
     private final BlogRepository blogRepository;
     private final BoardRepository blogRepository2;
     // 리포지토리 선언
+    private final BoardSearchIndex boardSearchIndex; // 게시글 검색 색인
+    private final MeterRegistry meterRegistry; // 캐시 지표 등록 (actuator)
+    private final BoardVersionRegistry boardVersionRegistry; // 게시글 버전 (ETag)
+
+    @Value("${app.board.count-cache-ttl-ms:60000}") // 게시글 수 캐시 유지 시간
+    private long countCacheTtlMillis;
+    private final AtomicLong cachedCount = new AtomicLong(-1); // 캐시된 게시글 수 (-1: 미조회)
+    private volatile long countRefreshedAt = 0; // 마지막 COUNT 조회 시각
+
+    @Value("${app.board.cache.max-pages:1000}") // 목록 페이지 캐시 최대 개수
+    private long maxCachedPages;
+    @Value("${app.board.cache.max-posts:10000}") // 게시글 캐시 최대 개수
+    private long maxCachedPosts;
+    @Value("${app.board.cache.ttl-seconds:60}") // 캐시 항목 유지 시간
+    private long cacheTtlSeconds;
+    private Cache<PageKey, Page<BoardSummary>> pageCache; // (키워드, 페이지) → 목록 페이지
+    private Cache<Long, Board> boardCache; // id → 게시글
+    private final Caches.Generations pageGenerations = new Caches.Generations(); // 로드 중 무효화 감지
+    private final Caches.Generations boardGenerations = new Caches.Generations();
+
+    private record PageKey(String keyword, int page, int size) { // 목록 캐시 키 (키워드 없으면 "")
+    }
+
+    @PostConstruct
+    void initCaches() { // 크기/TTL 기반 제거, 적중률 통계 기록
+        pageCache = Caffeine.newBuilder()
+                .maximumSize(maxCachedPages)
+                .expireAfterWrite(cacheTtlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        boardCache = Caffeine.newBuilder()
+                .maximumSize(maxCachedPosts)
+                .expireAfterWrite(cacheTtlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pageCache, "boardPages"); // cache.gets, cache.evictions 등
+        CaffeineCacheMetrics.monitor(meterRegistry, boardCache, "boards");
+    }
 
     // public List<Board> findAll() { // 게시판 전체 목록 조회
     // return blogRepository2.findAll();
     // }
 
-    public Optional<Board> findById(Long id) { // 게시판 특정 글 조회
-        return blogRepository2.findById(id);
+    public Optional<Board> findById(Long id) { // 게시판 특정 글 조회 (캐시 우선)
+        return Optional.ofNullable(Caches.getOrLoad(boardCache, boardGenerations, id, () -> blogRepository2.findById(id).orElse(null)));
     }
 
     // public List<Article> findAll() { // 게시판 전체 목록 조회
@@ -50,15 +107,104 @@ public class BlogService {
 
     public Board save(AddArticleRequest request) {
         // DTO가 없는 경우 이곳에 직접 구현 가능
-        return blogRepository2.save(request.toEntity());
+        Board board = blogRepository2.save(request.toEntity());
+        boardSearchIndex.add(board); // 검색 색인 증분 갱신
+        boardVersionRegistry.bump(board.getId()); // 같은 id로 발급된 적 있는 ETag 무효화
+        cachedCount.updateAndGet(count -> count < 0 ? count : count + 1); // 근사 게시글 수 반영
+        boardCache.put(board.getId(), board);
+        // 전체 목록은 전체 글 수가 바뀌므로 모두, 키워드 목록은 새 글이 매칭되는 것만 제거 (LIKE 검색 포함)
+        Caches.invalidateIf(pageCache, pageGenerations, entry -> entry.getKey().keyword().isEmpty()
+                || boardSearchIndex.matches(entry.getKey().keyword(), board.getId())
+                || titleContains(board, entry.getKey().keyword()));
+        return board;
+    }
+
+    public void afterBulkInsert(List<Board> boards) { // 대량 가져오기 후 색인/캐시 반영
+        boards.forEach(board -> {
+            boardSearchIndex.add(board);
+            boardVersionRegistry.bump(board.getId());
+        });
+        cachedCount.updateAndGet(count -> count < 0 ? count : count + boards.size());
+        Caches.invalidateAll(pageCache, pageGenerations);
+    }
+
+    public Page<BoardSummary> findAll(Pageable pageable) { // 목록 화면용 프로젝션 조회
+        if (pageable.getSort().isSorted()) { // 정렬 조건이 있는 요청은 캐시하지 않음
+            return blogRepository2.findSummaries(pageable);
+        }
+        PageKey key = new PageKey("", pageable.getPageNumber(), pageable.getPageSize());
+        return Caches.getOrLoad(pageCache, pageGenerations, key, () -> blogRepository2.findSummaries(pageable)); // 로더는 잠금 밖에서 실행
     }
 
-    public Page<Board> findAll(Pageable pageable) {
-        return blogRepository2.findAll(pageable);
+    /**
+     * 키셋 페이지네이션 - afterId보다 큰 id의 글을 오름차순으로 조회 (COUNT 쿼리 없음)
+     */
+    public Slice<BoardSummary> findAfter(long afterId, int size) {
+        return blogRepository2.findSummariesAfter(afterId, PageRequest.of(0, size));
     }
 
-    public Page<Board> searchByKeyword(String keyword, PageRequest pageable) {
-        return blogRepository2.findByTitleContainingIgnoreCase(keyword, pageable);
+    /**
+     * 키셋 페이지네이션 - beforeId보다 작은 id의 글을 조회하여 오름차순으로 반환
+     * hasNext()는 더 이전 글이 남아 있는지를 의미
+     */
+    public Slice<BoardSummary> findBefore(long beforeId, int size) {
+        Slice<BoardSummary> slice = blogRepository2.findSummariesBefore(beforeId, PageRequest.of(0, size));
+        List<BoardSummary> content = new ArrayList<>(slice.getContent());
+        Collections.reverse(content); // 화면에는 오름차순으로 표시
+        return new SliceImpl<>(content, slice.getPageable(), slice.hasNext());
+    }
+
+    /**
+     * 전체 게시글 수 (근사값) - TTL 동안 캐시하고 저장 시 증가분만 반영
+     */
+    public long approximateCount() {
+        long now = System.currentTimeMillis();
+        if (cachedCount.get() < 0 || now - countRefreshedAt > countCacheTtlMillis) {
+            cachedCount.set(blogRepository2.count());
+            countRefreshedAt = now;
+        }
+        return cachedCount.get();
+    }
+
+    public Page<BoardSummary> searchByKeyword(String keyword, PageRequest pageable) {
+        if (pageable.getSort().isSorted()) {
+            return loadKeywordPage(keyword, pageable);
+        }
+        PageKey key = new PageKey(keyword, pageable.getPageNumber(), pageable.getPageSize());
+        return Caches.getOrLoad(pageCache, pageGenerations, key, () -> loadKeywordPage(keyword, pageable));
+    }
+
+    private Page<BoardSummary> loadKeywordPage(String keyword, PageRequest pageable) {
+        // 색인 재구성 전, 한 글자 한글 검색은 기존 LIKE 검색 사용
+        if (!boardSearchIndex.isReady() || boardSearchIndex.requiresSubstringSearch(keyword)) {
+            return blogRepository2.findSummariesByTitle(keyword, pageable);
+        }
+        List<Long> ids = boardSearchIndex.search(keyword); // 색인에서 매칭 및 순위 계산
+        if (ids.isEmpty()) { // 단어 일부만 입력한 경우(spr → spring) 등은 제목 LIKE 검색으로 보완
+            return blogRepository2.findSummariesByTitle(keyword, pageable);
+        }
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        List<Long> pageIds = ids.subList(from, to);
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.size());
+        }
+        // 현재 페이지의 글만 PK로 조회한 뒤 색인 순위대로 정렬
+        Map<Long, BoardSummary> found = blogRepository2.findSummariesByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(BoardSummary::getId, Function.identity()));
+        List<BoardSummary> content = pageIds.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+        int missing = pageIds.size() - content.size();
+        if (missing > 0) { // 다른 서버에서 삭제된 글 등 색인에만 남은 id는 색인에서 제거하고 합계에서 제외
+            pageIds.stream().filter(id -> !found.containsKey(id)).toList().forEach(boardSearchIndex::remove);
+        }
+        return new PageImpl<>(content, pageable, ids.size() - missing);
+    }
+
+    private static boolean titleContains(Board board, String keyword) {
+        return board.getTitle() != null && board.getTitle().toLowerCase().contains(keyword.toLowerCase());
     }
 
     public void update(Long id, AddArticleRequest request) {
@@ -67,10 +213,25 @@ public class BlogService {
             article.update(request.getTitle(), request.getContent()); // 값을 수정
             blogRepository.save(article); // Article 객체에 저장
         });
+        boardSearchIndex.remove(id); // 이전 제목/본문 토큰 제거 후 바뀐 내용으로 다시 색인
+        blogRepository2.findById(id).ifPresent(boardSearchIndex::add);
+        Caches.invalidate(boardCache, boardGenerations, id);
+        boardVersionRegistry.bump(id); // ETag, 렌더링 조각 캐시 무효화
+        // 내용 변경은 키워드 매칭을 바꿀 수 있으므로 키워드 목록 전체와 해당 글을 포함한 목록만 제거
+        Caches.invalidateIf(pageCache, pageGenerations, entry -> !entry.getKey().keyword().isEmpty()
+                || entry.getValue().getContent().stream().anyMatch(board -> id.equals(board.getId())));
+    }
+
+    public void evictPost(Long id) { // 조회수 등 외부 반영 후 캐시된 게시글 제거
+        Caches.invalidate(boardCache, boardGenerations, id);
     }
 
     public void delete(Long id) {
         blogRepository.deleteById(id);
+        boardSearchIndex.remove(id); // 삭제된 글이 검색되지 않도록
+        Caches.invalidate(boardCache, boardGenerations, id);
+        boardVersionRegistry.bump(id);
+        Caches.invalidateAll(pageCache, pageGenerations); // 삭제 시 이후 페이지가 모두 밀리므로 전체 제거
     }
 
 }
@@ -0,0 +1,166 @@
+package com.waiyannaung.sku.model.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 게시글 조회수/좋아요 write-behind 카운터
+ * - 요청 스레드는 게시글별 LongAdder만 증가 (행 잠금, DB 왕복 없음)
+ * - 주기적으로 누적분을 모아 batch UPDATE 한 번으로 반영 (한 트랜잭션 → 일부만 반영된 뒤 재시도되는 일 없음)
+ * - 종료 시(@PreDestroy) 남은 누적분을 마지막으로 반영
+ * - 좋아요는 회원당 한 번 (board_like 테이블에 처음 추가될 때만 증가)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BoardCounterService implements InitializingBean {
+    private static final String FLUSH_SQL = "update board set count = count + ?, likec = likec + ? where id = ?";
+    private static final int IDLE_FLUSHES_BEFORE_EVICT = 3; // 변화 없는 주기가 이만큼 지나면 메모리에서 제거
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlogService blogService; // 반영 후 캐시된 게시글 제거용
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock(); // 주기 반영과 종료 반영이 겹치지 않도록
+
+    // 게시글별 카운터 - 증가분은 LongAdder(스트라이프), 반영된 값은 flush 스레드만 갱신 (요청 스레드도 읽음)
+    private static final class Counter {
+        final LongAdder views = new LongAdder();
+        final LongAdder likes = new LongAdder();
+        volatile long flushedViews;
+        volatile long flushedLikes;
+        int idleFlushes; // flush 스레드 전용
+
+        long pendingViews() {
+            return views.sum() - flushedViews;
+        }
+
+        long pendingLikes() {
+            return likes.sum() - flushedLikes;
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        jdbcTemplate.execute("create table if not exists board_like ("
+                + " board_id bigint not null,"
+                + " member_email varchar(320) not null,"
+                + " created_at bigint not null,"
+                + " primary key (board_id, member_email))");
+    }
+
+    // 증가는 compute 안에서 → 유휴 카운터 제거(evictIfIdle)와 같은 키에서 겹치지 않음
+    public void recordView(Long id) { // 조회수 증가
+        counters.compute(id, (k, counter) -> {
+            Counter target = counter != null ? counter : new Counter();
+            target.views.increment();
+            return target;
+        });
+    }
+
+    /**
+     * 좋아요 (회원당 한 번)
+     *
+     * @return 새로 추가되었으면 true, 이미 좋아요한 글이면 false
+     */
+    public boolean recordLike(Long id, String memberEmail) {
+        try {
+            jdbcTemplate.update("insert into board_like (board_id, member_email, created_at) values (?, ?, ?)",
+                    id, memberEmail.toLowerCase(Locale.ROOT), System.currentTimeMillis());
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+        counters.compute(id, (k, counter) -> {
+            Counter target = counter != null ? counter : new Counter();
+            target.likes.increment();
+            return target;
+        });
+        return true;
+    }
+
+    public long pendingViews(Long id) { // 아직 DB에 반영되지 않은 조회수
+        Counter counter = counters.get(id);
+        return counter != null ? counter.pendingViews() : 0;
+    }
+
+    public long pendingLikes(Long id) { // 아직 DB에 반영되지 않은 좋아요
+        Counter counter = counters.get(id);
+        return counter != null ? counter.pendingLikes() : 0;
+    }
+
+    /**
+     * 누적된 증가분을 batch UPDATE로 반영
+     * 한 트랜잭션으로 실행하므로 실패하면 아무것도 반영되지 않고, 기준값도 그대로 두어 다음 주기에 다시 시도됨
+     */
+    @Scheduled(fixedDelayString = "${app.board.counter.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Long> ids = new ArrayList<>();
+            List<long[]> deltas = new ArrayList<>(); // {조회수 증가분, 좋아요 증가분}
+            List<Object[]> batchArgs = new ArrayList<>();
+            counters.forEach((id, counter) -> {
+                long views = counter.views.sum();
+                long likes = counter.likes.sum();
+                long deltaViews = views - counter.flushedViews;
+                long deltaLikes = likes - counter.flushedLikes;
+                if (deltaViews == 0 && deltaLikes == 0) {
+                    evictIfIdle(id, counter);
+                    return;
+                }
+                counter.idleFlushes = 0;
+                ids.add(id);
+                deltas.add(new long[] { deltaViews, deltaLikes });
+                batchArgs.add(new Object[] { deltaViews, deltaLikes, id });
+            });
+            if (batchArgs.isEmpty()) {
+                return;
+            }
+            // 게시글 수와 무관하게 한 번의 batch (드라이버가 나눠 보내도 전부 반영되거나 전부 취소)
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batchArgs));
+            for (int i = 0; i < ids.size(); i++) {
+                Counter counter = counters.get(ids.get(i));
+                if (counter != null) {
+                    counter.flushedViews += deltas.get(i)[0];
+                    counter.flushedLikes += deltas.get(i)[1];
+                }
+                blogService.evictPost(ids.get(i)); // 다음 조회 시 반영된 값을 읽도록
+            }
+        } catch (RuntimeException e) {
+            log.warn("조회수/좋아요 반영 실패, 다음 주기에 재시도: {}", e.getMessage());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // 한동안 변화가 없는 게시글은 제거 (증가와 같은 compute 잠금 안에서 반영 안 된 값이 없을 때만)
+    private void evictIfIdle(Long id, Counter counter) {
+        if (++counter.idleFlushes < IDLE_FLUSHES_BEFORE_EVICT) {
+            return;
+        }
+        counters.computeIfPresent(id, (k, current) -> current == counter
+                && current.pendingViews() == 0 && current.pendingLikes() == 0 ? null : current);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() { // 정상 종료 시 남은 증가분 반영
+        flush();
+    }
+}
@@ -0,0 +1,82 @@
+package com.waiyannaung.sku.model.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 게시글 가져오기/내보내기용 CSV 처리 (RFC 4180)
+ * - 큰따옴표로 감싼 필드 안의 쉼표, 줄바꿈, "" 이스케이프 지원
+ * - 한 번에 한 레코드만 읽으므로 파일 크기와 무관하게 메모리 사용량 일정
+ */
+final class BoardCsv {
+    private BoardCsv() {
+    }
+
+    /**
+     * 다음 레코드 읽기
+     *
+     * @param reader 입력 (BufferedReader 등 버퍼가 있는 Reader 권장)
+     * @return 필드 목록, 입력이 끝났으면 null
+     */
+    static List<String> readRecord(Reader reader) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"'); // "" → "
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (!any) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * 레코드 한 줄 쓰기 (필요한 필드만 큰따옴표로 감쌈)
+     */
+    static void writeRecord(Appendable out, List<String> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            String value = fields.get(i) != null ? fields.get(i) : "";
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                    || value.indexOf('\r') >= 0) {
+                out.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                out.append(value);
+            }
+        }
+        out.append('\n');
+    }
+}
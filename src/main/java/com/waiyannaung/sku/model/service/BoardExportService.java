@@ -0,0 +1,96 @@
+package com.waiyannaung.sku.model.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.waiyannaung.sku.model.domain.Board;
+import com.waiyannaung.sku.model.repository.BoardRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 게시글 전체 내보내기 (NDJSON / CSV)
+ * - 전방향 스트림으로 한 행씩 읽어 바로 출력 스트림에 기록
+ * - 기록한 엔티티는 즉시 detach 하므로 행 수와 무관하게 힙 사용량 일정
+ * - 게시판 화면에 보이는 값만 내보냄 (비밀번호, 작성자 이메일/나이/주소/연락처 제외 - 로그인한 누구나 호출 가능)
+ */
+@Service
+@RequiredArgsConstructor
+public class BoardExportService {
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final List<String> COLUMNS = Arrays.asList(
+            "id", "title", "content", "user", "name", "newdate", "count", "likec");
+
+    private final BoardRepository boardRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * 전체 게시글을 출력 스트림에 기록
+     *
+     * @param out    응답 출력 스트림
+     * @param format csv 또는 ndjson
+     * @return 기록한 행 수
+     * @throws IOException 출력 실패 시 (클라이언트 연결 종료 등)
+     */
+    @Transactional(readOnly = true)
+    public long export(OutputStream out, String format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        long rows = 0;
+        try (Stream<Board> boards = boardRepository.streamAllOrderById()) {
+            Iterator<Board> iterator = boards.iterator();
+            if (FORMAT_CSV.equals(format)) {
+                BoardCsv.writeRecord(writer, COLUMNS); // 헤더
+                while (iterator.hasNext()) {
+                    Board board = iterator.next();
+                    BoardCsv.writeRecord(writer, Arrays.asList(String.valueOf(board.getId()), board.getTitle(),
+                            board.getContent(), board.getUser(), board.getName(), board.getNewdate(),
+                            String.valueOf(board.getCount()), String.valueOf(board.getLikec())));
+                    entityManager.detach(board); // 영속성 컨텍스트에 쌓이지 않도록
+                    rows++;
+                }
+            } else {
+                JsonGenerator json = objectMapper.getFactory().createGenerator(writer);
+                json.setRootValueSeparator(null); // 줄바꿈은 직접 기록
+                while (iterator.hasNext()) {
+                    Board board = iterator.next();
+                    json.writeStartObject();
+                    json.writeNumberField("id", board.getId());
+                    json.writeStringField("title", board.getTitle());
+                    json.writeStringField("content", board.getContent());
+                    json.writeStringField("user", board.getUser());
+                    json.writeStringField("name", board.getName());
+                    json.writeStringField("newdate", board.getNewdate());
+                    json.writeNumberField("count", board.getCount());
+                    json.writeNumberField("likec", board.getLikec());
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                    entityManager.detach(board);
+                    rows++;
+                }
+                json.flush();
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+}
@@ -0,0 +1,56 @@
+package com.waiyannaung.sku.model.service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Getter;
+
+/**
+ * 게시글 대량 가져오기 진행 상황 및 결과
+ * - 가져오기 도중에도 진행 조회 API에서 읽을 수 있도록 카운터는 원자적으로 갱신
+ */
+@Getter
+public class BoardImportResult {
+    private static final int MAX_ERRORS = 20; // 응답에 포함할 오류 행 최대 개수
+
+    private final String importId;
+    private final String format;
+    private final String ownerEmail; // 가져오기를 실행한 회원 (진행 조회는 본인 것만)
+    private final long startedAt = System.currentTimeMillis();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private final List<String> errors = new CopyOnWriteArrayList<>(); // 진행 조회 중 읽어도 안전
+    private volatile long finishedAt = 0; // 0이면 진행 중
+
+    BoardImportResult(String importId, String format, String ownerEmail) {
+        this.importId = importId;
+        this.format = format;
+        this.ownerEmail = ownerEmail;
+    }
+
+    void reject(long row, String message) { // 검증 실패 행 기록
+        rowsRejected.incrementAndGet();
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(row + "행: " + message);
+        }
+    }
+
+    void finish() {
+        finishedAt = System.currentTimeMillis();
+    }
+
+    public boolean isFinished() {
+        return finishedAt != 0;
+    }
+
+    public long getElapsedMillis() {
+        return (isFinished() ? finishedAt : System.currentTimeMillis()) - startedAt;
+    }
+
+    public long getRowsPerSecond() { // 저장 기준 처리량
+        long elapsed = Math.max(getElapsedMillis(), 1);
+        return rowsImported.get() * 1000 / elapsed;
+    }
+}
@@ -0,0 +1,193 @@
+package com.waiyannaung.sku.model.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.waiyannaung.sku.model.domain.Board;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 게시글 대량 가져오기 (CSV / NDJSON)
+ * - 입력을 한 행씩 읽어 AddArticleRequest로 변환, Bean Validation 검증 후 toEntity
+ * - batch-size 행마다 한 트랜잭션으로 persist → flush → clear (JDBC insert batch)
+ * - board id는 테이블 기반 pooled 할당이라 IDENTITY와 달리 insert batch가 비활성화되지 않음
+ * - 작성자(user, name, email)는 가져오는 회원으로 고정, 비밀번호는 비움 (다른 사람 이름으로 글을 만들 수 없음)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BoardImportService {
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final BlogService blogService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.board.import.batch-size:500}") // 한 트랜잭션에서 저장하는 행 수
+    private int batchSize;
+
+    private final Map<String, BoardImportResult> running = new ConcurrentHashMap<>(); // 진행 중인 가져오기
+
+    public List<BoardImportResult> runningImports(String email) { // 해당 회원이 실행한 가져오기만
+        return running.values().stream().filter(result -> result.getOwnerEmail().equals(email)).toList();
+    }
+
+    /**
+     * 가져오기 실행
+     *
+     * @param input       CSV(첫 행은 헤더) 또는 NDJSON 입력
+     * @param format      csv 또는 ndjson
+     * @param userName    가져오는 회원 이름 (모든 행의 작성자)
+     * @param email       가져오는 회원 이메일 (모든 행의 작성자 이메일)
+     * @return 처리 결과 (행 수, 거부 사유, 초당 처리량)
+     * @throws IllegalArgumentException 지원하지 않는 형식이거나 CSV 헤더가 없을 때
+     * @throws IOException              입력을 읽지 못했을 때
+     */
+    public BoardImportResult importBoards(InputStream input, String format, String userName, String email)
+            throws IOException {
+        if (!FORMAT_CSV.equals(format) && !FORMAT_NDJSON.equals(format)) {
+            throw new IllegalArgumentException("지원하지 않는 형식입니다. (" + format + ")");
+        }
+        BoardImportResult result = new BoardImportResult(UUID.randomUUID().toString(), format, email);
+        running.put(result.getImportId(), result);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            RowReader rows = FORMAT_CSV.equals(format) ? csvRows(reader) : ndjsonRows(reader);
+            List<Board> batch = new ArrayList<>(batchSize);
+            AddArticleRequest request;
+            while ((request = nextRow(rows, result)) != null) {
+                Set<ConstraintViolation<AddArticleRequest>> violations = validator.validate(request);
+                if (!violations.isEmpty()) {
+                    result.reject(result.getRowsRead().get(), violations.stream()
+                            .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                            .collect(Collectors.joining(", ")));
+                    continue;
+                }
+                applyOwner(request, userName, email);
+                batch.add(request.toEntity());
+                if (batch.size() >= batchSize) {
+                    persistBatch(batch, result);
+                }
+            }
+            persistBatch(batch, result);
+        } finally {
+            result.finish();
+            running.remove(result.getImportId());
+        }
+        log.info("게시글 가져오기 완료: {}건 저장, {}건 거부, {}ms ({}건/초)", result.getRowsImported().get(),
+                result.getRowsRejected().get(), result.getElapsedMillis(), result.getRowsPerSecond());
+        return result;
+    }
+
+    private void persistBatch(List<Board> batch, BoardImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            batch.forEach(entityManager::persist);
+            entityManager.flush(); // hibernate.jdbc.batch_size 단위로 묶여 전송
+            entityManager.clear(); // 영속성 컨텍스트 비우기 (메모리 일정)
+        });
+        blogService.afterBulkInsert(batch); // 검색 색인, 목록 캐시 반영
+        result.getRowsImported().addAndGet(batch.size());
+        log.info("게시글 가져오기 진행: {}행 읽음, {}건 저장 ({}건/초)", result.getRowsRead().get(),
+                result.getRowsImported().get(), result.getRowsPerSecond());
+        batch.clear();
+    }
+
+    // 형식 오류 행은 거부로 기록하고 다음 행을 읽음
+    private AddArticleRequest nextRow(RowReader rows, BoardImportResult result) throws IOException {
+        while (true) {
+            long row = result.getRowsRead().incrementAndGet();
+            try {
+                AddArticleRequest request = rows.next();
+                if (request == null) {
+                    result.getRowsRead().decrementAndGet(); // 입력 끝
+                }
+                return request;
+            } catch (IllegalArgumentException e) {
+                result.reject(row, e.getMessage());
+            }
+        }
+    }
+
+    // 입력의 작성자 관련 값은 무시하고 가져오는 회원으로 설정 (게시글 작성 화면과 동일)
+    private void applyOwner(AddArticleRequest request, String userName, String email) {
+        request.setUser(userName);
+        request.setName(userName);
+        request.setEmail(email != null ? email : "");
+        request.setPassword("");
+        request.setCount(request.getCount() != null ? request.getCount() : 0L);
+        request.setLikec(request.getLikec() != null ? request.getLikec() : 0L);
+    }
+
+    @FunctionalInterface
+    private interface RowReader { // 다음 행을 요청 객체로 반환, 끝이면 null
+        AddArticleRequest next() throws IOException;
+    }
+
+    private RowReader ndjsonRows(BufferedReader reader) {
+        return () -> {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank()); // 빈 줄 무시
+            try {
+                return objectMapper.readValue(line, AddArticleRequest.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("JSON 형식 오류 - " + e.getOriginalMessage());
+            }
+        };
+    }
+
+    private RowReader csvRows(BufferedReader reader) throws IOException {
+        List<String> header = BoardCsv.readRecord(reader);
+        if (header == null || !header.contains("title") || !header.contains("content")) {
+            throw new IllegalArgumentException("CSV 첫 행에 title, content 헤더가 필요합니다.");
+        }
+        return () -> {
+            List<String> fields = BoardCsv.readRecord(reader);
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() != header.size()) {
+                throw new IllegalArgumentException("열 개수가 헤더와 다릅니다. (" + fields.size() + ")");
+            }
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                row.put(header.get(i).trim(), fields.get(i));
+            }
+            return objectMapper.convertValue(row, AddArticleRequest.class); // 헤더 이름 = 필드 이름
+        };
+    }
+}
@@ -0,0 +1,212 @@
+package com.waiyannaung.sku.model.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import com.waiyannaung.sku.model.domain.Board;
+import com.waiyannaung.sku.model.repository.BoardRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 게시글 검색용 메모리 역색인(inverted index)
+ * - 제목/본문을 토큰화하여 토큰 → (게시글 id → 점수) 형태로 보관
+ * - 한글은 2-gram, 그 외 문자는 단어 단위로 토큰화
+ * - 게시글 저장 시 증분 갱신, 애플리케이션 시작 시 전체 재구성
+ * - 검색 결과는 점수 내림차순, 같은 점수는 최신 글(id 큰 순) 우선
+ * - 토큰 단위 일치만 찾으므로 단어 일부(spr → spring), 한 글자 한글 검색은 BlogService가 LIKE 검색으로 처리
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BoardSearchIndex {
+    private static final int TITLE_WEIGHT = 3; // 제목 매칭 가중치
+    private static final int CONTENT_WEIGHT = 1; // 본문 매칭 가중치
+    private static final int REBUILD_PAGE_SIZE = 500; // 재구성 시 한 번에 읽는 행 수
+
+    private final BoardRepository boardRepository;
+
+    // 토큰 → (게시글 id → 점수)
+    private final Map<String, Map<Long, Integer>> postings = new ConcurrentHashMap<>();
+    // 게시글 id → 색인된 토큰 (재색인/삭제 시 기존 토큰 제거용)
+    private final Map<Long, Set<String>> documentTokens = new ConcurrentHashMap<>();
+
+    private volatile boolean ready = false; // 초기 재구성 완료 여부
+
+    /**
+     * 애플리케이션 시작 시 board 테이블 전체를 페이지 단위로 읽어 색인 재구성
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        postings.clear();
+        documentTokens.clear();
+        PageRequest pageable = PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id"));
+        Page<Board> page;
+        do {
+            page = boardRepository.findAll(pageable);
+            page.forEach(this::add);
+            pageable = pageable.next();
+        } while (page.hasNext());
+        ready = true;
+        log.info("게시글 검색 색인 재구성 완료: {}건, {}ms", documentTokens.size(),
+                System.currentTimeMillis() - started);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 게시글 색인 추가 (이미 색인된 글이면 기존 토큰을 지우고 다시 색인)
+     */
+    public void add(Board board) {
+        if (board == null || board.getId() == null) {
+            return;
+        }
+        Map<String, Integer> scores = new HashMap<>();
+        for (String token : tokenize(board.getTitle())) {
+            scores.merge(token, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String token : tokenize(board.getContent())) {
+            scores.merge(token, CONTENT_WEIGHT, Integer::sum);
+        }
+        Long id = board.getId();
+        remove(id);
+        scores.forEach((token, score) -> postings.compute(token, (k, ids) -> {
+            Map<Long, Integer> target = ids != null ? ids : new ConcurrentHashMap<>();
+            target.put(id, score); // compute 내부에서 갱신해야 동시 remove와 충돌하지 않음
+            return target;
+        }));
+        documentTokens.put(id, scores.keySet());
+    }
+
+    /**
+     * 게시글 색인 제거
+     */
+    public void remove(Long id) {
+        Set<String> tokens = documentTokens.remove(id);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            postings.computeIfPresent(token, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids; // 빈 posting 목록은 제거
+            });
+        }
+    }
+
+    /**
+     * 키워드 검색 - 모든 토큰을 포함하는 게시글만 반환(AND), 점수 순 정렬
+     *
+     * @param keyword 검색어
+     * @return 정렬된 게시글 id 목록
+     */
+    public List<Long> search(String keyword) {
+        List<String> tokens = new ArrayList<>(tokenize(keyword));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        // 가장 짧은 posting 목록부터 교집합 계산
+        List<Map<Long, Integer>> lists = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            Map<Long, Integer> ids = postings.get(token);
+            if (ids == null) {
+                return List.of(); // 하나라도 없으면 결과 없음
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Map::size));
+
+        Map<Long, Integer> scores = new HashMap<>();
+        lists.get(0).forEach(scores::put);
+        for (int i = 1; i < lists.size() && !scores.isEmpty(); i++) {
+            Map<Long, Integer> ids = lists.get(i);
+            scores.entrySet().removeIf(e -> !ids.containsKey(e.getKey()));
+            scores.replaceAll((id, score) -> score + ids.getOrDefault(id, 0));
+        }
+
+        List<Long> result = new ArrayList<>(scores.keySet());
+        result.sort(Comparator.<Long>comparingInt(scores::get).reversed()
+                .thenComparing(Comparator.reverseOrder()));
+        return result;
+    }
+
+    /**
+     * 색인으로 찾을 수 없는 검색어인지 (한 글자 한글은 2-gram으로 색인된 단어 안에서 찾을 수 없음)
+     */
+    public boolean requiresSubstringSearch(String keyword) {
+        for (String token : tokenize(keyword)) {
+            if (token.length() == 1 && isHangul(token.charAt(0))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 게시글이 키워드의 모든 토큰을 포함하는지 확인 (캐시 무효화 범위 계산용)
+     */
+    public boolean matches(String keyword, Long id) {
+        Set<String> tokens = documentTokens.get(id);
+        return tokens != null && tokens.containsAll(tokenize(keyword));
+    }
+
+    /**
+     * 토큰화 - 소문자 변환 후 한글은 2-gram(한 글자 단어는 그대로), 그 외는 단어 단위
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String lower = text.toLowerCase();
+        int length = lower.length();
+        int i = 0;
+        while (i < length) {
+            char c = lower.charAt(i);
+            if (isHangul(c)) {
+                int start = i;
+                while (i < length && isHangul(lower.charAt(i))) {
+                    i++;
+                }
+                if (i - start == 1) {
+                    tokens.add(lower.substring(start, i));
+                } else {
+                    for (int j = start; j + 2 <= i; j++) {
+                        tokens.add(lower.substring(j, j + 2));
+                    }
+                }
+            } else if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                while (i < length && Character.isLetterOrDigit(lower.charAt(i)) && !isHangul(lower.charAt(i))) {
+                    i++;
+                }
+                tokens.add(lower.substring(start, i));
+            } else {
+                i++; // 공백, 구두점 등은 구분자
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isHangul(char c) {
+        return (c >= '가' && c <= '힣') // 완성형 한글
+                || (c >= 'ㄱ' && c <= 'ㆎ'); // 한글 자모
+    }
+}
@@ -0,0 +1,38 @@
+package com.waiyannaung.sku.model.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * 게시글별 버전 관리 (ETag / Last-Modified 계산용)
+ * - 저장/수정/삭제 시 버전 증가, 변경된 적 없는 글은 기본 버전(0, 기동 시각) 사용
+ * - 기동 시각을 ETag에 포함하므로 재시작 전에 발급한 ETag는 자동으로 무효
+ * - 게시글 본문 없이 조건부 요청(If-None-Match)에 응답할 수 있음 (글 존재 여부는 호출하는 쪽에서 확인)
+ * - JVM마다 따로 관리됨: 여러 서버로 나눠 운영하면 다른 서버에서 수정한 글의 ETag가 갱신되지 않고,
+ *   서버마다 기동 시각이 달라 ETag도 서로 맞지 않음 (공유 저장소의 버전 컬럼으로 옮기기 전까지는 단일 서버 전제)
+ */
+@Component
+public class BoardVersionRegistry {
+    private final long bootMillis = System.currentTimeMillis() / 1000 * 1000; // HTTP 날짜는 초 단위
+    private final String bootTag = Long.toString(bootMillis, 36);
+    private final Version initial = new Version(0, bootMillis);
+    private final Map<Long, Version> versions = new ConcurrentHashMap<>(); // 변경된 글만 보관
+
+    public record Version(long counter, long lastModified) {
+    }
+
+    public Version current(Long id) {
+        return versions.getOrDefault(id, initial);
+    }
+
+    public void bump(Long id) { // 내용이 바뀐 글의 버전 증가
+        long now = Math.max(System.currentTimeMillis() / 1000 * 1000, bootMillis);
+        versions.compute(id, (k, v) -> new Version(v == null ? 1 : v.counter() + 1, now));
+    }
+
+    public String etag(Long id, Version version) { // 강한 ETag
+        return "\"b" + id + "-" + bootTag + "-" + version.counter() + "\"";
+    }
+}
@@ -0,0 +1,84 @@
+package com.waiyannaung.sku.model.service;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * Caffeine 캐시 조회 도우미
+ * - Cache.get(key, loader)는 ConcurrentHashMap.compute(synchronized) 안에서 로더를 실행함
+ * - 로더가 DB 조회(JDBC I/O)를 하면 가상 스레드가 캐리어 스레드에 고정(pinning)되므로
+ *   조회는 잠금 밖에서 하고 결과만 캐시에 넣음 (동시 미스 시 중복 조회는 허용)
+ * - 조회와 저장 사이에 무효화가 끼면 이전 값이 남으므로, 무효화는 Generations를 거쳐
+ *   세대를 올리고 로드 쪽은 저장 후 세대가 바뀌었으면 방금 넣은 값을 다시 제거
+ */
+final class Caches {
+
+    private Caches() {
+    }
+
+    /**
+     * 캐시별 무효화 세대 (키 해시로 나눈 슬롯별 카운터, 키마다 따로 두지 않음)
+     * - 세대는 캐시에서 제거하기 전에 올림 → 로드가 저장 후 확인할 때 반드시 보임
+     */
+    static final class Generations {
+        private static final int SLOTS = 64; // 2의 거듭제곱
+        private final AtomicLongArray slots = new AtomicLongArray(SLOTS);
+
+        private int slot(Object key) {
+            int h = key.hashCode();
+            return (h ^ (h >>> 16)) & (SLOTS - 1);
+        }
+
+        long current(Object key) {
+            return slots.get(slot(key));
+        }
+
+        void bump(Object key) {
+            slots.incrementAndGet(slot(key));
+        }
+
+        void bumpAll() { // 어떤 키가 영향받는지 모를 때 (일괄 제거)
+            for (int i = 0; i < SLOTS; i++) {
+                slots.incrementAndGet(i);
+            }
+        }
+    }
+
+    /**
+     * 캐시에 있으면 반환, 없으면 로더로 읽어 캐시에 저장 (null은 저장하지 않음)
+     * 로드 중에 같은 슬롯의 무효화가 있었으면 읽은 값은 반환만 하고 캐시에는 남기지 않음
+     */
+    static <K, V> V getOrLoad(Cache<K, V> cache, Generations generations, K key, Supplier<V> loader) {
+        V value = cache.getIfPresent(key);
+        if (value == null) {
+            long generation = generations.current(key);
+            value = loader.get();
+            if (value != null) {
+                cache.put(key, value);
+                if (generations.current(key) != generation) {
+                    cache.asMap().remove(key, value); // 다른 스레드가 넣은 더 새로운 값은 지우지 않음
+                }
+            }
+        }
+        return value;
+    }
+
+    static <K, V> void invalidate(Cache<K, V> cache, Generations generations, K key) {
+        generations.bump(key);
+        cache.invalidate(key);
+    }
+
+    static <K, V> void invalidateIf(Cache<K, V> cache, Generations generations, Predicate<Map.Entry<K, V>> filter) {
+        generations.bumpAll(); // 아직 캐시에 없는(로드 중인) 키도 포함
+        cache.asMap().entrySet().removeIf(filter);
+    }
+
+    static <K, V> void invalidateAll(Cache<K, V> cache, Generations generations) {
+        generations.bumpAll();
+        cache.invalidateAll();
+    }
+}
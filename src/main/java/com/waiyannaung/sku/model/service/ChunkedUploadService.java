@@ -0,0 +1,465 @@
+package com.waiyannaung.sku.model.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 이어 올리기(분할) 업로드
+ * - 세션 생성 → 조각(chunk)을 오프셋과 함께 PUT → 완료 순서로 진행
+ * - 세션마다 전체 크기의 임시 파일을 미리 만들고 조각은 제자리(오프셋)에 기록 (조립 단계 없음)
+ * - 같은 조각을 다시 보내면 같은 위치에 덮어씀 (받는 동안은 받지 않은 조각으로 두고, 끝까지 받아야 받은 것으로 표시)
+ * - 한 파일의 여러 조각을 동시에 올릴 수 있음 (위치 지정 기록, 받은 조각은 BitSet으로 관리, 같은 조각 동시 전송은 409)
+ * - 세션을 만들 때 진행 중인 세션의 크기까지 합쳐 용량 제한, 남은 저장 공간을 검사 (사용자별 세션 수도 제한)
+ * - 완료 시 SHA-256 계산 후 BlobStore에 저장 (일반 업로드와 같은 중복 제거)
+ * - 일정 시간 조각이 오지 않은 세션은 임시 파일과 함께 삭제
+ * - 세션은 메모리에만 있으므로 서버 재시작 후에는 처음부터 다시 올려야 함
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChunkedUploadService {
+    private final FileUploadService fileUploadService;
+    private final BlobStore blobStore;
+    private final FileIndexService fileIndexService;
+
+    @Value("${app.file.upload.chunked.max-size:1GB}")
+    private DataSize maxSize;
+    @Value("${app.file.upload.chunked.chunk-size:8MB}")
+    private DataSize chunkSize;
+    @Value("${app.file.upload.chunked.max-sessions:100}")
+    private int maxSessions;
+    @Value("${app.file.upload.chunked.max-sessions-per-user:5}")
+    private int maxSessionsPerUser;
+    @Value("${app.file.upload.chunked.idle-timeout-seconds:3600}")
+    private long idleTimeoutSeconds;
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+    private final ReentrantLock createLock = new ReentrantLock(); // 세션 수, 예약 용량 검사와 등록을 한 번에
+
+    /**
+     * 업로드 진행 상태
+     *
+     * @param missingChunks 아직 받지 못한 조각 번호 (오프셋 = 번호 × chunkSize)
+     */
+    public record Progress(String uploadId, String filename, long size, long chunkSize, int chunkCount,
+            int receivedChunks, List<Integer> missingChunks) {
+    }
+
+    // 업로드 세션: 조각 기록은 읽기 잠금(동시 진행), 완료/취소/만료는 쓰기 잠금(진행 중인 기록이 끝난 뒤)
+    private static final class UploadSession {
+        private final String id;
+        private final String userEmail;
+        private final String filename;
+        private final long size;
+        private final long chunkSize;
+        private final int chunkCount;
+        private final Path temp;
+        private final FileChannel channel;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final ReentrantLock receivedLock = new ReentrantLock(); // BitSet은 스레드 안전하지 않음
+        private final BitSet received;
+        private final BitSet writing = new BitSet(); // 지금 받고 있는 조각
+        private long receivedBytes; // receivedLock 안에서만 변경
+        private volatile long lastActivity = System.currentTimeMillis();
+        private boolean closed; // 쓰기 잠금 안에서만 변경
+
+        UploadSession(String id, String userEmail, String filename, long size, long chunkSize, Path temp,
+                FileChannel channel) {
+            this.id = id;
+            this.userEmail = userEmail;
+            this.filename = filename;
+            this.size = size;
+            this.chunkSize = chunkSize;
+            this.chunkCount = (int) ((size + chunkSize - 1) / chunkSize);
+            this.temp = temp;
+            this.channel = channel;
+            this.received = new BitSet(chunkCount);
+        }
+
+        long chunkLength(int index) {
+            return Math.min(chunkSize, size - index * chunkSize);
+        }
+
+        // 기록 전에 받지 않은 것으로 되돌림 (실패하면 이전 내용이 깨졌을 수 있으므로 다시 받아야 함)
+        boolean beginWrite(int index) {
+            receivedLock.lock();
+            try {
+                if (writing.get(index)) {
+                    return false;
+                }
+                writing.set(index);
+                if (received.get(index)) {
+                    received.clear(index);
+                    receivedBytes -= chunkLength(index);
+                }
+                return true;
+            } finally {
+                receivedLock.unlock();
+            }
+        }
+
+        void endWrite(int index, boolean success) {
+            receivedLock.lock();
+            try {
+                writing.clear(index);
+                if (success) {
+                    received.set(index);
+                    receivedBytes += chunkLength(index);
+                }
+            } finally {
+                receivedLock.unlock();
+            }
+        }
+
+        // 아직 디스크에 기록되지 않은 크기 (임시 파일은 희소 할당이라 받은 만큼만 공간을 차지)
+        long remainingBytes() {
+            receivedLock.lock();
+            try {
+                return size - receivedBytes;
+            } finally {
+                receivedLock.unlock();
+            }
+        }
+
+        Progress progress() {
+            receivedLock.lock();
+            try {
+                List<Integer> missing = new ArrayList<>(chunkCount - received.cardinality());
+                for (int i = received.nextClearBit(0); i < chunkCount; i = received.nextClearBit(i + 1)) {
+                    missing.add(i);
+                }
+                return new Progress(id, filename, size, chunkSize, chunkCount, received.cardinality(), missing);
+            } finally {
+                receivedLock.unlock();
+            }
+        }
+
+        // 쓰기 잠금 안에서 호출
+        void discard() {
+            closed = true;
+            try {
+                channel.close();
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                log.warn("업로드 임시 파일 삭제 실패: {} - {}", temp, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 업로드 세션 생성 (전체 크기의 임시 파일을 미리 할당)
+     *
+     * @param userEmail 사용자 이메일 (저장할 사용자 폴더)
+     * @param filename  원본 파일명
+     * @param size      전체 파일 크기
+     * @return 진행 상태 (uploadId, chunkSize 포함)
+     * @throws IllegalArgumentException 파일명, 크기 검증 실패 또는 용량 제한, 저장 공간 부족 시
+     * @throws ResponseStatusException  진행 중인 세션이 너무 많은 경우 (사용자별 429, 전체 503)
+     */
+    public Progress create(String userEmail, String filename, long size) throws IOException {
+        if (userEmail == null || userEmail.isEmpty()) {
+            throw new IllegalArgumentException("사용자 이메일을 입력해주세요.");
+        }
+        filename = FileUploadService.baseName(filename == null ? "" : filename.trim());
+        fileUploadService.validateFilename(filename);
+        if (size <= 0) {
+            throw new IllegalArgumentException("빈 파일은 업로드할 수 없습니다.");
+        }
+        if (size > maxSize.toBytes()) {
+            throw new IllegalArgumentException("파일 크기가 " + maxSize.toMegabytes() + "MB를 초과했습니다.");
+        }
+        fileUploadService.userDirectory(userEmail); // 이메일 검증 (완료 시점이 아니라 지금 거절)
+        String owner = fileUploadService.ownerOf(userEmail);
+
+        UploadSession session;
+        createLock.lock();
+        try {
+            if (sessions.size() >= maxSessions) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "업로드 요청이 많습니다. 잠시 후 다시 시도해주세요.");
+            }
+            int userSessions = 0;
+            long userPendingBytes = 0; // 이 사용자의 진행 중인 업로드 (완료되면 용량에 더해짐)
+            long pendingBytes = 0; // 모든 진행 중인 업로드가 앞으로 더 차지할 공간
+            for (UploadSession pending : sessions.values()) {
+                if (pending.userEmail.equals(userEmail)) {
+                    userSessions++;
+                    userPendingBytes += pending.size;
+                }
+                pendingBytes += pending.remainingBytes();
+            }
+            if (userSessions >= maxSessionsPerUser) {
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                        "진행 중인 이어 올리기가 너무 많습니다. 완료하거나 취소한 뒤 다시 시도해주세요.");
+            }
+            if (!fileIndexService.fitsQuota(owner, null, userPendingBytes + size, null)) {
+                throw new IllegalArgumentException(fileIndexService.quotaExceededMessage()); // 완료 시 다시 검사
+            }
+
+            Path temp = blobStore.createTempFile();
+            FileChannel channel = null;
+            try {
+                if (Files.getFileStore(temp).getUsableSpace() < pendingBytes + size) {
+                    throw new IllegalArgumentException("저장 공간이 부족합니다.");
+                }
+                channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                channel.write(ByteBuffer.allocate(1), size - 1); // 마지막 바이트까지 크기 확보 (나머지는 희소 할당)
+            } catch (IOException | RuntimeException e) {
+                if (channel != null) {
+                    channel.close();
+                }
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+
+            session = new UploadSession(UUID.randomUUID().toString(), userEmail, filename, size,
+                    chunkSize.toBytes(), temp, channel);
+            sessions.put(session.id, session);
+        } finally {
+            createLock.unlock();
+        }
+        log.debug("이어 올리기 세션 생성: {} {} ({} bytes, 조각 {}개)", session.id, filename, size, session.chunkCount);
+        return session.progress();
+    }
+
+    /**
+     * 진행 상태 조회 (중단된 업로드를 이어서 올릴 때 빠진 조각 확인)
+     *
+     * @param userEmail 세션을 만든 사용자 이메일 (다른 사용자의 세션은 조회되지 않음)
+     * @return 진행 상태, 세션이 없으면 null
+     */
+    public Progress progress(String uploadId, String userEmail) {
+        UploadSession session = find(uploadId, userEmail);
+        return session != null ? session.progress() : null;
+    }
+
+    /**
+     * 조각 기록 (오프셋은 chunkSize의 배수, 길이는 chunkSize, 마지막 조각만 남은 크기)
+     *
+     * @param offset        조각 시작 위치
+     * @param contentLength 요청 본문 길이 (모르면 -1, 받은 뒤 길이 검사)
+     * @param in            요청 본문
+     * @return 진행 상태, 세션이 없으면 null
+     * @throws IllegalArgumentException 오프셋, 길이가 맞지 않거나 첫 조각 형식이 확장자와 다른 경우
+     *                                  (조각은 받지 않은 것으로 남음)
+     * @throws IOException              본문이 중간에 끊긴 경우 (같은 조각을 다시 보내면 됨)
+     * @throws ResponseStatusException  같은 조각을 다른 요청이 받고 있는 경우 (409)
+     */
+    public Progress writeChunk(String uploadId, String userEmail, long offset, long contentLength, InputStream in)
+            throws IOException {
+        UploadSession session = find(uploadId, userEmail);
+        if (session == null) {
+            return null;
+        }
+        if (offset < 0 || offset >= session.size || offset % session.chunkSize != 0) {
+            throw new IllegalArgumentException("조각 위치가 올바르지 않습니다. (chunkSize의 배수)");
+        }
+        int index = (int) (offset / session.chunkSize);
+        long expected = session.chunkLength(index);
+        if (contentLength >= 0 && contentLength != expected) {
+            throw new IllegalArgumentException("조각 크기가 올바르지 않습니다. (" + expected + " bytes)");
+        }
+
+        if (index == 0) {
+            // 첫 조각은 앞부분 형식을 먼저 확인 (확장자와 다르면 나머지를 받지 않고 거절)
+            byte[] head = in.readNBytes((int) Math.min(FileSignatures.HEAD_BYTES, expected));
+            fileUploadService.validateHead(session.filename, head, head.length);
+            in = new SequenceInputStream(new ByteArrayInputStream(head), in);
+        }
+
+        session.lock.readLock().lock();
+        try {
+            if (session.closed) {
+                return null; // 그 사이 완료, 취소 또는 만료됨
+            }
+            if (!session.beginWrite(index)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "같은 조각을 받고 있습니다.");
+            }
+            boolean success = false;
+            fileUploadService.writeStarted(); // 정리 작업이 디스크를 양보하도록
+            try {
+                session.lastActivity = System.currentTimeMillis();
+                long written = copy(in, session.channel, offset, expected);
+                if (written != expected) {
+                    throw new IllegalArgumentException("조각 크기가 올바르지 않습니다. (" + expected + " bytes)");
+                }
+                success = true;
+            } finally {
+                fileUploadService.writeFinished();
+                session.endWrite(index, success);
+            }
+            session.lastActivity = System.currentTimeMillis();
+        } finally {
+            session.lock.readLock().unlock();
+        }
+        return session.progress();
+    }
+
+    /**
+     * 업로드 완료 (모든 조각을 받았을 때만)
+     *
+     * @return 저장 결과, 세션이 없으면 null
+     * @throws ResponseStatusException 받지 못한 조각이 있는 경우 (409)
+     */
+    public FileUploadResult complete(String uploadId, String userEmail) {
+        UploadSession session = find(uploadId, userEmail);
+        if (session == null) {
+            return null;
+        }
+        session.lock.writeLock().lock();
+        try {
+            if (session.closed) {
+                return null;
+            }
+            Progress progress = session.progress();
+            if (!progress.missingChunks().isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "받지 못한 조각이 " + progress.missingChunks().size() + "개 있습니다.");
+            }
+            session.closed = true;
+            sessions.remove(uploadId);
+            try {
+                session.channel.close();
+                FileUploadResult result = fileUploadService.storeCompletedFile(session.temp, session.filename,
+                        session.userEmail);
+                log.debug("이어 올리기 완료: {} → {}", session.id, result.getStoredFilename());
+                return result;
+            } catch (IOException | RuntimeException e) {
+                log.warn("이어 올리기 저장 실패: {} - {}", session.filename, e.getMessage(), e);
+                session.discard();
+                return new FileUploadResult(session.filename, null, session.size, FileUploadResult.Status.FAILED,
+                        "파일 저장 중 오류가 발생했습니다.");
+            }
+        } finally {
+            session.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 업로드 취소 (임시 파일 삭제)
+     *
+     * @return 세션이 있어서 취소했으면 true
+     */
+    public boolean abort(String uploadId, String userEmail) {
+        UploadSession session = find(uploadId, userEmail);
+        if (session == null || !sessions.remove(uploadId, session)) {
+            return false;
+        }
+        return discard(session);
+    }
+
+    private static boolean discard(UploadSession session) {
+        session.lock.writeLock().lock();
+        try {
+            if (session.closed) {
+                return false;
+            }
+            session.discard();
+            return true;
+        } finally {
+            session.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 오래 조각이 오지 않은 세션 정리
+     */
+    @Scheduled(fixedDelayString = "${app.file.upload.chunked.cleanup-interval-ms:60000}")
+    public void expireIdle() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(idleTimeoutSeconds);
+        for (UploadSession session : sessions.values()) {
+            if (session.lastActivity >= cutoff || !session.lock.writeLock().tryLock()) {
+                continue; // 조각을 받고 있는 세션은 다음 주기에 다시 확인
+            }
+            try {
+                if (!session.closed && session.lastActivity < cutoff) {
+                    sessions.remove(session.id);
+                    session.discard();
+                    log.debug("이어 올리기 세션 만료: {} {}", session.id, session.filename);
+                }
+            } finally {
+                session.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    void discardAll() { // 재시작 후에는 이어 올릴 수 없으므로 임시 파일 정리
+        for (UploadSession session : sessions.values()) {
+            sessions.remove(session.id);
+            discard(session);
+        }
+    }
+
+    // 다른 사용자의 세션은 없는 것으로 처리
+    private UploadSession find(String uploadId, String userEmail) {
+        UploadSession session = sessions.get(uploadId);
+        return session != null && session.userEmail.equals(userEmail) ? session : null;
+    }
+
+    // 본문을 재사용 버퍼로 읽어 지정 위치에 기록 (최대 limit + 1바이트까지 읽어 초과 여부 확인)
+    private long copy(InputStream in, FileChannel channel, long offset, long limit) throws IOException {
+        byte[] readBuffer = fileUploadService.acquireReadBuffer();
+        ByteBuffer writeBuffer = fileUploadService.acquireWriteBuffer();
+        try {
+            long total = 0;
+            long position = offset;
+            int read;
+            while (total <= limit
+                    && (read = in.read(readBuffer, 0, (int) Math.min(readBuffer.length, limit + 1 - total))) != -1) {
+                total += read;
+                if (total > limit) {
+                    break; // 조각보다 긴 본문은 기록하지 않음
+                }
+                int chunkOffset = 0;
+                while (chunkOffset < read) {
+                    int length = Math.min(read - chunkOffset, writeBuffer.remaining());
+                    writeBuffer.put(readBuffer, chunkOffset, length);
+                    chunkOffset += length;
+                    if (!writeBuffer.hasRemaining()) {
+                        position = flush(writeBuffer, channel, position);
+                    }
+                }
+            }
+            flush(writeBuffer, channel, position);
+            return total;
+        } finally {
+            fileUploadService.releaseBuffers(readBuffer, writeBuffer);
+        }
+    }
+
+    private static long flush(ByteBuffer buffer, FileChannel channel, long position) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+        return position;
+    }
+}
@@ -0,0 +1,111 @@
+package com.waiyannaung.sku.model.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 가입된 이메일 블룸 필터
+ * - mightContain()이 false면 "가입되지 않은 이메일"이 확실하므로 DB 조회 생략
+ * - true는 오탐(false positive) 가능성이 있으므로 DB(또는 캐시)로 확인
+ * - 비트 배열은 AtomicLongArray로 잠금 없이 동시 갱신
+ * - rebuild()로 전체 이메일에서 새 비트 배열을 만들어 한 번에 교체 (놓친 가입 반영, 탈퇴 회원 제거)
+ *   재구성 중의 put()은 기존/새 배열 모두에 기록
+ */
+@Component
+public class EmailBloomFilter {
+    private volatile AtomicLongArray bits;
+    private volatile AtomicLongArray next; // 재구성 중인 새 비트 배열 (아니면 null)
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final long bitCount;
+    private final int hashCount;
+
+    public EmailBloomFilter(@Value("${app.member.bloom.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${app.member.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        // m = -n ln p / (ln 2)^2, k = m / n ln 2
+        long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = Math.max(64, (m + 63) / 64 * 64);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.bits = new AtomicLongArray((int) (bitCount / 64));
+    }
+
+    public void put(String email) {
+        long hash = hash(email);
+        AtomicLongArray building = next; // 먼저 읽음 → null이면 교체 후의 bits를 보거나, 재구성이 이 이메일을 포함
+        set(bits, hash);
+        if (building != null) {
+            set(building, hash);
+        }
+    }
+
+    /**
+     * 전체 이메일로 새 필터를 만들어 교체 (호출 전에 커밋된 가입은 모두 포함)
+     */
+    public void rebuild(Stream<String> emails) {
+        rebuildLock.lock();
+        try {
+            AtomicLongArray building = new AtomicLongArray(bits.length());
+            next = building;
+            try {
+                emails.forEach(email -> set(building, hash(email)));
+                bits = building;
+            } finally {
+                next = null;
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void set(AtomicLongArray bits, long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long index = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break; // 이미 설정됨
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String email) {
+        long hash = hash(email);
+        AtomicLongArray bits = this.bits;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long index = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // MySQL 기본 collation은 대소문자를 구분하지 않으므로 소문자로 정규화 후 FNV-1a 64 + 비트 섞기
+    private static long hash(String email) {
+        byte[] bytes = email.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33; // splitmix64 마무리 단계
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,188 @@
+package com.waiyannaung.sku.model.service;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 업로드 파일 다운로드 지원
+ * - 파일 정보(크기, 수정 시각, ETag) 조회: blob에 연결된 파일은 내용 해시(SHA-256)를 강한 ETag로 사용
+ * - 압축 저장 파일은 원본 크기와 저장 형식(gzip), 디스크 크기를 함께 반환
+ * - 자주 받는 파일은 열린 FileChannel을 재사용 (위치 지정 전송이라 여러 요청이 동시에 사용 가능)
+ * - 캐시에서 빠진 채널은 사용 중인 요청이 모두 끝난 뒤 닫음 (참조 수)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FileDownloadService {
+    private final FileUploadService fileUploadService;
+    private final BlobStore blobStore;
+    private final MeterRegistry meterRegistry; // 채널 캐시 지표 등록 (actuator)
+
+    @Value("${app.file.download.open-files:256}")
+    private int maxOpenFiles;
+    @Value("${app.file.download.open-file-idle-seconds:60}")
+    private long openFileIdleSeconds;
+
+    /**
+     * 다운로드할 파일 정보
+     *
+     * @param size            원본 크기 (압축 저장이어도 풀었을 때 크기)
+     * @param etag            강한 ETag(내용 해시) 또는 약한 ETag(크기-수정 시각)
+     * @param contentHash     내용 SHA-256 (blob에 연결된 파일만, 아니면 null)
+     * @param contentEncoding 저장 형식 (gzip, 원본이면 null)
+     * @param storedSize      디스크에 저장된 크기 (압축 저장이면 압축 크기)
+     */
+    public record FileInfo(Path path, String filename, long size, long lastModified, String etag,
+            boolean strongEtag, String contentHash, String contentEncoding, long storedSize, HandleKey handleKey) {
+    }
+
+    // inode가 재사용되어도 다른 파일로 구분되도록 크기, 수정 시각 포함
+    record HandleKey(Object fileKey, long size, long lastModified) {
+    }
+
+    /**
+     * 사용 중인 채널 (try-with-resources로 반환)
+     */
+    public static final class Lease implements AutoCloseable {
+        private final SharedChannel shared;
+
+        private Lease(SharedChannel shared) {
+            this.shared = shared;
+        }
+
+        public FileChannel channel() {
+            return shared.channel;
+        }
+
+        @Override
+        public void close() {
+            shared.release();
+        }
+    }
+
+    // 캐시 1 + 사용 중인 요청 수만큼 참조, 0이 되면 닫음
+    private static final class SharedChannel {
+        private final FileChannel channel;
+        private final AtomicInteger refs = new AtomicInteger(1);
+
+        SharedChannel(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        boolean retain() {
+            for (;;) {
+                int current = refs.get();
+                if (current == 0) {
+                    return false; // 이미 닫힘
+                }
+                if (refs.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            if (refs.decrementAndGet() == 0) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    log.debug("파일 채널 닫기 실패: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Cache<HandleKey, SharedChannel> channels;
+
+    @PostConstruct
+    void init() {
+        channels = Caffeine.newBuilder()
+                .maximumSize(maxOpenFiles)
+                .expireAfterAccess(openFileIdleSeconds, TimeUnit.SECONDS)
+                .removalListener((HandleKey key, SharedChannel shared, RemovalCause cause) -> {
+                    if (shared != null) {
+                        shared.release(); // 캐시 참조 반환
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, channels, "downloadChannels");
+    }
+
+    @PreDestroy
+    void closeAll() {
+        channels.invalidateAll();
+        channels.cleanUp();
+    }
+
+    /**
+     * 사용자 폴더의 파일 정보 조회
+     *
+     * @return 파일 정보, 없으면 null
+     * @throws IllegalArgumentException 파일명 또는 이메일이 잘못된 경우
+     */
+    public FileInfo find(String userEmail, String filename) throws IOException {
+        Path path = fileUploadService.findUserFile(userEmail, filename);
+        if (path == null) {
+            return null;
+        }
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null; // 조회 직후 삭제됨
+        }
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String hash = blobStore.hashOf(attributes.fileKey());
+        long size = blobStore.originalSize(path, hash);
+        String etag = hash != null
+                ? "\"" + hash + "\""
+                : "W/\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+        HandleKey handleKey = attributes.fileKey() != null
+                ? new HandleKey(attributes.fileKey(), attributes.size(), lastModified)
+                : null;
+        return new FileInfo(path, filename, size, lastModified, etag, hash != null, hash, blobStore.encodingOf(hash),
+                attributes.size(), handleKey);
+    }
+
+    /**
+     * 파일 채널 빌려오기 (캐시된 채널 재사용, 없으면 열어서 캐시)
+     */
+    public Lease open(FileInfo file) throws IOException {
+        HandleKey key = file.handleKey();
+        if (key != null) {
+            SharedChannel cached = channels.getIfPresent(key);
+            if (cached != null && cached.retain()) {
+                return new Lease(cached);
+            }
+        }
+        SharedChannel opened = new SharedChannel(FileChannel.open(file.path(), StandardOpenOption.READ));
+        if (key == null) {
+            return new Lease(opened); // 식별할 수 없는 파일은 캐시하지 않음 (요청 끝나면 닫힘)
+        }
+        opened.retain(); // 요청용 참조 (캐시 참조와 별도)
+        channels.put(key, opened);
+        return new Lease(opened);
+    }
+}
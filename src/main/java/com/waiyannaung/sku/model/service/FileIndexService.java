@@ -0,0 +1,314 @@
+package com.waiyannaung.sku.model.service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.waiyannaung.sku.model.domain.UploadedFile;
+import com.waiyannaung.sku.model.repository.UploadedFileRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 사용자별 업로드 파일 색인 (이름, 원본 크기, 내용 해시, 저장 형식, 업로드 시각)
+ * - DB(uploaded_file)에 저장하고, 최근 사용자의 색인은 메모리에 올려 두고 조회
+ *   → 이름 중복 확인, 목록, 사용량 계산에 디렉토리를 읽지 않음
+ * - 업로드/삭제 시 사용자별 잠금 안에서 디스크 작업과 함께 갱신 (사용량 한도 검사 포함)
+ * - 주기적으로 디스크와 비교해 색인 복구 (기존 업로드, 직접 지운 파일, 중단된 갱신)
+ */
+@Slf4j
+@Service
+public class FileIndexService {
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * 색인된 파일 정보 (목록 응답)
+     *
+     * @param size            원본 크기 (압축 저장이어도 풀었을 때 크기)
+     * @param contentEncoding 저장 형식 (gzip, 원본이면 null)
+     */
+    public record FileEntry(String filename, long size, String contentHash, String contentEncoding,
+            LocalDateTime uploadedAt) {
+    }
+
+    /**
+     * 사용자 사용량
+     *
+     * @param quotaBytes 한도 (0이면 제한 없음)
+     */
+    public record Usage(long usedBytes, long quotaBytes, int files) {
+    }
+
+    // 메모리에 올린 사용자 색인 (읽기는 잠금 없이, 변경은 사용자 잠금 안에서)
+    private static final class UserFiles {
+        private final Map<String, FileEntry> files = new ConcurrentHashMap<>();
+        private final AtomicLong usedBytes = new AtomicLong();
+
+        void put(FileEntry entry) {
+            FileEntry previous = files.put(entry.filename(), entry);
+            usedBytes.addAndGet(entry.size() - (previous != null ? previous.size() : 0));
+        }
+
+        void remove(String filename) {
+            FileEntry previous = files.remove(filename);
+            if (previous != null) {
+                usedBytes.addAndGet(-previous.size());
+            }
+        }
+    }
+
+    private final UploadedFileRepository uploadedFileRepository;
+    private final BlobStore blobStore;
+    private final Path uploadRoot;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES]; // 같은 사용자 폴더 변경 직렬화
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    private final Cache<String, UserFiles> users;
+
+    @Value("${app.file.quota.bytes-per-user:1GB}") // 0이면 제한 없음
+    private DataSize quota;
+
+    public FileIndexService(UploadedFileRepository uploadedFileRepository, BlobStore blobStore,
+            @Value("${spring.servlet.multipart.location}") String uploadFolder,
+            @Value("${app.file.index.cached-users:1000}") long cachedUsers) {
+        this.uploadedFileRepository = uploadedFileRepository;
+        this.blobStore = blobStore;
+        this.uploadRoot = Paths.get(uploadFolder).toAbsolutePath();
+        this.users = Caffeine.newBuilder().maximumSize(cachedUsers).build();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * 사용자 폴더 변경용 잠금 (저장, 삭제, 복구가 같은 사용자에서 겹치지 않도록)
+     *
+     * @param owner 사용자 폴더명
+     */
+    ReentrantLock lockFor(String owner) {
+        return locks[Math.floorMod(owner.hashCode(), LOCK_STRIPES)];
+    }
+
+    /**
+     * 같은 이름의 다른 내용 파일이 있는지 (같은 내용이면 기존 파일을 그대로 사용하므로 false)
+     */
+    public boolean hasOtherContent(String owner, String filename, String contentHash) {
+        FileEntry entry = userFiles(owner).files.get(filename);
+        return entry != null && !Objects.equals(entry.contentHash(), contentHash);
+    }
+
+    /**
+     * 같은 내용의 파일을 이미 가지고 있는지 (이름 무관, 다른 사용자의 파일은 보지 않음)
+     */
+    public boolean hasContent(String owner, String contentHash) {
+        return userFiles(owner).files.values().stream().anyMatch(entry -> contentHash.equals(entry.contentHash()));
+    }
+
+    /**
+     * 사용량 한도 안에 들어가는지 (같은 이름, 같은 내용으로 다시 올리면 늘어나지 않음)
+     */
+    public boolean fitsQuota(String owner, String filename, long size, String contentHash) {
+        if (quota.toBytes() <= 0) {
+            return true;
+        }
+        UserFiles user = userFiles(owner);
+        FileEntry existing = filename != null ? user.files.get(filename) : null;
+        if (existing != null && contentHash != null && contentHash.equals(existing.contentHash())) {
+            return true;
+        }
+        return user.usedBytes.get() + size <= quota.toBytes();
+    }
+
+    public String quotaExceededMessage() {
+        String limit = quota.toMegabytes() > 0 ? quota.toMegabytes() + "MB" : quota.toKilobytes() + "KB";
+        return "저장 공간 한도(" + limit + ")를 초과했습니다.";
+    }
+
+    /**
+     * 저장된 파일 반영 (사용자 잠금 안에서 호출)
+     */
+    void recordStored(String owner, String filename, long size, String contentHash, String contentEncoding) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            UploadedFile row = uploadedFileRepository.findByOwnerAndFilename(owner, filename).orElse(null);
+            if (row == null) {
+                row = UploadedFile.builder().owner(owner).filename(filename).size(size).contentHash(contentHash)
+                        .contentEncoding(contentEncoding).uploadedAt(now).build();
+            } else {
+                row.update(size, contentHash, contentEncoding, now);
+            }
+            uploadedFileRepository.save(row);
+        } catch (RuntimeException e) {
+            // 파일은 이미 저장됨 → 업로드는 성공으로 두고 다음 복구 때 반영
+            log.warn("업로드 파일 색인 반영 실패: {}/{} - {}", owner, filename, e.getMessage());
+            users.invalidate(owner);
+            return;
+        }
+        UserFiles cached = users.getIfPresent(owner);
+        if (cached != null) {
+            cached.put(new FileEntry(filename, size, contentHash, contentEncoding, now));
+        }
+    }
+
+    /**
+     * 삭제된 파일 반영 (사용자 잠금 안에서 호출)
+     */
+    void recordDeleted(String owner, String filename) {
+        try {
+            uploadedFileRepository.findByOwnerAndFilename(owner, filename).ifPresent(uploadedFileRepository::delete);
+        } catch (RuntimeException e) {
+            log.warn("업로드 파일 색인 삭제 실패: {}/{} - {}", owner, filename, e.getMessage());
+            users.invalidate(owner);
+            return;
+        }
+        UserFiles cached = users.getIfPresent(owner);
+        if (cached != null) {
+            cached.remove(filename);
+        }
+    }
+
+    /**
+     * 색인된 파일 정보 (없으면 null)
+     */
+    FileEntry find(String owner, String filename) {
+        return userFiles(owner).files.get(filename);
+    }
+
+    /**
+     * 사용자 파일 목록 (최근 업로드 순)
+     */
+    public List<FileEntry> list(String owner) {
+        List<FileEntry> entries = new ArrayList<>(userFiles(owner).files.values());
+        entries.sort(Comparator.comparing(FileEntry::uploadedAt).reversed());
+        return entries;
+    }
+
+    public Usage usage(String owner) {
+        UserFiles user = userFiles(owner);
+        return new Usage(user.usedBytes.get(), Math.max(quota.toBytes(), 0), user.files.size());
+    }
+
+    // 처음 조회하는 사용자는 DB에서 한 번 읽어 메모리에 올림 (읽는 중 저장된 파일을 놓치지 않도록 사용자 잠금 안에서)
+    private UserFiles userFiles(String owner) {
+        UserFiles cached = users.getIfPresent(owner);
+        if (cached != null) {
+            return cached;
+        }
+        ReentrantLock lock = lockFor(owner);
+        lock.lock();
+        try {
+            return users.get(owner, key -> {
+                UserFiles loaded = new UserFiles();
+                for (UploadedFile row : uploadedFileRepository.findByOwner(key)) {
+                    loaded.put(new FileEntry(row.getFilename(), row.getSize(), row.getContentHash(),
+                            row.getContentEncoding(), row.getUploadedAt()));
+                }
+                return loaded;
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 디스크 기준으로 색인 복구 (색인에 없는 파일 추가, 크기/내용/저장 형식이 다르면 갱신, 없는 파일 삭제)
+     */
+    @Scheduled(initialDelayString = "${app.file.index.reconcile-initial-delay-ms:10000}",
+            fixedDelayString = "${app.file.index.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        if (!reconcileLock.tryLock()) {
+            return;
+        }
+        try {
+            Set<String> owners = new HashSet<>(uploadedFileRepository.findOwners());
+            if (Files.isDirectory(uploadRoot)) {
+                try (DirectoryStream<Path> directories = Files.newDirectoryStream(uploadRoot,
+                        path -> Files.isDirectory(path) && !path.getFileName().toString().startsWith("."))) {
+                    for (Path directory : directories) {
+                        owners.add(directory.getFileName().toString());
+                    }
+                }
+            }
+            int repaired = 0;
+            for (String owner : owners) {
+                repaired += reconcile(owner);
+            }
+            if (repaired > 0) {
+                log.info("업로드 파일 색인 복구: {}건", repaired);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("업로드 파일 색인 복구 실패: {}", e.getMessage());
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    // 한 사용자 폴더 복구 (업로드/삭제와 겹치지 않도록 사용자 잠금 안에서)
+    private int reconcile(String owner) throws IOException {
+        ReentrantLock lock = lockFor(owner);
+        lock.lock();
+        try {
+            Map<String, UploadedFile> rows = new HashMap<>();
+            for (UploadedFile row : uploadedFileRepository.findByOwner(owner)) {
+                rows.put(row.getFilename(), row);
+            }
+            List<UploadedFile> changed = new ArrayList<>();
+            Path directory = uploadRoot.resolve(owner);
+            if (Files.isDirectory(directory)) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, Files::isRegularFile)) {
+                    for (Path file : files) {
+                        String filename = file.getFileName().toString();
+                        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                        String hash = blobStore.hashOf(attributes.fileKey());
+                        String encoding = blobStore.encodingOf(hash);
+                        long size = blobStore.originalSize(file, hash);
+                        UploadedFile row = rows.remove(filename);
+                        if (row == null) {
+                            changed.add(UploadedFile.builder().owner(owner).filename(filename)
+                                    .size(size).contentHash(hash).contentEncoding(encoding)
+                                    .uploadedAt(LocalDateTime.ofInstant(attributes.lastModifiedTime().toInstant(),
+                                            ZoneId.systemDefault()))
+                                    .build());
+                        } else if (row.getSize() != size || !Objects.equals(encoding, row.getContentEncoding())
+                                || (hash != null && !hash.equals(row.getContentHash()))) {
+                            row.update(size, hash, encoding, row.getUploadedAt());
+                            changed.add(row);
+                        }
+                    }
+                }
+            }
+            // 남은 행은 디스크에 없는 파일
+            if (changed.isEmpty() && rows.isEmpty()) {
+                return 0;
+            }
+            uploadedFileRepository.saveAll(changed);
+            uploadedFileRepository.deleteAllInBatch(rows.values());
+            users.invalidate(owner); // 다음 조회 때 DB에서 다시 읽음
+            return changed.size() + rows.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
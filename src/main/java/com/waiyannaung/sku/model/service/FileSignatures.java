@@ -0,0 +1,93 @@
+package com.waiyannaung.sku.model.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 파일 앞부분(매직 넘버)으로 내용이 확장자와 맞는지 확인
+ * - 확장자만 바꾼 파일을 본문을 다 받기 전에 거절 (앞부분 HEAD_BYTES만 사용)
+ * - txt는 시그니처가 없으므로 앞부분에 NUL 바이트(이진 파일)가 없으면 허용
+ * - docx/xlsx/pptx는 zip, doc/xls/ppt는 OLE 복합 문서 형식
+ */
+final class FileSignatures {
+    static final int HEAD_BYTES = 512;
+
+    private static final List<byte[]> ZIP = List.of(
+            new byte[] { 'P', 'K', 3, 4 }, new byte[] { 'P', 'K', 5, 6 }, new byte[] { 'P', 'K', 7, 8 });
+    private static final List<byte[]> OLE = List.of(
+            new byte[] { (byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1 });
+    private static final List<byte[]> JPEG = List.of(new byte[] { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF });
+
+    private static final Map<String, List<byte[]>> SIGNATURES = Map.ofEntries(
+            Map.entry("pdf", List.of(ascii("%PDF-"))),
+            Map.entry("jpg", JPEG),
+            Map.entry("jpeg", JPEG),
+            Map.entry("png", List.of(new byte[] { (byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A })),
+            Map.entry("gif", List.of(ascii("GIF87a"), ascii("GIF89a"))),
+            Map.entry("zip", ZIP),
+            Map.entry("docx", ZIP),
+            Map.entry("xlsx", ZIP),
+            Map.entry("pptx", ZIP),
+            Map.entry("doc", OLE),
+            Map.entry("xls", OLE),
+            Map.entry("ppt", OLE),
+            Map.entry("rar", List.of(ascii("Rar!\u001A\u0007"))));
+
+    private FileSignatures() {
+    }
+
+    /**
+     * 앞부분이 확장자의 형식과 맞는지 (시그니처를 모르는 확장자는 true)
+     *
+     * @param head   파일 앞부분
+     * @param length head에서 유효한 길이 (파일이 HEAD_BYTES보다 작으면 파일 크기)
+     */
+    static boolean matches(String filename, byte[] head, int length) {
+        String extension = extensionOf(filename);
+        if (extension.equals("txt")) {
+            for (int i = 0; i < length; i++) {
+                if (head[i] == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        List<byte[]> signatures = SIGNATURES.get(extension);
+        if (signatures == null) {
+            return true;
+        }
+        for (byte[] signature : signatures) {
+            if (startsWith(head, length, signature)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String mismatchMessage(String filename) {
+        return "파일 내용이 확장자(" + extensionOf(filename) + ")와 일치하지 않습니다.";
+    }
+
+    private static boolean startsWith(byte[] head, int length, byte[] signature) {
+        if (length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (head[i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String extensionOf(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot >= 0 ? filename.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,39 @@
+package com.waiyannaung.sku.model.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 업로드 파일별 처리 결과 (완료 화면에 파일마다 표시)
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class FileUploadResult {
+
+    public enum Status {
+        SAVED, // 새로 저장
+        DEDUPLICATED, // 같은 사용자에게 같은 내용이 있어 링크로 저장
+        REJECTED, // 검증 실패 (크기, 확장자)
+        FAILED // 저장 중 오류
+    }
+
+    private final String originalFilename;
+    private final String storedFilename; // 저장되지 않았으면 null
+    private final long size;
+    private final Status status;
+    private final String message;
+    private final String contentHash; // 저장된 내용의 SHA-256 (미리보기 주소 버전), 저장되지 않았으면 null
+
+    FileUploadResult(String originalFilename, String storedFilename, long size, Status status, String message) {
+        this(originalFilename, storedFilename, size, status, message, null);
+    }
+
+    public boolean isStored() {
+        return status == Status.SAVED || status == Status.DEDUPLICATED;
+    }
+
+    public boolean isImage() { // 미리보기 표시 여부
+        return isStored() && ThumbnailService.isImage(storedFilename);
+    }
+}
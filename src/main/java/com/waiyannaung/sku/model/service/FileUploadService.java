@@ -1,29 +1,78 @@
 package com.waiyannaung.sku.model.service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.waiyannaung.sku.model.service.BlobStore.StoredFile;
+import com.waiyannaung.sku.model.service.FileUploadResult.Status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
 /**
  * 파일 업로드를 처리하는 서비스 클래스
- * - 최대 2개 파일 업로드 지원
- * - 파일명 중복 시 자동 이름 변경 (타임스탐프 또는 UUID 추가)
+ * - 여러 파일 업로드 지원 (app.file.upload.max-files, 전용 I/O 풀에서 동시에 저장, 파일별 결과 반환)
+ * - 파일명 중복 시 자동 이름 변경 (타임스탐프 또는 UUID 추가, 중복 여부는 FileIndexService 색인으로 확인)
+ * - 사용자별 저장 공간 한도 (app.file.quota.bytes-per-user)
  * - 파일 크기 및 타입 검증
  * - 상세한 에러 처리
+ * - 스트리밍 업로드: 요청 본문을 직접 읽어 최종 경로에 한 번만 기록 (임시 파일 없음)
+ * - 같은 내용은 BlobStore에 한 번만 저장하고 사용자 폴더에는 링크만 생성 (기록 중 SHA-256 계산)
+ * - 이미지는 저장 후 ThumbnailService가 백그라운드에서 미리보기 생성
+ * - 텍스트/문서 형식은 받으면서 gzip으로 압축해 저장 (app.file.storage.compression.*, 색인 크기는 원본 기준)
  */
+@Slf4j
 @Service
+@RequiredArgsConstructor
 public class FileUploadService {
 
+    private final BlobStore blobStore;
+    private final ThumbnailService thumbnailService;
+    private final FileIndexService fileIndexService; // 사용자별 파일 색인 (이름 중복, 사용량 한도)
+    private final MeterRegistry meterRegistry; // I/O 풀 지표 등록 (actuator)
+
     @Value("${spring.servlet.multipart.location}")
     private String uploadFolder;
 
@@ -38,6 +87,65 @@ public class FileUploadService {
             "txt", "pdf", "doc", "docx", "xls", "xlsx", "ppt", "pptx",
             "jpg", "jpeg", "png", "gif", "zip", "rar");
 
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS");
+
+    // 요청당 최대 파일 수
+    @Value("${app.file.upload.max-files:10}")
+    private int maxFiles;
+
+    // 파일 저장 전용 I/O 스레드 수, 동시에 저장 중인 파일 크기 합 제한 및 대기 시간
+    @Value("${app.file.upload.io-threads:4}")
+    private int ioThreads;
+    @Value("${app.file.upload.max-in-flight-bytes:64MB}")
+    private DataSize maxInFlightBytes;
+    @Value("${app.file.upload.in-flight-timeout-ms:10000}")
+    private long inFlightTimeoutMillis;
+
+    // 스트리밍 업로드 요청 전체 크기 제한 (multipart 설정과 동일)
+    @Value("${spring.servlet.multipart.max-request-size:30MB}")
+    private DataSize maxRequestSize;
+
+    // 스트리밍 업로드 버퍼 크기 및 재사용 개수 (읽기용 byte[], 쓰기용 direct ByteBuffer)
+    @Value("${app.file.upload.buffer-size:65536}")
+    private int bufferSize;
+    @Value("${app.file.upload.buffer-pool-size:32}")
+    private int bufferPoolSize;
+
+    // 압축 저장 (받으면서 압축, 압축해도 min-savings-percent 이상 줄지 않으면 원본 저장, 이미지는 제외)
+    // max-size보다 큰 파일은 압축하지 않음 (압축 파일의 Range 요청은 처음부터 풀어야 하므로 비용 상한)
+    @Value("${app.file.storage.compression.enabled:true}")
+    private boolean compressionEnabled;
+    @Value("${app.file.storage.compression.extensions:txt,doc,xls,ppt,pdf}")
+    private List<String> compressibleExtensions;
+    @Value("${app.file.storage.compression.min-savings-percent:10}")
+    private int minSavingsPercent;
+    @Value("${app.file.storage.compression.max-size:16MB}")
+    private DataSize compressionMaxSize;
+
+    private BlockingQueue<byte[]> readBuffers;
+    private BlockingQueue<ByteBuffer> writeBuffers;
+    private ThreadPoolExecutor ioExecutor;
+    private Semaphore inFlightBytes; // 남은 허용 바이트 (파일 크기만큼 획득 후 저장)
+    private int inFlightLimit;
+    private final AtomicInteger activeWrites = new AtomicInteger(); // 디스크에 기록 중인 업로드 (모든 업로드 경로)
+
+    @PostConstruct
+    void init() {
+        readBuffers = new ArrayBlockingQueue<>(bufferPoolSize);
+        writeBuffers = new ArrayBlockingQueue<>(bufferPoolSize);
+        inFlightLimit = (int) Math.min(maxInFlightBytes.toBytes(), Integer.MAX_VALUE);
+        inFlightBytes = new Semaphore(inFlightLimit);
+        ioExecutor = new ThreadPoolExecutor(ioThreads, ioThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(ioThreads * 16), new CustomizableThreadFactory("upload-io-"),
+                new ThreadPoolExecutor.AbortPolicy()); // 대기열 초과 시 요청 스레드에서 직접 저장
+        ExecutorServiceMetrics.monitor(meterRegistry, ioExecutor, "fileUpload");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ioExecutor.shutdown();
+    }
+
     /**
      * 단일 파일 업로드 처리
      * 
@@ -52,98 +160,674 @@ public class FileUploadService {
         validateFile(file);
 
         // 업로드 디렉토리 생성
-        String sanitizedEmail = userEmail.replaceAll("[^a-zA-Z0-9._-]", "_");
-        Path userUploadPath = Paths.get(uploadFolder, sanitizedEmail).toAbsolutePath();
-        if (!Files.exists(userUploadPath)) {
-            Files.createDirectories(userUploadPath);
+        Path userUploadPath = userDirectory(userEmail);
+
+        // 파일 저장 (파일명 중복 시 자동 이름 변경)
+        FileUploadResult result;
+        writeStarted();
+        try {
+            result = storeMultipartFile(file, userUploadPath);
+        } finally {
+            writeFinished();
         }
-
-        // 파일명 처리 (중복 시 자동 이름 변경)
-        String originalFilename = file.getOriginalFilename();
-        String finalFilename = handleDuplicateFilename(originalFilename, userUploadPath);
-
-        // 파일 저장
-        Path filePath = userUploadPath.resolve(finalFilename);
-        file.transferTo(filePath.toFile());
-
-        return finalFilename; // 저장된 파일명 반환
+        if (result == null) {
+            throw new IllegalArgumentException("빈 파일은 업로드할 수 없습니다.");
+        }
+        if (!result.isStored()) {
+            throw new IllegalArgumentException(result.getMessage());
+        }
+        return result.getStoredFilename(); // 저장된 파일명 반환
     }
 
     /**
-     * 다중 파일 업로드 처리 (최대 2개)
+     * 다중 파일 업로드 처리 (최대 app.file.upload.max-files개)
      * 
      * @param files     업로드할 파일 배열
      * @param userEmail 사용자 이메일
      * @return 저장된 파일명 리스트
      * @throws IllegalArgumentException 파일 개수 또는 검증 실패 시
-     * @throws IOException              파일 저장 실패 시
+     * @throws IOException              저장된 파일이 하나도 없는 경우
      */
     public List<String> uploadFiles(MultipartFile[] files, String userEmail)
             throws IllegalArgumentException, IOException {
-        // 파일 개수 검증 (최대 2개)
-        if (files == null || files.length == 0) {
+        if (files == null || Arrays.stream(files).allMatch(file -> file == null || file.isEmpty())) {
             throw new IllegalArgumentException("업로드할 파일을 선택해주세요.");
         }
-        if (files.length > 2) {
-            throw new IllegalArgumentException("최대 2개의 파일만 업로드할 수 있습니다.");
-        }
 
         List<String> uploadedFilenames = new ArrayList<>();
+        for (FileUploadResult result : uploadFilesConcurrently(Arrays.asList(files), userEmail)) {
+            if (result.isStored()) {
+                uploadedFilenames.add(result.getStoredFilename());
+            }
+        }
+
+        if (uploadedFilenames.isEmpty()) {
+            throw new IOException("업로드된 파일이 없습니다.");
+        }
+
+        return uploadedFilenames; // 저장된 파일명 리스트 반환
+    }
+
+    /**
+     * 다중 파일 동시 업로드 (최대 app.file.upload.max-files개)
+     * - 검증은 요청 스레드에서, 저장은 전용 I/O 풀에서 파일마다 동시에 진행
+     * - 저장 중인 파일 크기 합이 app.file.upload.max-in-flight-bytes를 넘으면 자리가 날 때까지 대기
+     * - 개별 파일 실패는 다른 파일에 영향 없이 결과에 기록
+     *
+     * @param files     업로드할 파일 (null, 빈 파일은 무시)
+     * @param userEmail 사용자 이메일
+     * @return 파일별 결과 (요청 순서, 선택된 파일이 없으면 빈 리스트)
+     * @throws IllegalArgumentException 파일 개수 초과 시
+     * @throws IOException              업로드 폴더 생성 실패 시
+     */
+    public List<FileUploadResult> uploadFilesConcurrently(List<MultipartFile> files, String userEmail)
+            throws IllegalArgumentException, IOException {
+        List<MultipartFile> selected = files.stream()
+                .filter(file -> file != null && !file.isEmpty())
+                .toList();
+        if (selected.size() > maxFiles) {
+            throw new IllegalArgumentException(tooManyFilesMessage());
+        }
+        if (selected.isEmpty()) {
+            return List.of();
+        }
 
         // 업로드 디렉토리 생성
-        String sanitizedEmail = userEmail.replaceAll("[^a-zA-Z0-9._-]", "_");
-        Path userUploadPath = Paths.get(uploadFolder, sanitizedEmail).toAbsolutePath();
-        if (!Files.exists(userUploadPath)) {
-            Files.createDirectories(userUploadPath);
+        Path userUploadPath = userDirectory(userEmail);
+
+        List<Future<FileUploadResult>> pending = new ArrayList<>(selected.size());
+        for (MultipartFile file : selected) {
+            String filename = baseName(Objects.requireNonNullElse(file.getOriginalFilename(), ""));
+            try {
+                // 파일 검증 (크기, 확장자)
+                validateFile(file);
+            } catch (IllegalArgumentException e) {
+                log.warn("파일 검증 실패: {} - {}", filename, e.getMessage());
+                pending.add(CompletableFuture.completedFuture(
+                        new FileUploadResult(filename, null, file.getSize(), Status.REJECTED, e.getMessage())));
+                continue;
+            }
+            pending.add(submitStore(file, filename, userUploadPath));
+        }
+
+        List<FileUploadResult> results = new ArrayList<>(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            results.add(await(pending.get(i), selected.get(i)));
         }
+        return results;
+    }
 
-        // 각 파일 업로드 처리
-        for (MultipartFile file : files) {
-            if (file.isEmpty()) {
-                continue; // 빈 파일 스킵
+    // 파일 크기만큼 허용 바이트를 얻은 뒤 I/O 풀에 저장 작업 제출 (저장이 끝나면 반환)
+    private Future<FileUploadResult> submitStore(MultipartFile file, String filename, Path userUploadPath) {
+        int permits = (int) Math.min(file.getSize(), inFlightLimit);
+        try {
+            if (!inFlightBytes.tryAcquire(permits, inFlightTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return CompletableFuture.completedFuture(new FileUploadResult(filename, null, file.getSize(),
+                        Status.FAILED, "업로드 요청이 많습니다. 잠시 후 다시 시도해주세요."));
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(
+                    new FileUploadResult(filename, null, file.getSize(), Status.FAILED, "업로드가 중단되었습니다."));
+        }
 
+        Callable<FileUploadResult> task = () -> {
+            writeStarted();
             try {
-                // 파일 검증
-                validateFile(file);
+                return storeMultipartFile(file, userUploadPath);
+            } finally {
+                writeFinished();
+                inFlightBytes.release(permits);
+            }
+        };
+        try {
+            return ioExecutor.submit(task);
+        } catch (RejectedExecutionException e) {
+            // 대기열이 가득 차면 요청 스레드에서 직접 저장
+            CompletableFuture<FileUploadResult> inline = new CompletableFuture<>();
+            try {
+                inline.complete(task.call());
+            } catch (Exception ex) {
+                inline.completeExceptionally(ex);
+            }
+            return inline;
+        }
+    }
 
-                // 파일명 처리 (중복 시 자동 이름 변경)
-                String originalFilename = file.getOriginalFilename();
-                String finalFilename = handleDuplicateFilename(originalFilename, userUploadPath);
+    // 저장 결과 대기 (저장 중 오류는 실패 결과로 변환)
+    private FileUploadResult await(Future<FileUploadResult> future, MultipartFile file) {
+        String filename = baseName(Objects.requireNonNullElse(file.getOriginalFilename(), ""));
+        try {
+            FileUploadResult result = future.get();
+            return result != null ? result
+                    : new FileUploadResult(filename, null, 0, Status.REJECTED, "빈 파일은 업로드할 수 없습니다.");
+        } catch (ExecutionException e) {
+            log.warn("파일 저장 실패: {} - {}", filename, e.getCause().getMessage(), e.getCause());
+            return new FileUploadResult(filename, null, file.getSize(), Status.FAILED,
+                    "파일 저장 중 오류가 발생했습니다.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new FileUploadResult(filename, null, file.getSize(), Status.FAILED, "업로드가 중단되었습니다.");
+        }
+    }
 
-                // 파일 저장
-                Path filePath = userUploadPath.resolve(finalFilename);
-                file.transferTo(filePath.toFile());
+    /**
+     * 스트리밍 다중 파일 업로드 (최대 app.file.upload.max-files개)
+     * - multipart 본문을 순서대로 읽으면서 파일 파트를 blob 임시 파일의 FileChannel에 바로 기록
+     * - 확장자는 파트 헤더에서, 내용 형식(앞부분 매직 넘버)과 파일 크기는 기록 중에 검사
+     * - 검증에 실패하면 남은 본문을 읽지 않고 요청 전체를 중단 (저장 중이던 임시 파일은 삭제)
+     * - 저장 폴더는 로그인 사용자 기준 (본문의 입력 필드로 바꿀 수 없음)
+     *
+     * @param in          요청 본문
+     * @param contentType 요청 Content-Type (boundary 포함)
+     * @param userEmail   로그인 사용자 이메일
+     * @return 파일별 결과 (요청 순서, 선택된 파일이 없으면 빈 리스트)
+     * @throws IllegalArgumentException 요청 형식, 파일 개수, 요청 크기, 파일 검증 실패 시
+     * @throws IOException              파일 저장 실패 또는 요청 본문이 중간에 끊긴 경우
+     */
+    public List<FileUploadResult> uploadFilesStreaming(InputStream in, String contentType, String userEmail)
+            throws IllegalArgumentException, IOException {
+        String boundary = MultipartStream.boundaryOf(contentType);
+        if (boundary == null) {
+            throw new IllegalArgumentException("multipart/form-data 요청이 아닙니다.");
+        }
 
-                uploadedFilenames.add(finalFilename);
-            } catch (IllegalArgumentException e) {
-                // 개별 파일 검증 실패 시 계속 진행
-                System.err.println("파일 검증 실패: " + file.getOriginalFilename() + " - " + e.getMessage());
+        writeStarted();
+        byte[] readBuffer = acquireReadBuffer();
+        ByteBuffer writeBuffer = acquireWriteBuffer();
+        try {
+            MultipartStream multipart = new MultipartStream(in, boundary, readBuffer, maxRequestSize.toBytes());
+            List<FileUploadResult> results = new ArrayList<>();
+            Path userUploadPath = null;
+            int fileCount = 0;
+
+            while (multipart.nextPart()) {
+                String filename = multipart.filename();
+                if (filename == null) { // 일반 입력 필드 (사용하지 않음)
+                    continue;
+                }
+                filename = baseName(filename);
+                if (filename.isEmpty()) {
+                    continue; // 선택하지 않은 파일 입력
+                }
+                if (++fileCount > maxFiles) {
+                    throw new IllegalArgumentException(tooManyFilesMessage());
+                }
+
+                // 업로드 디렉토리 생성 (첫 파일 파트에서 한 번)
+                if (userUploadPath == null) {
+                    userUploadPath = userDirectory(userEmail);
+                }
+
+                try {
+                    // 확장자 검증 (본문을 읽기 전에 거절)
+                    validateFilename(filename);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(filename + ": " + e.getMessage());
+                }
+                // 내용 형식, 크기는 받는 중에 검사 (실패 시 예외로 요청 중단)
+                FileUploadResult result = storeBody(multipart::readBody, filename, -1, userUploadPath, writeBuffer,
+                        true);
+                if (result != null) {
+                    results.add(result);
+                }
             }
+            return results;
+        } finally {
+            releaseBuffers(readBuffer, writeBuffer);
+            writeFinished();
         }
+    }
 
-        if (uploadedFilenames.isEmpty()) {
-            throw new IOException("업로드된 파일이 없습니다.");
+    /**
+     * 사용자 폴더의 파일 삭제 (같은 내용을 참조하는 파일이 없으면 blob도 삭제)
+     *
+     * @return 파일이 있어서 삭제했으면 true
+     */
+    public boolean deleteFile(String userEmail, String filename) throws IOException {
+        validateStoredFilename(filename);
+        Path directoryPath = userDirectoryPath(userEmail);
+        String owner = directoryPath.getFileName().toString();
+        ReentrantLock lock = fileIndexService.lockFor(owner);
+        lock.lock();
+        try {
+            boolean deleted = blobStore.delete(directoryPath.resolve(filename));
+            fileIndexService.recordDeleted(owner, filename); // 디스크에 없던 파일도 색인에서 제거
+            return deleted;
+        } finally {
+            lock.unlock();
         }
+    }
 
-        return uploadedFilenames; // 저장된 파일명 리스트 반환
+    /**
+     * 저장 중인 업로드가 있는지 (백그라운드 정리 작업이 양보할 때 확인)
+     * - 기록 중인 업로드(다중, 스트리밍, 이어 올리기 조각/완료) + I/O 풀 대기열에서 기다리는 파일
+     */
+    boolean uploadsInProgress() {
+        return activeWrites.get() > 0 || inFlightBytes.availablePermits() < inFlightLimit;
+    }
+
+    // 업로드 기록 시작/종료 (항상 쌍으로, finally에서 종료)
+    void writeStarted() {
+        activeWrites.incrementAndGet();
+    }
+
+    void writeFinished() {
+        activeWrites.decrementAndGet();
+    }
+
+    /**
+     * 사용자 폴더명 (색인, 사용량 조회 키)
+     *
+     * @throws IllegalArgumentException 사용할 수 없는 이메일
+     */
+    public String ownerOf(String userEmail) {
+        return userDirectoryPath(userEmail).getFileName().toString();
+    }
+
+    /**
+     * 사용자 폴더의 저장된 파일 경로 조회 (다운로드용, 폴더를 만들지 않음)
+     *
+     * @return 파일 경로, 없거나 일반 파일이 아니면 null
+     * @throws IllegalArgumentException 파일명 또는 이메일이 잘못된 경우
+     */
+    public Path findUserFile(String userEmail, String filename) {
+        validateStoredFilename(filename);
+        Path file = userDirectoryPath(userEmail).resolve(filename);
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    // 사용자 폴더 안의 파일명만 허용 (경로 이동, 숨김 파일 차단)
+    private static void validateStoredFilename(String filename) {
+        if (filename == null || filename.isEmpty() || filename.contains("/") || filename.contains("\\")
+                || filename.startsWith(".")) {
+            throw new IllegalArgumentException("잘못된 파일명입니다.");
+        }
+    }
+
+    /**
+     * 본문 공급자 (MultipartStream 파트 또는 MultipartFile 입력 스트림)
+     */
+    private interface BodySource {
+        void writeTo(MultipartStream.BodyConsumer sink) throws IOException;
+    }
+
+    // MultipartFile 내용을 재사용 버퍼로 읽어 저장 (빈 파일이면 null)
+    private FileUploadResult storeMultipartFile(MultipartFile file, Path directoryPath) throws IOException {
+        byte[] readBuffer = acquireReadBuffer();
+        ByteBuffer writeBuffer = acquireWriteBuffer();
+        try {
+            return storeBody(sink -> {
+                try (InputStream in = file.getInputStream()) {
+                    int read;
+                    while ((read = in.read(readBuffer)) > 0) {
+                        sink.accept(readBuffer, 0, read);
+                    }
+                }
+            }, baseName(file.getOriginalFilename()), file.getSize(), directoryPath, writeBuffer, false);
+        } finally {
+            releaseBuffers(readBuffer, writeBuffer);
+        }
+    }
+
+    /**
+     * 본문을 blob 임시 파일에 기록하면서 SHA-256 계산 후 BlobStore에 저장
+     * - 압축 대상이면 받으면서 gzip으로 기록 (다 받은 뒤 다시 읽어 압축하지 않음)
+     * - 압축해도 충분히 줄지 않았거나 압축 상한보다 크면 원본으로 풀어서 저장 (드문 경우만 추가 I/O)
+     *
+     * @param size  파일 크기 (모르면 -1, 압축 상한보다 크면 처음부터 원본으로 기록)
+     * @param sniff 내용 형식(앞부분 매직 넘버) 검사 여부 (MultipartFile은 validateFile에서 미리 검사)
+     * @return 저장 결과, 빈 파일이면 null
+     * @throws IllegalArgumentException 크기 초과 또는 내용 형식 불일치 (받는 즉시 중단, 임시 파일은 삭제)
+     */
+    private FileUploadResult storeBody(BodySource source, String filename, long size, Path directoryPath,
+            ByteBuffer writeBuffer, boolean sniff) throws IOException {
+        Path temp = blobStore.createTempFile();
+        boolean compress = compressible(filename, size);
+        ChannelSink sink;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                GZIPOutputStream gzip = compress
+                        ? new GZIPOutputStream(Channels.newOutputStream(channel), bufferSize)
+                        : null) {
+            sink = new ChannelSink(channel, gzip, writeBuffer, maxFileSize, sniff ? filename : null);
+            source.writeTo(sink);
+            sink.finish();
+        } catch (IllegalArgumentException e) {
+            Files.deleteIfExists(temp);
+            throw new IllegalArgumentException(filename + ": " + e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp); // 중단된 업로드는 남기지 않음
+            throw e;
+        }
+        if (sink.written == 0) {
+            Files.delete(temp);
+            return null; // 빈 파일은 저장하지 않음
+        }
+
+        String encoding = null;
+        if (compress) {
+            if (sink.written <= compressionMaxSize.toBytes() && savesEnough(Files.size(temp), sink.written)) {
+                encoding = BlobStore.GZIP;
+            } else {
+                temp = decompress(temp);
+            }
+        }
+
+        byte[] sha256 = sink.digest.digest();
+        return storeIndexed(temp, sha256, sink.written, directoryPath, filename, encoding);
+    }
+
+    /**
+     * 임시 파일을 BlobStore에 저장하고 사용자 색인에 반영 (사용자 잠금 안에서 한도 검사 → 저장 → 색인)
+     * - 같은 이름의 다른 내용이 색인에 있으면 디스크를 확인하지 않고 바로 새 이름 사용
+     * - 이미지면 미리보기 생성을 예약하고 바로 반환
+     * - 중복(DEDUPLICATED)은 같은 사용자가 이미 같은 내용을 가지고 있을 때만 알림
+     *   (다른 사용자의 blob을 재사용해도 SAVED로 응답 → 업로드로 다른 사람의 파일 존재 여부를 알 수 없음)
+     *
+     * @param encoding 임시 파일 압축 형식 (GZIP, 원본이면 null, 같은 내용이 이미 있으면 기존 blob 사용)
+     * @return 저장 결과 (사용량 한도 초과 시 REJECTED, 임시 파일은 삭제)
+     */
+    private FileUploadResult storeIndexed(Path temp, byte[] sha256, long size, Path directoryPath, String filename,
+            String encoding) throws IOException {
+        String owner = directoryPath.getFileName().toString();
+        String hash = HexFormat.of().formatHex(sha256);
+        StoredFile stored;
+        boolean alreadyOwned;
+        ReentrantLock lock = fileIndexService.lockFor(owner);
+        lock.lock();
+        try {
+            if (!fileIndexService.fitsQuota(owner, filename, size, hash)) {
+                Files.deleteIfExists(temp);
+                String message = fileIndexService.quotaExceededMessage();
+                log.warn("파일 저장 거절: {} - {}", filename, message);
+                return new FileUploadResult(filename, null, size, Status.REJECTED, message);
+            }
+            boolean renamed = fileIndexService.hasOtherContent(owner, filename, hash);
+            alreadyOwned = fileIndexService.hasContent(owner, hash);
+            stored = blobStore.store(temp, sha256, encoding, directoryPath,
+                    attempt -> candidateFilename(filename, renamed ? attempt + 1 : attempt));
+            fileIndexService.recordStored(owner, stored.filename(), size, hash, stored.encoding());
+        } finally {
+            lock.unlock();
+        }
+
+        if (ThumbnailService.isImage(stored.filename())) {
+            thumbnailService.generateAsync(hash, directoryPath.resolve(stored.filename()));
+        }
+        if (stored.deduplicated() && alreadyOwned) {
+            log.debug("같은 내용의 파일이 있어 링크로 저장: {} ({} bytes)", stored.filename(), size);
+            return new FileUploadResult(filename, stored.filename(), size, Status.DEDUPLICATED,
+                    "같은 내용의 파일이 있어 공간을 사용하지 않았습니다.", hash);
+        }
+        return new FileUploadResult(filename, stored.filename(), size, Status.SAVED, "저장되었습니다.", hash);
+    }
+
+    // 압축 저장 대상인지 (크기를 모르면 받은 뒤 상한 확인)
+    private boolean compressible(String filename, long size) {
+        return compressionEnabled && !ThumbnailService.isImage(filename)
+                && compressibleExtensions.contains(getFileExtension(filename).toLowerCase())
+                && size <= compressionMaxSize.toBytes();
+    }
+
+    // 줄어드는 양이 min-savings-percent 이상인지
+    private boolean savesEnough(long compressedSize, long size) {
+        return compressedSize <= size * (100 - minSavingsPercent) / 100;
+    }
+
+    // gzip 임시 파일을 원본으로 푼 새 임시 파일로 교체 (gzip 임시 파일은 삭제)
+    private Path decompress(Path compressed) throws IOException {
+        Path temp = null;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(compressed), bufferSize)) {
+            temp = blobStore.createTempFile();
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            return temp;
+        } catch (IOException | RuntimeException e) {
+            if (temp != null) {
+                Files.deleteIfExists(temp);
+            }
+            throw e;
+        } finally {
+            Files.deleteIfExists(compressed);
+        }
+    }
+
+    /**
+     * 다 받은 임시 파일을 SHA-256 계산 후 BlobStore에 저장 (이어 올리기 업로드 완료)
+     *
+     * @param temp      BlobStore.createTempFile()로 만든 임시 파일 (항상 이동 또는 삭제됨)
+     * @param filename  원본 파일명 (검증된 이름)
+     * @param userEmail 사용자 이메일
+     */
+    FileUploadResult storeCompletedFile(Path temp, String filename, String userEmail) throws IOException {
+        writeStarted();
+        try {
+            return storeCompleted(temp, filename, userEmail);
+        } finally {
+            writeFinished();
+        }
+    }
+
+    // 해시를 계산하는 한 번의 읽기에서 압축본도 함께 기록 (조각은 순서 없이 도착하므로 받는 중에는 압축할 수 없음)
+    private FileUploadResult storeCompleted(Path temp, String filename, String userEmail) throws IOException {
+        Path directoryPath;
+        MessageDigest digest;
+        long size;
+        Path compressed = null;
+        byte[] buffer = acquireReadBuffer();
+        try {
+            directoryPath = userDirectory(userEmail);
+            digest = MessageDigest.getInstance("SHA-256");
+            size = Files.size(temp);
+            if (compressible(filename, size)) {
+                compressed = blobStore.createTempFile();
+            }
+            try (InputStream in = Files.newInputStream(temp);
+                    GZIPOutputStream gzip = compressed != null
+                            ? new GZIPOutputStream(Files.newOutputStream(compressed, StandardOpenOption.WRITE),
+                                    buffer.length)
+                            : null) {
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    digest.update(buffer, 0, read);
+                    if (gzip != null) {
+                        gzip.write(buffer, 0, read);
+                    }
+                }
+            }
+        } catch (NoSuchAlgorithmException e) {
+            Files.deleteIfExists(temp);
+            throw new IllegalStateException(e);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            if (compressed != null) {
+                Files.deleteIfExists(compressed);
+            }
+            throw e;
+        } finally {
+            readBuffers.offer(buffer);
+        }
+
+        String encoding = null;
+        if (compressed != null) {
+            if (savesEnough(Files.size(compressed), size)) {
+                Files.delete(temp);
+                temp = compressed;
+                encoding = BlobStore.GZIP;
+            } else {
+                Files.delete(compressed); // 줄어드는 양이 적으면 원본 저장
+            }
+        }
+
+        byte[] sha256 = digest.digest();
+        return storeIndexed(temp, sha256, size, directoryPath, filename, encoding);
+    }
+
+    private String tooManyFilesMessage() {
+        return "최대 " + maxFiles + "개의 파일만 업로드할 수 있습니다.";
+    }
+
+    // 브라우저가 보낸 경로는 제거하고 파일명만 사용
+    static String baseName(String filename) {
+        return filename.substring(Math.max(filename.lastIndexOf('/'), filename.lastIndexOf('\\')) + 1);
+    }
+
+    // 사용자별 업로드 폴더 (없으면 생성)
+    Path userDirectory(String userEmail) throws IOException {
+        Path userUploadPath = userDirectoryPath(userEmail);
+        Files.createDirectories(userUploadPath);
+        return userUploadPath;
+    }
+
+    private Path userDirectoryPath(String userEmail) {
+        return Paths.get(uploadFolder, UserFolders.ownerOf(userEmail)).toAbsolutePath(); // 이메일마다 다른 폴더
+    }
+
+    /**
+     * 본문 조각을 direct 버퍼에 모아 (압축 대상이면 gzip 스트림으로) FileChannel에 기록하면서 SHA-256 계산
+     * (최대 크기를 넘거나 앞부분이 확장자 형식과 다르면 IllegalArgumentException으로 바로 중단)
+     */
+    private static final class ChannelSink implements MultipartStream.BodyConsumer {
+        private final FileChannel channel;
+        private final GZIPOutputStream gzip; // null이 아니면 압축해서 기록 (buffer 사용 안 함)
+        private final ByteBuffer buffer;
+        private final long maxSize;
+        private final MessageDigest digest;
+        private final String sniffFilename; // null이면 내용 형식 검사 안 함
+        private final byte[] head;
+        private long written;
+
+        ChannelSink(FileChannel channel, GZIPOutputStream gzip, ByteBuffer buffer, long maxSize,
+                String sniffFilename) {
+            this.channel = channel;
+            this.gzip = gzip;
+            this.buffer = buffer;
+            this.maxSize = maxSize;
+            this.sniffFilename = sniffFilename;
+            this.head = sniffFilename != null ? new byte[FileSignatures.HEAD_BYTES] : null;
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void accept(byte[] data, int offset, int length) throws IOException {
+            if (written < FileSignatures.HEAD_BYTES && head != null) {
+                int copied = (int) Math.min(length, FileSignatures.HEAD_BYTES - written);
+                System.arraycopy(data, offset, head, (int) written, copied);
+                if (written + copied == FileSignatures.HEAD_BYTES) {
+                    checkHead(FileSignatures.HEAD_BYTES);
+                }
+            }
+            written += length;
+            if (written > maxSize) {
+                throw new IllegalArgumentException("파일 크기가 " + (maxSize / (1024 * 1024)) + "MB를 초과했습니다.");
+            }
+            digest.update(data, offset, length);
+            if (gzip != null) {
+                gzip.write(data, offset, length);
+                return;
+            }
+            while (length > 0) {
+                int chunk = Math.min(length, buffer.remaining());
+                buffer.put(data, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+            }
+        }
+
+        // 본문 끝 (HEAD_BYTES보다 작은 파일은 여기서 형식 검사)
+        void finish() throws IOException {
+            if (head != null && written > 0 && written < FileSignatures.HEAD_BYTES) {
+                checkHead((int) written);
+            }
+            if (gzip != null) {
+                gzip.finish();
+                return;
+            }
+            flush();
+        }
+
+        private void checkHead(int length) {
+            if (!FileSignatures.matches(sniffFilename, head, length)) {
+                throw new IllegalArgumentException(FileSignatures.mismatchMessage(sniffFilename));
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    // 재사용 버퍼 (이어 올리기 업로드도 같은 풀 사용)
+    byte[] acquireReadBuffer() {
+        byte[] buffer = readBuffers.poll();
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    ByteBuffer acquireWriteBuffer() {
+        ByteBuffer buffer = writeBuffers.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    void releaseBuffers(byte[] readBuffer, ByteBuffer writeBuffer) {
+        readBuffers.offer(readBuffer);
+        writeBuffer.clear();
+        writeBuffers.offer(writeBuffer);
     }
 
     /**
-     * 파일 검증 (크기, 확장자)
+     * 파일 검증 (크기, 확장자, 내용 형식)
      * 
      * @param file 검증할 파일
      * @throws IllegalArgumentException 검증 실패 시
+     * @throws IOException              파일 앞부분을 읽지 못한 경우
      */
-    private void validateFile(MultipartFile file) throws IllegalArgumentException {
+    private void validateFile(MultipartFile file) throws IllegalArgumentException, IOException {
         // 파일 크기 검증
         if (file.getSize() > maxFileSize) {
             long maxSizeMB = maxFileSize / (1024 * 1024);
             throw new IllegalArgumentException("파일 크기가 " + maxSizeMB + "MB를 초과했습니다.");
         }
 
+        validateFilename(file.getOriginalFilename());
+
+        // 내용 형식 검증 (앞부분 매직 넘버, 확장자만 바꾼 파일 거절)
+        try (InputStream in = file.getInputStream()) {
+            byte[] head = in.readNBytes(FileSignatures.HEAD_BYTES);
+            validateHead(file.getOriginalFilename(), head, head.length);
+        }
+    }
+
+    /**
+     * 파일 앞부분이 확장자 형식과 맞는지 검증 (이어 올리기 첫 조각)
+     *
+     * @param length head에서 유효한 길이
+     * @throws IllegalArgumentException 형식이 다른 경우
+     */
+    void validateHead(String filename, byte[] head, int length) throws IllegalArgumentException {
+        if (!FileSignatures.matches(filename, head, length)) {
+            throw new IllegalArgumentException(FileSignatures.mismatchMessage(filename));
+        }
+    }
+
+    /**
+     * 파일명 및 확장자 검증
+     *
+     * @param filename 검증할 파일명
+     * @throws IllegalArgumentException 검증 실패 시
+     */
+    void validateFilename(String filename) throws IllegalArgumentException {
         // 파일명 검증
-        String filename = file.getOriginalFilename();
         if (filename == null || filename.isEmpty()) {
             throw new IllegalArgumentException("파일명이 없습니다.");
         }
@@ -156,17 +840,15 @@ public class FileUploadService {
     }
 
     /**
-     * 파일명 중복 처리 - 타임스탐프 또는 UUID 추가로 새로운 이름 생성
+     * 파일명 중복 시 사용할 후보 파일명 - 타임스탐프 또는 UUID 추가로 새로운 이름 생성
+     * (존재 여부는 미리 확인하지 않고 BlobStore가 링크 생성에 실패하면 다음 후보 사용)
      * 
      * @param originalFilename 원본 파일명
-     * @param directoryPath    디렉토리 경로
-     * @return 중복되지 않는 파일명
+     * @param attempt          시도 횟수 (0: 원본, 1: 타임스탐프, 2 이상: 타임스탐프 + UUID)
+     * @return 후보 파일명
      */
-    private String handleDuplicateFilename(String originalFilename, Path directoryPath) {
-        Path filePath = directoryPath.resolve(originalFilename);
-
-        // 파일이 존재하지 않으면 원본 파일명 반환
-        if (!Files.exists(filePath)) {
+    private String candidateFilename(String originalFilename, int attempt) {
+        if (attempt == 0) {
             return originalFilename;
         }
 
@@ -175,23 +857,14 @@ public class FileUploadService {
         String extension = getFileExtension(originalFilename);
 
         // 타임스탐프 기반 새로운 파일명 생성
-        LocalDateTime now = LocalDateTime.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS");
-        String timestamp = now.format(formatter);
-
-        String newFilename = nameWithoutExtension + "_" + timestamp + "." + extension;
-        Path newFilePath = directoryPath.resolve(newFilename);
-
-        // 극히 드문 경우 UUID 추가
-        int attempts = 0;
-        while (Files.exists(newFilePath) && attempts < 10) {
-            String uuid = UUID.randomUUID().toString().substring(0, 8);
-            newFilename = nameWithoutExtension + "_" + timestamp + "_" + uuid + "." + extension;
-            newFilePath = directoryPath.resolve(newFilename);
-            attempts++;
+        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
+        if (attempt == 1) {
+            return nameWithoutExtension + "_" + timestamp + "." + extension;
         }
 
-        return newFilename;
+        // 극히 드문 경우 UUID 추가
+        String uuid = UUID.randomUUID().toString().substring(0, 8);
+        return nameWithoutExtension + "_" + timestamp + "_" + uuid + "." + extension;
     }
 
     /**
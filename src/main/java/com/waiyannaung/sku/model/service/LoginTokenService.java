@@ -0,0 +1,272 @@
+package com.waiyannaung.sku.model.service;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseCookie;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.waiyannaung.sku.model.domain.Member;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 서명된 로그인 토큰 (app.auth.mode=token) - 서버에 세션을 두지 않음
+ * - 토큰: "키ID.내용.서명" (내용은 바이너리 후 Base64URL, 서명은 HMAC-SHA256)
+ * - 키 순환: 첫 번째 키로 서명, 나머지 키는 검증만 (교체 후 토큰 유지 시간이 지나면 제거)
+ * - 만료 시간의 절반이 지나면 새 토큰으로 교체 (세션 유지 시간과 같은 방식의 비활성 만료)
+ * - 로그아웃한 토큰 id는 폐기 목록(DB 공유 + 메모리)에 만료 시각까지만 보관
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.auth.mode", havingValue = "token")
+public class LoginTokenService implements InitializingBean {
+    public static final String COOKIE_NAME = "LOGIN_TOKEN";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int VERSION = 1;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final long REVOCATION_SYNC_OVERLAP_MS = 5000; // 늦게 커밋된 폐기도 다시 읽도록 겹쳐 조회
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlSeconds;
+    private final boolean secureCookie;
+    private final String signingKeyId;
+    private final Map<String, SigningKey> keys = new LinkedHashMap<>(); // 키ID → 키 (시작 후 변경 없음)
+    private final Map<UUID, Long> revoked = new ConcurrentHashMap<>(); // 토큰 id → 폐기 보관 만료 (epoch ms)
+    private volatile long revocationsSyncedAt = 0;
+
+    /**
+     * 로그인 토큰 내용 (userId는 토큰 id로 사용)
+     */
+    public record LoginToken(UUID id, String email, String memberEmail, String userName,
+            long issuedAt, long expiresAt) {
+    }
+
+    // 키별 Mac 재사용 (Mac.getInstance/init 비용을 요청마다 치르지 않도록)
+    private static final class SigningKey {
+        private final SecretKeySpec secret;
+        private final Queue<Mac> pool = new ConcurrentLinkedQueue<>();
+
+        SigningKey(byte[] secret) {
+            this.secret = new SecretKeySpec(secret, ALGORITHM);
+        }
+
+        byte[] sign(byte[] data, int offset, int length) {
+            Mac mac = pool.poll();
+            try {
+                if (mac == null) {
+                    mac = Mac.getInstance(ALGORITHM);
+                    mac.init(secret);
+                }
+                mac.update(data, offset, length);
+                return mac.doFinal(); // doFinal 후 Mac은 초기 상태로 돌아가므로 재사용 가능
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("토큰 서명 실패", e);
+            } finally {
+                if (mac != null) {
+                    pool.offer(mac);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param keySpec "키ID:Base64 비밀키" 목록 (쉼표 구분, 첫 번째가 서명 키), 비어 있으면 임시 키 생성
+     */
+    public LoginTokenService(JdbcTemplate jdbcTemplate,
+            @Value("${app.auth.token.keys:}") String keySpec,
+            @Value("${server.servlet.session.timeout:30m}") Duration ttl,
+            @Value("${server.servlet.session.cookie.secure:false}") boolean secureCookie) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlSeconds = ttl.toSeconds();
+        this.secureCookie = secureCookie;
+        for (String entry : keySpec.split(",")) {
+            int colon = entry.indexOf(':');
+            if (colon > 0) {
+                keys.put(entry.substring(0, colon).trim(),
+                        new SigningKey(Base64.getDecoder().decode(entry.substring(colon + 1).trim())));
+            }
+        }
+        if (keys.isEmpty()) {
+            byte[] secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+            keys.put("tmp", new SigningKey(secret));
+            log.warn("app.auth.token.keys 미설정 - 임시 키 사용 (재시작 시 로그인 해제, 여러 서버에서 사용 불가)");
+        }
+        this.signingKeyId = keys.keySet().iterator().next();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        jdbcTemplate.execute("create table if not exists login_token_revocation ("
+                + " token_id varchar(36) not null primary key,"
+                + " revoked_at bigint not null,"
+                + " expires_at bigint not null,"
+                + " index login_token_revocation_revoked_idx (revoked_at))");
+        syncRevocations();
+    }
+
+    /**
+     * 로그인 성공 시 토큰 쿠키 생성
+     */
+    public ResponseCookie issue(String email, Member member) {
+        long now = System.currentTimeMillis() / 1000;
+        return cookie(new LoginToken(UUID.randomUUID(), email, member.getEmail(), member.getName(),
+                now, now + ttlSeconds));
+    }
+
+    /**
+     * 만료 시간의 절반이 지난 토큰이면 같은 id로 다시 발급 (아니면 null)
+     */
+    public ResponseCookie renewIfStale(LoginToken token) {
+        long now = System.currentTimeMillis() / 1000;
+        if (now - token.issuedAt() < ttlSeconds / 2) {
+            return null;
+        }
+        return cookie(new LoginToken(token.id(), token.email(), token.memberEmail(), token.userName(),
+                now, now + ttlSeconds));
+    }
+
+    public ResponseCookie expiredCookie() { // 로그아웃/잘못된 토큰 삭제용
+        return ResponseCookie.from(COOKIE_NAME, "").path("/").httpOnly(true).secure(secureCookie)
+                .sameSite("Lax").maxAge(0).build();
+    }
+
+    /**
+     * 토큰 검증 - 서명, 만료, 폐기 여부 확인
+     *
+     * @return 유효하면 토큰 내용, 아니면 null
+     */
+    public LoginToken verify(String value) {
+        int first = value.indexOf('.');
+        int second = value.indexOf('.', first + 1);
+        if (first <= 0 || second < 0 || value.indexOf('.', second + 1) >= 0) {
+            return null;
+        }
+        SigningKey key = keys.get(value.substring(0, first));
+        if (key == null) {
+            return null; // 제거된 키로 서명된 토큰
+        }
+        try {
+            // 문자열 한 번만 바이트로 바꾸고, 서명/내용은 그 안의 구간을 그대로 디코딩
+            byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+            ByteBuffer signature = DECODER.decode(ByteBuffer.wrap(bytes, second + 1, bytes.length - second - 1));
+            if (!MessageDigest.isEqual(key.sign(bytes, 0, second), signature.array())) {
+                return null;
+            }
+            LoginToken token = decode(DECODER.decode(ByteBuffer.wrap(bytes, first + 1, second - first - 1)));
+            if (token == null || token.expiresAt() <= System.currentTimeMillis() / 1000
+                    || revoked.containsKey(token.id())) {
+                return null;
+            }
+            return token;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | BufferUnderflowException e) {
+            return null; // Base64/내용 형식 오류
+        }
+    }
+
+    /**
+     * 로그아웃 - 같은 id로 발급된 토큰은 최대 유지 시간 동안 모두 거부
+     */
+    public void revoke(UUID tokenId) {
+        long now = System.currentTimeMillis();
+        long keepUntil = now + ttlSeconds * 1000;
+        revoked.put(tokenId, keepUntil);
+        jdbcTemplate.update("insert into login_token_revocation (token_id, revoked_at, expires_at)"
+                + " select ?, ?, ? from dual where not exists"
+                + " (select 1 from login_token_revocation where token_id = ?)",
+                tokenId.toString(), now, keepUntil, tokenId.toString());
+    }
+
+    /**
+     * 다른 서버에서 폐기한 토큰 반영, 만료된 폐기 항목 정리
+     */
+    @Scheduled(fixedDelayString = "${app.auth.token.revocation-sync-ms:5000}")
+    public void syncRevocations() {
+        long now = System.currentTimeMillis();
+        long since = Math.max(0, revocationsSyncedAt - REVOCATION_SYNC_OVERLAP_MS);
+        jdbcTemplate.query("select token_id, expires_at from login_token_revocation"
+                + " where revoked_at >= ? and expires_at > ?",
+                rs -> {
+                    revoked.put(UUID.fromString(rs.getString("token_id")), rs.getLong("expires_at"));
+                }, since, now); // 마지막 동기화 이후 폐기된 토큰만 조회
+        revocationsSyncedAt = now;
+        revoked.values().removeIf(keepUntil -> keepUntil <= now);
+        jdbcTemplate.update("delete from login_token_revocation where expires_at <= ?", now);
+    }
+
+    private ResponseCookie cookie(LoginToken token) {
+        String content = signingKeyId + "." + ENCODER.encodeToString(encode(token));
+        byte[] signed = content.getBytes(StandardCharsets.US_ASCII);
+        String value = content + "." + ENCODER.encodeToString(keys.get(signingKeyId).sign(signed, 0, signed.length));
+        return ResponseCookie.from(COOKIE_NAME, value).path("/").httpOnly(true).secure(secureCookie)
+                .sameSite("Lax").maxAge(ttlSeconds).build();
+    }
+
+    // [버전][id 16][발급 4][만료 4][email][memberEmail 또는 같음 표시][userName] - 초 단위 시각은 부호 없는 int
+    private static byte[] encode(LoginToken token) {
+        byte[] email = token.email().getBytes(StandardCharsets.UTF_8);
+        boolean sameEmail = token.email().equals(token.memberEmail());
+        byte[] memberEmail = sameEmail ? new byte[0] : token.memberEmail().getBytes(StandardCharsets.UTF_8);
+        byte[] userName = token.userName().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 16 + 8 + 1 + 6 + email.length + memberEmail.length + userName.length);
+        buffer.put((byte) VERSION)
+                .putLong(token.id().getMostSignificantBits())
+                .putLong(token.id().getLeastSignificantBits())
+                .putInt((int) token.issuedAt())
+                .putInt((int) token.expiresAt())
+                .put((byte) (sameEmail ? 1 : 0));
+        putString(buffer, email);
+        putString(buffer, memberEmail);
+        putString(buffer, userName);
+        return buffer.array();
+    }
+
+    private static LoginToken decode(ByteBuffer buffer) {
+        if (buffer.get() != VERSION) {
+            return null;
+        }
+        UUID id = new UUID(buffer.getLong(), buffer.getLong());
+        long issuedAt = Integer.toUnsignedLong(buffer.getInt());
+        long expiresAt = Integer.toUnsignedLong(buffer.getInt());
+        boolean sameEmail = buffer.get() == 1;
+        String email = getString(buffer);
+        String memberEmail = getString(buffer);
+        String userName = getString(buffer);
+        return new LoginToken(id, email, sameEmail ? email : memberEmail, userName, issuedAt, expiresAt);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] utf8) {
+        buffer.putShort((short) utf8.length);
+        buffer.put(utf8);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
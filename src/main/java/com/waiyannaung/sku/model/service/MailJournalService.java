@@ -0,0 +1,584 @@
+package com.waiyannaung.sku.model.service;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.CRC32C;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 메일 전송(/upload-email) 내용 저장소 - 추가 전용 세그먼트 로그
+ * - 기록 형식: [본문 길이 4][CRC32C 4][번호 8][시각 8][이메일][제목][메시지] (문자열은 길이 4 + UTF-8)
+ * - 기록은 전용 스레드 하나가 대기열에서 모아 한 번에 쓰고 fsync 한 번으로 확정 (group commit)
+ *   → 요청 스레드는 자기 기록이 디스크에 확정될 때까지만 대기, 같은 이메일의 동시 요청도 순서대로 모두 보존
+ * - 세그먼트는 크기/기간이 지나면 새 파일로 교체, 오래된 세그먼트는 보존 기준을 넘는 기록을 빼고 다시 씀
+ * - 이메일별 색인(세그먼트, 위치)은 메모리에 두고 시작 시 세그먼트를 읽어 재구성 (끝이 잘린 기록은 잘라냄)
+ */
+@Slf4j
+@Service
+public class MailJournalService {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = 8; // 길이 + CRC
+    private static final int SEQUENCE_OFFSET = HEADER_BYTES; // 번호, 시각은 기록 스레드가 채움
+
+    /**
+     * 저장된 메일 전송 내용
+     */
+    public record MailRecord(long sequence, Instant submittedAt, String email, String subject, String message) {
+    }
+
+    // 색인 항목 (보존 기준 판단에 필요한 번호, 시각 포함)
+    private record Location(long segment, long position, long sequence, long timestamp) {
+    }
+
+    // 기록 대기 중인 항목 (완료 시 번호 전달)
+    private record Pending(String key, ByteBuffer record, CompletableFuture<Long> done) {
+    }
+
+    private static final class Segment {
+        private final long id; // 첫 기록 번호
+        private final Path path;
+        private final FileChannel channel;
+        private final long createdAt;
+        private volatile long size;
+        private int records;
+
+        Segment(long id, Path path, FileChannel channel, long size, long createdAt) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.size = size;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Path directory;
+
+    @Value("${app.mail.journal.segment-size:16MB}")
+    private DataSize segmentSize;
+    @Value("${app.mail.journal.segment-max-age-hours:24}")
+    private long segmentMaxAgeHours;
+    @Value("${app.mail.journal.queue-capacity:10000}")
+    private int queueCapacity;
+    @Value("${app.mail.journal.max-batch:512}") // 한 번의 fsync로 확정하는 최대 기록 수
+    private int maxBatch;
+    @Value("${app.mail.journal.max-record-size:256KB}")
+    private DataSize maxRecordSize;
+    @Value("${app.mail.journal.commit-timeout-ms:5000}")
+    private long commitTimeoutMillis;
+    @Value("${app.mail.journal.retain-per-email:20}") // 이메일별 최근 기록 수 (0이면 모두 보존)
+    private int retainPerEmail;
+    @Value("${app.mail.journal.retention-days:0}") // 이보다 오래된 기록 삭제 (0이면 기간 제한 없음)
+    private long retentionDays;
+    @Value("${app.mail.journal.compact-interval-ms:600000}")
+    private long compactIntervalMillis;
+
+    private BlockingQueue<Pending> queue;
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Map<String, List<Location>> index = new ConcurrentHashMap<>(); // 값은 기록 스레드가 통째로 교체
+    private Segment active; // 기록 스레드만 사용
+    private long nextSequence = 1;
+    private long lastCompaction = System.currentTimeMillis();
+    private Thread writer;
+    private volatile boolean running = true;
+    private DistributionSummary batchSizes;
+    private Timer syncTimer;
+
+    public MailJournalService(MeterRegistry meterRegistry,
+            @Value("${app.mail.journal.dir:./data/mail-journal}") String directory) {
+        this.meterRegistry = meterRegistry;
+        this.directory = Paths.get(directory).toAbsolutePath();
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(directory);
+        recover();
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        batchSizes = DistributionSummary.builder("mail.journal.batch.size").register(meterRegistry);
+        syncTimer = Timer.builder("mail.journal.sync").register(meterRegistry);
+        Gauge.builder("mail.journal.queue", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("mail.journal.segments", segments, Map::size).register(meterRegistry);
+        writer = new Thread(this::writeLoop, "mail-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("메일 기록 저장소: 세그먼트 {}개, 이메일 {}개, 다음 번호 {}", segments.size(), index.size(), nextSequence);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false; // 대기열에 남은 기록은 모두 쓰고 종료
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        for (Segment segment : segments.values()) {
+            try {
+                segment.channel.close();
+            } catch (IOException e) {
+                log.debug("세그먼트 닫기 실패: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 메일 전송 내용 기록 (디스크에 확정될 때까지 대기)
+     *
+     * @return 기록 번호 (전체 순서)
+     * @throws IllegalArgumentException 내용이 app.mail.journal.max-record-size를 넘는 경우
+     * @throws ResponseStatusException  대기열이 가득 찬 경우 (503)
+     * @throws IOException              기록 실패 또는 시간 초과 (시간 초과 시 기록은 대기열에서 빼므로 다시 보내도 중복되지 않음)
+     */
+    public long append(String email, String subject, String message) throws IOException {
+        byte[] emailBytes = email.getBytes(StandardCharsets.UTF_8);
+        byte[] subjectBytes = subject.getBytes(StandardCharsets.UTF_8);
+        byte[] messageBytes = message.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = 16 + 12 + emailBytes.length + subjectBytes.length + messageBytes.length;
+        if (bodyLength > maxRecordSize.toBytes()) {
+            throw new IllegalArgumentException("메일 내용이 너무 깁니다. (최대 " + maxRecordSize.toKilobytes() + "KB)");
+        }
+        // 인코딩은 요청 스레드에서, 번호/시각/CRC만 기록 스레드에서 채움
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + bodyLength)
+                .putInt(bodyLength).putInt(0).putLong(0).putLong(0)
+                .putInt(emailBytes.length).put(emailBytes)
+                .putInt(subjectBytes.length).put(subjectBytes)
+                .putInt(messageBytes.length).put(messageBytes)
+                .flip();
+        Pending pending = new Pending(keyOf(email), record, new CompletableFuture<>());
+        try {
+            if (!running || !queue.offer(pending, commitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "요청이 많습니다. 잠시 후 다시 시도해주세요.");
+            }
+            return pending.done().get(commitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("메일 기록이 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("메일 기록 실패", e.getCause());
+        } catch (TimeoutException e) {
+            if (queue.remove(pending)) { // 아직 기록 스레드가 가져가지 않음 → 기록되지 않음
+                throw new IOException("메일 기록 시간이 초과되었습니다.", e);
+            }
+            return awaitTaken(pending); // 이미 쓰는 중이면 실패로 응답하지 않고 확정까지 대기
+        }
+    }
+
+    // 기록 스레드가 가져간 기록은 반드시 완료 또는 실패로 끝남
+    private long awaitTaken(Pending pending) throws IOException {
+        try {
+            return pending.done().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("메일 기록이 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("메일 기록 실패", e.getCause());
+        }
+    }
+
+    /**
+     * 이메일별 기록 조회 (최신 순)
+     *
+     * @param limit 최대 개수
+     */
+    public List<MailRecord> findByEmail(String email, int limit) throws IOException {
+        String key = keyOf(email);
+        for (int attempt = 0; attempt < 3; attempt++) { // 읽는 중 세그먼트가 다시 쓰이면 새 색인으로 재시도
+            List<Location> locations = index.getOrDefault(key, List.of());
+            List<MailRecord> records = new ArrayList<>(Math.min(limit, locations.size()));
+            boolean stale = false;
+            for (int i = locations.size() - 1; i >= 0 && records.size() < limit; i--) {
+                Location location = locations.get(i);
+                Segment segment = segments.get(location.segment());
+                MailRecord record = segment != null ? read(segment, location) : null;
+                if (record == null) {
+                    stale = true;
+                    break;
+                }
+                records.add(record);
+            }
+            if (!stale) {
+                return records;
+            }
+        }
+        throw new IOException("메일 기록을 읽을 수 없습니다: " + email);
+    }
+
+    // 위치 지정 읽기 (번호가 다르거나 채널이 닫혔으면 null → 색인이 바뀐 것)
+    private MailRecord read(Segment segment, Location location) throws IOException {
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(segment.channel, header, location.position());
+            int length = header.getInt(0);
+            if (length < 28 || length > maxRecordSize.toBytes()) {
+                return null;
+            }
+            ByteBuffer body = ByteBuffer.allocate(length);
+            readFully(segment.channel, body, location.position() + HEADER_BYTES);
+            if (crcOf(body) != header.getInt(4) || body.getLong(0) != location.sequence()) {
+                return null;
+            }
+            return decode(body);
+        } catch (ClosedChannelException | EOFException e) {
+            return null;
+        }
+    }
+
+    // ===== 기록 스레드 =====
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatch - 1); // 기다리는 동안 쌓인 기록을 함께 확정
+                    writeBatch(batch);
+                    batch.clear();
+                }
+                maintain();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (IOException | RuntimeException e) {
+                log.error("메일 기록 실패: {}", e.getMessage(), e);
+                batch.forEach(pending -> pending.done().completeExceptionally(e));
+                batch.clear();
+            }
+        }
+        // 종료 후 들어온 기록은 실패 처리
+        queue.forEach(pending -> pending.done().completeExceptionally(new IOException("저장소가 종료되었습니다.")));
+    }
+
+    private void writeBatch(List<Pending> batch) throws IOException {
+        long batchBytes = 0;
+        for (Pending pending : batch) {
+            batchBytes += pending.record().remaining();
+        }
+        if (active.size > 0 && active.size + batchBytes > segmentSize.toBytes()) {
+            rotate();
+        }
+
+        long start = active.size;
+        long now = System.currentTimeMillis();
+        ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+        List<Location> locations = new ArrayList<>(batch.size());
+        long position = start;
+        for (int i = 0; i < batch.size(); i++) {
+            ByteBuffer record = batch.get(i).record();
+            long sequence = nextSequence++;
+            record.putLong(SEQUENCE_OFFSET, sequence).putLong(SEQUENCE_OFFSET + 8, now);
+            record.putInt(4, crcOf(record.slice(HEADER_BYTES, record.remaining() - HEADER_BYTES)));
+            buffers[i] = record;
+            locations.add(new Location(active.id, position, sequence, now));
+            position += record.remaining();
+        }
+
+        try {
+            long remaining = position - start;
+            active.channel.position(start);
+            while (remaining > 0) { // 모은 기록을 한 번에 (gathering write)
+                remaining -= active.channel.write(buffers);
+            }
+            Timer.Sample sample = Timer.start();
+            active.channel.force(false); // 묶음당 fsync 한 번
+            sample.stop(syncTimer);
+        } catch (IOException e) {
+            active.channel.truncate(start); // 일부만 쓰인 기록 제거
+            nextSequence -= batch.size();
+            throw e;
+        }
+
+        active.size = position;
+        active.records += batch.size();
+        batchSizes.record(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            addToIndex(batch.get(i).key(), locations.get(i));
+            batch.get(i).done().complete(locations.get(i).sequence());
+        }
+    }
+
+    private void addToIndex(String key, Location location) {
+        List<Location> current = index.getOrDefault(key, List.of());
+        List<Location> updated = new ArrayList<>(current.size() + 1);
+        updated.addAll(current);
+        updated.add(location);
+        index.put(key, List.copyOf(updated)); // 읽는 쪽은 잠금 없이 이전 또는 새 목록을 봄
+    }
+
+    // 기간이 지난 세그먼트 교체, 주기적으로 정리
+    private void maintain() throws IOException {
+        long now = System.currentTimeMillis();
+        if (active.size > 0 && now - active.createdAt > TimeUnit.HOURS.toMillis(segmentMaxAgeHours)) {
+            rotate();
+        }
+        if (now - lastCompaction >= compactIntervalMillis) {
+            lastCompaction = now;
+            compact();
+        }
+    }
+
+    private void rotate() throws IOException {
+        active.channel.force(true);
+        active = openSegment(nextSequence);
+        log.debug("메일 기록 세그먼트 교체: {}", active.path.getFileName());
+    }
+
+    /**
+     * 보존 기준(이메일별 최근 N개, 보존 기간)을 넘는 기록이 절반 이상인 세그먼트를 다시 씀
+     * (남은 기록이 없으면 삭제, 기록 중인 세그먼트는 제외)
+     */
+    private void compact() throws IOException {
+        long cutoff = retentionDays > 0 ? System.currentTimeMillis() - Duration.ofDays(retentionDays).toMillis()
+                : Long.MIN_VALUE;
+        Map<Long, List<Location>> liveBySegment = new HashMap<>();
+        for (List<Location> locations : index.values()) {
+            int keepFrom = retainPerEmail > 0 ? Math.max(0, locations.size() - retainPerEmail) : 0;
+            for (int i = keepFrom; i < locations.size(); i++) {
+                Location location = locations.get(i);
+                if (location.timestamp() >= cutoff) {
+                    liveBySegment.computeIfAbsent(location.segment(), k -> new ArrayList<>()).add(location);
+                }
+            }
+        }
+
+        Map<Long, Map<Long, Location>> moved = new HashMap<>(); // 세그먼트 → (이전 위치 → 새 위치)
+        for (Segment segment : List.copyOf(segments.values())) {
+            if (segment == active) {
+                continue;
+            }
+            List<Location> live = liveBySegment.getOrDefault(segment.id, List.of());
+            if (live.size() * 2 > segment.records) {
+                continue;
+            }
+            moved.put(segment.id, rewrite(segment, live));
+        }
+        if (moved.isEmpty()) {
+            return;
+        }
+
+        // 색인 갱신: 다시 쓴 세그먼트의 기록은 새 위치로, 빠진 기록은 제거
+        int removed = 0;
+        for (Map.Entry<String, List<Location>> entry : index.entrySet()) {
+            List<Location> updated = new ArrayList<>(entry.getValue().size());
+            for (Location location : entry.getValue()) {
+                Map<Long, Location> relocated = moved.get(location.segment());
+                Location current = relocated == null ? location : relocated.get(location.position());
+                if (current != null) {
+                    updated.add(current);
+                } else {
+                    removed++;
+                }
+            }
+            if (updated.isEmpty()) {
+                index.remove(entry.getKey());
+            } else {
+                index.put(entry.getKey(), List.copyOf(updated));
+            }
+        }
+        log.info("메일 기록 정리: 세그먼트 {}개 다시 씀, 기록 {}건 삭제", moved.size(), removed);
+    }
+
+    // 남길 기록만 새 파일에 복사한 뒤 교체 (남길 기록이 없으면 세그먼트 삭제)
+    private Map<Long, Location> rewrite(Segment segment, List<Location> live) throws IOException {
+        if (live.isEmpty()) {
+            segments.remove(segment.id);
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+            return Map.of();
+        }
+        live.sort((a, b) -> Long.compare(a.position(), b.position()));
+        Path temp = segment.path.resolveSibling(segment.path.getFileName() + ".compact");
+        Map<Long, Location> relocated = new HashMap<>();
+        long position = 0;
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Location location : live) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                readFully(segment.channel, header, location.position());
+                ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + header.getInt(0));
+                readFully(segment.channel, record, location.position());
+                record.flip();
+                while (record.hasRemaining()) {
+                    out.write(record);
+                }
+                relocated.put(location.position(),
+                        new Location(segment.id, position, location.sequence(), location.timestamp()));
+                position += record.limit();
+            }
+            out.force(true);
+        }
+        Files.move(temp, segment.path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        Segment replaced = new Segment(segment.id, segment.path,
+                FileChannel.open(segment.path, StandardOpenOption.READ), position, segment.createdAt);
+        replaced.records = live.size();
+        segments.put(segment.id, replaced);
+        segment.channel.close(); // 이전 채널로 읽던 요청은 재시도
+        return relocated;
+    }
+
+    // ===== 시작 시 복구 =====
+
+    // 세그먼트를 순서대로 읽어 색인 재구성 (마지막 세그먼트 끝의 잘린 기록은 잘라냄)
+    private void recover() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*")) {
+            for (Path path : files) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(".compact")) {
+                    Files.delete(path); // 정리 중 중단된 임시 파일
+                } else if (name.endsWith(SEGMENT_SUFFIX)) {
+                    paths.add(path);
+                }
+            }
+        }
+        paths.sort(null); // 번호가 0으로 채워져 있어 이름 순 = 번호 순
+
+        for (int i = 0; i < paths.size(); i++) {
+            Path path = paths.get(i);
+            boolean last = i == paths.size() - 1;
+            long id = Long.parseLong(path.getFileName().toString()
+                    .substring(SEGMENT_PREFIX.length(), path.getFileName().toString().length() - SEGMENT_SUFFIX.length()));
+            FileChannel channel = last
+                    ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                    : FileChannel.open(path, StandardOpenOption.READ);
+            Segment segment = new Segment(id, path, channel, 0, Files.getLastModifiedTime(path).toMillis());
+            long valid = scan(segment);
+            if (valid < channel.size()) {
+                log.warn("메일 기록 세그먼트 {}: {} bytes 이후 손상된 기록 무시", path.getFileName(), valid);
+                if (last) {
+                    channel.truncate(valid); // 기록 중 중단된 마지막 묶음
+                }
+            }
+            segment.size = valid;
+            segments.put(id, segment);
+            if (last) {
+                active = segment;
+            }
+        }
+        if (active == null) {
+            active = openSegment(nextSequence);
+        }
+    }
+
+    // 세그먼트의 올바른 기록을 색인에 추가하고 마지막 올바른 위치 반환
+    private long scan(Segment segment) throws IOException {
+        long position = 0;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(segment.channel.position(0)), 64 * 1024));
+        while (true) {
+            int length;
+            int crc;
+            byte[] body;
+            try {
+                length = in.readInt();
+                crc = in.readInt();
+                if (length < 28 || length > maxRecordSize.toBytes()) {
+                    return position;
+                }
+                body = new byte[length];
+                in.readFully(body);
+            } catch (EOFException e) {
+                return position;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(body);
+            if (crcOf(buffer) != crc) {
+                return position;
+            }
+            long sequence = buffer.getLong(0);
+            long timestamp = buffer.getLong(8);
+            String email = decodeString(buffer.position(16));
+            addToIndex(keyOf(email), new Location(segment.id, position, sequence, timestamp));
+            segment.records++;
+            nextSequence = Math.max(nextSequence, sequence + 1);
+            position += HEADER_BYTES + length;
+        }
+    }
+
+    private Segment openSegment(long id) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        Segment segment = new Segment(id, path, channel, channel.size(), System.currentTimeMillis());
+        segments.put(id, segment);
+        return segment;
+    }
+
+    // ===== 인코딩 =====
+
+    private static MailRecord decode(ByteBuffer body) {
+        long sequence = body.getLong(0);
+        long timestamp = body.getLong(8);
+        body.position(16);
+        String email = decodeString(body);
+        String subject = decodeString(body);
+        String message = decodeString(body);
+        return new MailRecord(sequence, Instant.ofEpochMilli(timestamp), email, subject, message);
+    }
+
+    private static String decodeString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static int crcOf(ByteBuffer body) {
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate().clear());
+        return (int) crc.getValue();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    private static String keyOf(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
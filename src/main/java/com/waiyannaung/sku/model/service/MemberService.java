@@ -1,43 +1,148 @@
 package com.waiyannaung.sku.model.service;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.waiyannaung.sku.model.domain.Member;
 import com.waiyannaung.sku.model.repository.MemberRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @Transactional // 트랜잭션 처리(클래스 내 모든 메소드 대상)
 @RequiredArgsConstructor
 public class MemberService {
+    private static final long EMAIL_FILTER_ID_OVERLAP = 100; // 늦게 커밋된 낮은 id도 다시 읽도록 겹쳐 조회
     private final MemberRepository memberRepository;
-    private final PasswordEncoder passwordEncoder; // 스프링 버전 5 이후, 단방향 해싱 알고리즘 지원
+    private final PasswordHashingService passwordHashingService; // BCrypt 전용 실행기 (스프링 PasswordEncoder 사용)
+    private final EmailBloomFilter emailBloomFilter; // 가입 이메일 블룸 필터
+    private final MeterRegistry meterRegistry; // 캐시 지표 등록 (actuator)
+
+    @Value("${app.member.cache.max-size:10000}") // 회원 캐시 최대 개수
+    private long maxCachedMembers;
+    @Value("${app.member.cache.ttl-seconds:300}") // 회원 캐시 유지 시간
+    private long memberCacheTtlSeconds;
+    private Cache<String, Member> memberCache; // 소문자 이메일 → 회원 (없는 회원은 캐시하지 않음)
+    private final Caches.Generations memberGenerations = new Caches.Generations(); // 로드 중 무효화 감지
+    private volatile long emailFilterSyncedId = 0; // 블룸 필터에 반영된 최대 회원 id
+    private volatile boolean emailFilterReady = false; // 초기 적재 완료 여부 (그 전에는 필터를 거치지 않음)
+
+    @PostConstruct
+    void initCache() {
+        memberCache = Caffeine.newBuilder()
+                .maximumSize(maxCachedMembers)
+                .expireAfterWrite(memberCacheTtlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, memberCache, "members");
+    }
+
+    /**
+     * 시작 시 가입된 이메일로 블룸 필터 초기화
+     * 요청은 이미 받고 있으므로 끝날 때까지는 필터 없이 캐시/DB로 조회 (빈 필터로 가입 회원을 거절하지 않도록)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void seedEmailFilter() {
+        long maxId = memberRepository.findMaxId();
+        try (Stream<String> emails = memberRepository.streamAllEmails()) {
+            emails.forEach(emailBloomFilter::put);
+        }
+        emailFilterSyncedId = maxId;
+        emailFilterReady = true;
+    }
+
+    /**
+     * 다른 서버에서 가입한 회원 이메일을 블룸 필터에 주기적으로 반영 (여러 서버 운영 시)
+     * 반영 전까지는 다른 서버에서 막 가입한 이메일로 로그인할 수 없음 (최대 갱신 주기만큼)
+     * id를 겹쳐 읽어도 더 늦게 커밋된 가입은 놓칠 수 있으므로 rebuildEmailFilter가 주기적으로 전체 재구성
+     */
+    @Scheduled(fixedDelayString = "${app.member.bloom.refresh-interval-ms:5000}")
+    @Transactional(readOnly = true)
+    public void refreshEmailFilter() {
+        if (!emailFilterReady) {
+            return; // 초기 적재가 끝나지 않음 (적재 후 이어서 갱신)
+        }
+        long maxId = memberRepository.findMaxId();
+        memberRepository.findEmailsAfter(Math.max(0, emailFilterSyncedId - EMAIL_FILTER_ID_OVERLAP))
+                .forEach(emailBloomFilter::put);
+        emailFilterSyncedId = maxId;
+    }
+
+    /**
+     * 전체 가입 이메일로 블룸 필터를 다시 만들어 교체 (증분 갱신이 놓친 가입 반영, 탈퇴 회원 제거)
+     */
+    @Scheduled(initialDelayString = "${app.member.bloom.rebuild-interval-ms:600000}",
+            fixedDelayString = "${app.member.bloom.rebuild-interval-ms:600000}")
+    @Transactional(readOnly = true)
+    public void rebuildEmailFilter() {
+        if (!emailFilterReady) {
+            return;
+        }
+        try (Stream<String> emails = memberRepository.streamAllEmails()) {
+            emailBloomFilter.rebuild(emails);
+        }
+    }
+
+    private Member findByEmail(String email) { // 블룸 필터 → 캐시 → DB 순서로 조회
+        if (email == null || (emailFilterReady && !emailBloomFilter.mightContain(email))) {
+            return null; // 가입되지 않은 이메일 (DB 조회 생략)
+        }
+        return Caches.getOrLoad(memberCache, memberGenerations, email.toLowerCase(Locale.ROOT), () -> memberRepository.findByEmail(email));
+    }
 
     private void validateDuplicateMember(AddMemberRequest request) {
-        Member findMember = memberRepository.findByEmail(request.getEmail()); // 이메일 존재 유무
+        Member findMember = findByEmail(request.getEmail()); // 이메일 존재 유무
         if (findMember != null) {
             throw new IllegalStateException("이미 가입된 회원입니다."); // 예외처리
         }
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // BCrypt 대기 중 DB 커넥션을 잡지 않도록
     public Member saveMember(AddMemberRequest request) {
         validateDuplicateMember(request); // 이메일 체크
-        String encodedPassword = passwordEncoder.encode(request.getPassword());
+        String encodedPassword = passwordHashingService.encode(request.getPassword());
         request.setPassword(encodedPassword); // 암호화된 비밀번호 설정
-        return memberRepository.save(request.toEntity());
+        Member member = memberRepository.save(request.toEntity());
+        emailBloomFilter.put(member.getEmail()); // 이후 조회에서 DB 확인 대상이 되도록
+        Caches.invalidate(memberCache, memberGenerations, member.getEmail().toLowerCase(Locale.ROOT));
+        return member;
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // BCrypt 대기 중 DB 커넥션을 잡지 않도록
     public Member loginCheck(String email, String rawPassword) {
-        Member member = memberRepository.findByEmail(email); // 이메일 조회
+        Member member = findByEmail(email); // 이메일 조회
         if (member == null) {
             throw new IllegalArgumentException("등록되지 않은 이메일입니다.");
         }
-        if (!passwordEncoder.matches(rawPassword, member.getPassword())) { // 비밀번호 확인
+        if (!passwordHashingService.matches(rawPassword, member.getPassword())) { // 비밀번호 확인
             throw new IllegalArgumentException("비밀번호가 일치하지 않습니다.");
         }
+        if (passwordHashingService.upgradeEncoding(member.getPassword())) { // cost가 올라갔으면 새 해시로 교체
+            String encodedPassword = passwordHashingService.encode(rawPassword);
+            // 캐시의 회원 객체는 다른 요청과 공유하므로 바꾸지 않고 DB에서 새로 읽은 객체를 갱신
+            Member stored = memberRepository.findByEmail(member.getEmail());
+            if (stored == null) {
+                return member; // 그 사이 탈퇴
+            }
+            stored.updatePassword(encodedPassword);
+            member = memberRepository.save(stored);
+            Caches.invalidate(memberCache, memberGenerations, member.getEmail().toLowerCase(Locale.ROOT));
+        }
         return member; // 인증 성공 시 회원 객체 반환
     }
 }
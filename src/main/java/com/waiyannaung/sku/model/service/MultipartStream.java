@@ -0,0 +1,281 @@
+package com.waiyannaung.sku.model.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * multipart/form-data 요청 본문을 순서대로 읽는 파서 (임시 파일 없이 고정 크기 버퍼 하나만 사용)
+ * - nextPart()로 다음 파트 헤더를 읽고, readBody()로 본문을 조각 단위로 전달
+ * - 본문을 읽지 않고 nextPart()를 호출하면 남은 본문은 버림
+ * - 전체 읽은 바이트가 maxRequestSize를 넘으면 즉시 중단
+ */
+final class MultipartStream {
+    private static final int MAX_HEADER_BYTES = 8 * 1024; // 파트 헤더 최대 크기
+    private static final byte[] HEADER_END = { '\r', '\n', '\r', '\n' };
+
+    /**
+     * 본문 조각 처리 (buffer는 재사용되므로 호출 안에서만 사용)
+     */
+    interface BodyConsumer {
+        void accept(byte[] buffer, int offset, int length) throws IOException;
+    }
+
+    private final InputStream in;
+    private final byte[] delimiter; // "\r\n--" + boundary
+    private final byte[] buffer;
+    private final long maxRequestSize;
+    private int start; // 아직 처리하지 않은 데이터 시작
+    private int end; // 버퍼에 읽은 데이터 끝
+    private long totalRead;
+    private boolean bodyPending; // 현재 파트 본문을 아직 다 읽지 않음
+    private boolean finished;
+
+    private String name;
+    private String filename;
+    private String contentType;
+
+    MultipartStream(InputStream in, String boundary, byte[] buffer, long maxRequestSize) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        if (buffer.length < MAX_HEADER_BYTES || buffer.length < delimiter.length * 2) {
+            throw new IllegalArgumentException("버퍼가 너무 작습니다.");
+        }
+        this.buffer = buffer;
+        this.maxRequestSize = maxRequestSize;
+        // 첫 경계 앞에는 CRLF가 없으므로 가상의 CRLF를 앞에 둔 것처럼 처리
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        this.end = 2;
+        this.bodyPending = true; // 첫 경계까지(preamble)는 버림
+    }
+
+    /**
+     * Content-Type 헤더에서 boundary 추출 (없으면 null)
+     */
+    static String boundaryOf(String contentType) {
+        if (contentType == null || !contentType.toLowerCase().startsWith("multipart/form-data")) {
+            return null;
+        }
+        for (String param : contentType.split(";")) {
+            String trimmed = param.trim();
+            if (trimmed.regionMatches(true, 0, "boundary=", 0, 9)) {
+                String value = trimmed.substring(9);
+                return value.startsWith("\"") && value.endsWith("\"") && value.length() > 1
+                        ? value.substring(1, value.length() - 1)
+                        : value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 다음 파트로 이동
+     *
+     * @return 파트가 있으면 true, 본문 끝이면 false
+     */
+    boolean nextPart() throws IOException {
+        if (finished) {
+            return false;
+        }
+        if (bodyPending) {
+            readBody(null); // 읽지 않은 본문 버림
+        }
+        // 경계 바로 뒤: "--"면 끝, "\r\n"이면 다음 파트
+        if (!fill(2)) {
+            throw new IOException("multipart 본문이 중간에 끝났습니다.");
+        }
+        if (buffer[start] == '-' && buffer[start + 1] == '-') {
+            finished = true;
+            return false;
+        }
+        if (buffer[start] != '\r' || buffer[start + 1] != '\n') {
+            throw new IOException("잘못된 multipart 경계");
+        }
+        start += 2;
+        readHeaders();
+        bodyPending = true;
+        return true;
+    }
+
+    String name() {
+        return name;
+    }
+
+    String filename() { // 파일 파트가 아니면 null
+        return filename;
+    }
+
+    String contentType() {
+        return contentType;
+    }
+
+    /**
+     * 현재 파트 본문을 경계 직전까지 전달 (consumer가 null이면 버림)
+     */
+    void readBody(BodyConsumer consumer) throws IOException {
+        if (!bodyPending) {
+            return;
+        }
+        while (true) {
+            int match = indexOf(delimiter, start, end);
+            if (match >= 0) {
+                if (consumer != null && match > start) {
+                    consumer.accept(buffer, start, match - start);
+                }
+                start = match + delimiter.length;
+                bodyPending = false;
+                return;
+            }
+            // 경계의 앞부분일 수 있는 마지막 (경계 길이 - 1) 바이트는 남겨 두고 전달
+            int safe = Math.max(start, end - delimiter.length + 1);
+            if (consumer != null && safe > start) {
+                consumer.accept(buffer, start, safe - start);
+            }
+            start = safe;
+            if (!readMore()) {
+                throw new IOException("multipart 본문이 중간에 끝났습니다.");
+            }
+        }
+    }
+
+    /**
+     * 일반 입력 필드 값 읽기 (maxBytes 초과 시 예외)
+     */
+    String readValue(int maxBytes) throws IOException {
+        byte[] value = new byte[maxBytes];
+        int[] length = { 0 };
+        readBody((buf, off, len) -> {
+            if (length[0] + len > maxBytes) {
+                throw new IllegalArgumentException("입력 값이 너무 깁니다: " + name);
+            }
+            System.arraycopy(buf, off, value, length[0], len);
+            length[0] += len;
+        });
+        return new String(value, 0, length[0], StandardCharsets.UTF_8);
+    }
+
+    private void readHeaders() throws IOException {
+        name = null;
+        filename = null;
+        contentType = null;
+        int headerEnd;
+        while ((headerEnd = indexOf(HEADER_END, start, end)) < 0) {
+            if (end - start > MAX_HEADER_BYTES || !readMore()) {
+                throw new IOException("multipart 헤더가 너무 길거나 끝나지 않았습니다.");
+            }
+        }
+        String headers = new String(buffer, start, headerEnd - start, StandardCharsets.UTF_8);
+        start = headerEnd + HEADER_END.length;
+        for (String line : headers.split("\r\n")) {
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String header = line.substring(0, colon).trim();
+            String value = line.substring(colon + 1).trim();
+            if (header.equalsIgnoreCase("Content-Disposition")) {
+                name = dispositionParam(value, "name");
+                filename = dispositionParam(value, "filename");
+            } else if (header.equalsIgnoreCase("Content-Type")) {
+                contentType = value;
+            }
+        }
+    }
+
+    // Content-Disposition: form-data; name="file1"; filename="a;b.txt"
+    // 따옴표 안의 ; = 는 값의 일부, \" 는 따옴표 문자 (그 밖의 \ 는 그대로 둠 - 윈도우 경로)
+    private static String dispositionParam(String disposition, String param) {
+        int length = disposition.length();
+        int i = disposition.indexOf(';'); // 첫 ; 앞은 form-data
+        while (i >= 0 && i < length) {
+            int keyStart = ++i;
+            while (i < length && disposition.charAt(i) != '=' && disposition.charAt(i) != ';') {
+                i++;
+            }
+            String key = disposition.substring(keyStart, i).trim();
+            if (i >= length || disposition.charAt(i) == ';') {
+                continue; // 값 없는 파라미터
+            }
+            i++; // '='
+            while (i < length && disposition.charAt(i) == ' ') {
+                i++;
+            }
+            String value;
+            if (i < length && disposition.charAt(i) == '"') {
+                StringBuilder quoted = new StringBuilder();
+                i++;
+                while (i < length && disposition.charAt(i) != '"') {
+                    char c = disposition.charAt(i++);
+                    if (c == '\\' && i < length && disposition.charAt(i) == '"') {
+                        c = disposition.charAt(i++);
+                    }
+                    quoted.append(c);
+                }
+                value = quoted.toString();
+                while (i < length && disposition.charAt(i) != ';') {
+                    i++; // 닫는 따옴표 뒤
+                }
+            } else {
+                int valueStart = i;
+                while (i < length && disposition.charAt(i) != ';') {
+                    i++;
+                }
+                value = disposition.substring(valueStart, i).trim();
+            }
+            if (key.equalsIgnoreCase(param)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    // 처리하지 않은 데이터가 최소 n바이트가 되도록 읽기 (본문이 끝나면 false)
+    private boolean fill(int n) throws IOException {
+        while (end - start < n) {
+            if (!readMore()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 남은 데이터를 버퍼 앞으로 옮기고 이어서 읽기
+    private boolean readMore() throws IOException {
+        if (start > 0) {
+            System.arraycopy(buffer, start, buffer, 0, end - start);
+            end -= start;
+            start = 0;
+        }
+        if (end == buffer.length) {
+            throw new IOException("multipart 버퍼 부족");
+        }
+        int read = in.read(buffer, end, buffer.length - end);
+        if (read < 0) {
+            return false;
+        }
+        totalRead += read;
+        if (totalRead > maxRequestSize) {
+            throw new IllegalArgumentException("요청 크기가 " + (maxRequestSize / (1024 * 1024)) + "MB를 초과했습니다.");
+        }
+        end += read;
+        return true;
+    }
+
+    private int indexOf(byte[] pattern, int from, int to) {
+        byte first = pattern[0];
+        int last = to - pattern.length;
+        outer: for (int i = from; i <= last; i++) {
+            if (buffer[i] != first) {
+                continue;
+            }
+            for (int j = 1; j < pattern.length; j++) {
+                if (buffer[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,103 @@
+package com.waiyannaung.sku.model.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 비밀번호 해싱/검증 전용 실행기
+ * - BCrypt는 CPU를 오래 점유하므로 요청 스레드(Tomcat) 대신 코어 수 크기의 전용 풀에서 실행
+ * - 대기열이 가득 차거나 대기 시간이 초과되면 즉시 503으로 거절 (다른 요청이 굶지 않도록)
+ * - 처리 시간, 대기열 길이, 거절 횟수를 actuator 지표로 노출
+ * - 가상 스레드 모드(virtual 프로필)에서도 이 풀은 플랫폼 스레드 유지 (CPU 작업은 코어 수로 제한)
+ */
+@Service
+public class PasswordHashingService {
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final Timer verifyTimer;
+    private final Timer encodeTimer;
+    private final Counter rejected;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+            @Value("${app.security.hashing.pool-size:0}") int poolSize, // 0이면 CPU 코어 수
+            @Value("${app.security.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.hashing.timeout-ms:2000}") long timeoutMillis) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMillis = timeoutMillis;
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("bcrypt-"),
+                new ThreadPoolExecutor.AbortPolicy()); // 대기열 초과 시 RejectedExecutionException
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "passwordHashing"); // 대기열 길이, 활성 스레드 수
+        this.verifyTimer = Timer.builder("password.hashing").tag("operation", "verify").register(meterRegistry);
+        this.encodeTimer = Timer.builder("password.hashing").tag("operation", "encode").register(meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected").register(meterRegistry);
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) { // 비밀번호 검증
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword), verifyTimer);
+    }
+
+    public String encode(String rawPassword) { // 비밀번호 해싱
+        return run(() -> passwordEncoder.encode(rawPassword), encodeTimer);
+    }
+
+    public boolean upgradeEncoding(String encodedPassword) { // 저장된 해시의 cost가 설정값보다 낮은지
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    // 전용 풀에서 실행하고 결과를 기다림 (대기 시간 포함하여 지표 기록)
+    private <T> T run(Callable<T> task, Timer timer) {
+        long started = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "로그인 요청이 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "로그인 요청이 많습니다. 잠시 후 다시 시도해주세요.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "요청이 중단되었습니다.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,339 @@
+package com.waiyannaung.sku.model.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 이미지 업로드 미리보기(썸네일) 생성
+ * - 업로드가 끝나면 전용 풀(app.file.thumbnail.threads)에서 여러 크기를 한 번에 생성 (업로드 요청은 기다리지 않음)
+ * - 내용 해시(SHA-256) 기준으로 {업로드 폴더}/.thumbs/{해시 앞 2자리}/{해시}_{크기}.{jpg|png} 에 저장
+ *   → 같은 이미지는 이름, 사용자와 관계없이 한 번만 생성
+ * - 요청 시 없으면 그때 생성 (대기열이 가득 차 건너뛴 경우, 파일이 지워진 경우 등)
+ * - 원본 blob이 삭제되면 미리보기도 삭제
+ */
+@Slf4j
+@Service
+public class ThumbnailService {
+    static final String THUMB_DIR = ".thumbs";
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif");
+
+    /**
+     * 저장된 미리보기
+     *
+     * @param contentType image/jpeg 또는 image/png (투명도가 있을 수 있는 png, gif 원본)
+     */
+    public record Thumbnail(Path path, String contentType) {
+    }
+
+    private final BlobStore blobStore;
+    private final MeterRegistry meterRegistry; // 생성 풀, 생성 시간 지표 (actuator)
+    private final Path root;
+
+    @Value("${app.file.thumbnail.sizes:160,480,1024}") // 긴 변 기준 픽셀 (원본보다 크게 늘리지 않음)
+    private List<Integer> sizes;
+    @Value("${app.file.thumbnail.threads:2}")
+    private int threads;
+    @Value("${app.file.thumbnail.queue-size:100}") // 초과분은 건너뛰고 요청 시 생성
+    private int queueSize;
+    @Value("${app.file.thumbnail.max-pixels:50000000}") // 이보다 큰 이미지는 만들지 않음 (압축 폭탄 방지)
+    private long maxPixels;
+    @Value("${app.file.thumbnail.wait-ms:5000}") // 요청 시 생성을 기다리는 최대 시간
+    private long waitMillis;
+
+    private ThreadPoolExecutor executor;
+    private Timer renderTimer;
+    private final Map<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>(); // 같은 이미지 중복 생성 방지
+    private final Cache<String, Boolean> unsupported = Caffeine.newBuilder() // 읽을 수 없는 이미지 (반복 시도 방지)
+            .maximumSize(10_000)
+            .build();
+
+    public ThumbnailService(BlobStore blobStore, MeterRegistry meterRegistry,
+            @Value("${spring.servlet.multipart.location}") String uploadFolder) {
+        this.blobStore = blobStore;
+        this.meterRegistry = meterRegistry;
+        this.root = Paths.get(uploadFolder, THUMB_DIR).toAbsolutePath();
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(root);
+        sizes = sizes.stream().distinct().sorted((a, b) -> b - a).toList(); // 큰 크기부터 차례로 축소
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), new CustomizableThreadFactory("thumbnail-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "thumbnail");
+        renderTimer = Timer.builder("upload.thumbnail.render").register(meterRegistry);
+        blobStore.onBlobRemoved(this::deleteThumbnails);
+        executor.execute(this::removeOrphans); // 이전 실행에서 삭제된 blob의 미리보기 정리
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 미리보기를 만드는 파일인지 (확장자 기준)
+     */
+    public static boolean isImage(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 && IMAGE_EXTENSIONS.contains(filename.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    public List<Integer> sizes() {
+        return sizes;
+    }
+
+    /**
+     * 미리보기 생성 예약 (이미 있으면 무시, 대기열이 가득 차면 건너뜀)
+     *
+     * @param hash   원본 내용 SHA-256
+     * @param source 원본 파일
+     */
+    public void generateAsync(String hash, Path source) {
+        if (sizes.stream().allMatch(size -> locate(hash, size) != null)) {
+            return;
+        }
+        generate(hash, source).exceptionally(e -> {
+            log.debug("미리보기 생성 건너뜀: {} - {}", source.getFileName(), e.getMessage());
+            return false;
+        });
+    }
+
+    /**
+     * 미리보기 조회 (없으면 생성될 때까지 최대 app.file.thumbnail.wait-ms 대기)
+     *
+     * @param hash   원본 내용 SHA-256
+     * @param source 원본 파일 (없을 때 생성용)
+     * @param size   app.file.thumbnail.sizes 중 하나
+     * @return 미리보기, 이미지를 읽을 수 없으면 null
+     * @throws IllegalArgumentException 지원하지 않는 크기
+     * @throws ResponseStatusException  생성 대기 시간 초과 또는 생성 요청이 많은 경우 (503)
+     */
+    public Thumbnail find(String hash, Path source, int size) {
+        if (!sizes.contains(size)) {
+            throw new IllegalArgumentException("지원하지 않는 미리보기 크기입니다. " + sizes);
+        }
+        Thumbnail thumbnail = locate(hash, size);
+        if (thumbnail != null || unsupported.getIfPresent(hash) != null) {
+            return thumbnail;
+        }
+        try {
+            if (!generate(hash, source).get(waitMillis, TimeUnit.MILLISECONDS)) {
+                return null;
+            }
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "미리보기를 만드는 중입니다.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "미리보기 생성 요청이 많습니다.");
+            }
+            log.warn("미리보기 생성 실패: {} - {}", source.getFileName(), e.getCause().getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "요청이 중단되었습니다.");
+        }
+        return locate(hash, size);
+    }
+
+    // 같은 해시는 진행 중인 작업을 공유 (결과: 생성했으면 true, 이미지가 아니거나 너무 크면 false)
+    private CompletableFuture<Boolean> generate(String hash, Path source) {
+        CompletableFuture<Boolean> created = new CompletableFuture<>();
+        CompletableFuture<Boolean> running = inFlight.putIfAbsent(hash, created);
+        if (running != null) {
+            return running;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    created.complete(renderTimer.recordCallable(() -> render(hash, source)));
+                } catch (Throwable e) {
+                    created.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(hash, created);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(hash, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    // 원본을 한 번 읽고 큰 크기부터 차례로 축소해 저장
+    private boolean render(String hash, Path source) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                unsupported.put(hash, Boolean.TRUE);
+                return false;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    log.warn("이미지가 너무 커서 미리보기를 만들지 않습니다: {} ({}x{})", source.getFileName(), width, height);
+                    unsupported.put(hash, Boolean.TRUE);
+                    return false;
+                }
+                // 가장 큰 미리보기의 2배 이상만 남기고 건너뛰며 읽기 (큰 사진도 메모리 사용량 일정)
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / (sizes.get(0) * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage image = reader.read(0, param);
+
+                String format = reader.getFormatName().toLowerCase(Locale.ROOT);
+                boolean png = format.equals("png") || format.equals("gif"); // 투명도 유지
+                for (int size : sizes) {
+                    image = scale(image, size, png);
+                    write(image, png ? "png" : "jpg", thumbnailPath(hash, size, png ? "png" : "jpg"));
+                }
+                return true;
+            } catch (IOException | RuntimeException e) { // 손상된 이미지
+                log.debug("이미지를 읽을 수 없습니다: {} - {}", source.getFileName(), e.getMessage());
+                unsupported.put(hash, Boolean.TRUE);
+                return false;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // 긴 변을 maxEdge 이하로 축소 (절반씩 나눠 줄여 계단 현상 감소)
+    private static BufferedImage scale(BufferedImage image, int maxEdge, boolean alpha) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double ratio = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                if (!alpha) {
+                    g.setColor(Color.WHITE); // jpg는 투명도가 없으므로 흰 배경
+                    g.fillRect(0, 0, width, height);
+                }
+                g.drawImage(image, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            image = next;
+        } while (width != targetWidth || height != targetHeight);
+        return image;
+    }
+
+    // 임시 파일에 쓴 뒤 이동 (읽는 쪽이 쓰다 만 파일을 보지 않도록)
+    private static void write(BufferedImage image, String format, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            if (!ImageIO.write(image, format, temp.toFile())) {
+                throw new IOException("이미지 형식을 쓸 수 없습니다: " + format);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Thumbnail locate(String hash, int size) {
+        Path jpg = thumbnailPath(hash, size, "jpg");
+        if (Files.isRegularFile(jpg)) {
+            return new Thumbnail(jpg, "image/jpeg");
+        }
+        Path png = thumbnailPath(hash, size, "png");
+        return Files.isRegularFile(png) ? new Thumbnail(png, "image/png") : null;
+    }
+
+    private Path thumbnailPath(String hash, int size, String extension) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash + "_" + size + "." + extension);
+    }
+
+    // 원본 blob 삭제 시 호출
+    private void deleteThumbnails(String hash) {
+        for (int size : sizes) {
+            for (String extension : List.of("jpg", "png")) {
+                try {
+                    Files.deleteIfExists(thumbnailPath(hash, size, extension));
+                } catch (IOException e) {
+                    log.debug("미리보기 삭제 실패: {} - {}", hash, e.getMessage());
+                }
+            }
+        }
+    }
+
+    // 원본 blob이 없는 미리보기와 쓰다 만 임시 파일 삭제
+    private void removeOrphans() {
+        int removed = 0;
+        try (DirectoryStream<Path> prefixes = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path prefix : prefixes) {
+                try (DirectoryStream<Path> thumbnails = Files.newDirectoryStream(prefix)) {
+                    for (Path thumbnail : thumbnails) {
+                        String name = thumbnail.getFileName().toString();
+                        int separator = name.indexOf('_');
+                        if (name.endsWith(".tmp") || separator < 0 || !blobStore.contains(name.substring(0, separator))) {
+                            Files.deleteIfExists(thumbnail);
+                            removed++;
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("미리보기 정리 실패: {}", e.getMessage());
+        }
+        if (removed > 0) {
+            log.info("원본이 없는 미리보기 {}개 삭제", removed);
+        }
+    }
+}
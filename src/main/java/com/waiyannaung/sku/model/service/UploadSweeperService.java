@@ -0,0 +1,349 @@
+package com.waiyannaung.sku.model.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.waiyannaung.sku.model.service.FileIndexService.FileEntry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 업로드 폴더 정리 (백그라운드, 조금씩)
+ * - 한 번에 app.file.sweep.batch-size개 항목만 확인하고 다음 실행에 이어서 진행 (위치는 .sweep-cursor에 저장 → 재시작 후에도 이어서)
+ * - 저장 중인 업로드가 있으면 이번 실행은 건너뜀, 한 회차를 마치면 pass-interval-ms 동안 쉼
+ * - 정리 대상: 확장자별 보존 기간이 지난 파일, 사용자별 용량 상한 초과분(오래된 파일부터),
+ *   오래된 임시 파일(.blobs/tmp의 .part, .thumbs의 .tmp), 참조하는 사용자 파일이 없는 blob
+ * - 정리한 용량은 upload.sweeper.reclaimed(reason별)로 확인
+ */
+@Slf4j
+@Service
+public class UploadSweeperService {
+    private static final String CURSOR_FILE = ".sweep-cursor";
+    private static final String BLOB_TEMP_DIR = BlobStore.BLOB_DIR + "/tmp";
+    private static final String ANY_EXTENSION = "*";
+
+    private final FileUploadService fileUploadService;
+    private final FileIndexService fileIndexService;
+    private final BlobStore blobStore;
+    private final MeterRegistry meterRegistry;
+    private final Path uploadRoot;
+    private final Path cursorFile;
+
+    @Value("${app.file.sweep.enabled:true}")
+    private boolean enabled;
+    @Value("${app.file.sweep.batch-size:200}") // 실행당 확인하는 항목 수
+    private int batchSize;
+    @Value("${app.file.sweep.retention-days:}") // 확장자:일수 (예: txt:30,zip:90,*:365), 없으면 보존 기간 제한 없음
+    private List<String> retentionDays;
+    @Value("${app.file.sweep.max-bytes-per-user:0}") // 0이면 상한 없음
+    private DataSize maxBytesPerUser;
+    @Value("${app.file.sweep.temp-max-age-hours:24}") // 이어 올리기 유휴 제한보다 길게
+    private long tempMaxAgeHours;
+    @Value("${app.file.sweep.pass-interval-ms:3600000}") // 한 회차를 마친 뒤 다음 회차까지
+    private long passIntervalMillis;
+
+    private final Map<String, Duration> retention = new HashMap<>();
+    private final Map<String, Counter> reclaimedBytes = new HashMap<>();
+    private final Map<String, Counter> deletedFiles = new HashMap<>();
+    private final AtomicLong passes = new AtomicLong();
+    private Counter scanned;
+
+    // 진행 위치 (스케줄러 스레드만 사용)
+    private Deque<String> directories; // 이번 회차에 남은 폴더 (업로드 폴더 기준 상대 경로)
+    private String directory;
+    private Iterator<String> names;
+    private String lastName;
+    private long nextPassAt;
+
+    public UploadSweeperService(FileUploadService fileUploadService, FileIndexService fileIndexService,
+            BlobStore blobStore, MeterRegistry meterRegistry,
+            @Value("${spring.servlet.multipart.location}") String uploadFolder) {
+        this.fileUploadService = fileUploadService;
+        this.fileIndexService = fileIndexService;
+        this.blobStore = blobStore;
+        this.meterRegistry = meterRegistry;
+        this.uploadRoot = Paths.get(uploadFolder).toAbsolutePath();
+        this.cursorFile = uploadRoot.resolve(CURSOR_FILE);
+    }
+
+    @PostConstruct
+    void init() {
+        for (String entry : retentionDays) {
+            int separator = entry.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalStateException("app.file.sweep.retention-days 형식 오류: " + entry);
+            }
+            long days = Long.parseLong(entry.substring(separator + 1).trim());
+            if (days > 0) {
+                retention.put(entry.substring(0, separator).trim().toLowerCase(Locale.ROOT), Duration.ofDays(days));
+            }
+        }
+        for (String reason : List.of("retention", "user-cap", "temp", "orphan")) {
+            reclaimedBytes.put(reason, Counter.builder("upload.sweeper.reclaimed").baseUnit("bytes")
+                    .tag("reason", reason).register(meterRegistry));
+            deletedFiles.put(reason, Counter.builder("upload.sweeper.deleted").tag("reason", reason)
+                    .register(meterRegistry));
+        }
+        scanned = Counter.builder("upload.sweeper.scanned").register(meterRegistry);
+        Gauge.builder("upload.sweeper.passes", passes, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * 정리 한 단계 (batch-size개 항목 확인 후 위치 저장)
+     */
+    @Scheduled(initialDelayString = "${app.file.sweep.initial-delay-ms:60000}",
+            fixedDelayString = "${app.file.sweep.interval-ms:1000}")
+    public void step() {
+        if (!enabled || fileUploadService.uploadsInProgress()) {
+            return; // 업로드 중에는 디스크를 양보
+        }
+        try {
+            if (directories == null) {
+                if (System.currentTimeMillis() < nextPassAt) {
+                    return;
+                }
+                startPass();
+            }
+            int budget = batchSize;
+            while (budget > 0) {
+                if (names == null || !names.hasNext()) {
+                    if (!nextDirectory()) {
+                        finishPass();
+                        return;
+                    }
+                    continue;
+                }
+                lastName = names.next();
+                budget--;
+                scanned.increment();
+                sweep(directory, lastName);
+            }
+            saveCursor();
+        } catch (IOException | RuntimeException e) {
+            log.warn("업로드 폴더 정리 실패: {}/{} - {}", directory, lastName, e.getMessage());
+            saveCursor(); // 실패한 항목은 건너뛰고 다음 실행에서 이어서
+        }
+    }
+
+    // 이번 회차에 확인할 폴더 목록 (이전 실행 위치가 있으면 그 폴더부터)
+    private void startPass() throws IOException {
+        List<String> found = new ArrayList<>();
+        found.add("");
+        if (Files.isDirectory(uploadRoot)) {
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(uploadRoot, Files::isDirectory)) {
+                for (Path child : children) {
+                    String name = child.getFileName().toString();
+                    if (name.equals(BlobStore.BLOB_DIR) || name.equals(ThumbnailService.THUMB_DIR)) {
+                        try (DirectoryStream<Path> prefixes = Files.newDirectoryStream(child, Files::isDirectory)) {
+                            for (Path prefix : prefixes) {
+                                found.add(name + "/" + prefix.getFileName());
+                            }
+                        }
+                    } else if (!name.startsWith(".")) {
+                        found.add(name); // 사용자 폴더
+                    }
+                }
+            }
+        }
+        found.sort(null);
+
+        String[] cursor = loadCursor();
+        directories = new ArrayDeque<>();
+        for (String candidate : found) {
+            if (cursor == null || candidate.compareTo(cursor[0]) >= 0) {
+                directories.add(candidate);
+            }
+        }
+        directory = null;
+        names = null;
+        lastName = cursor != null && !cursor[1].isEmpty() && cursor[0].equals(directories.peek()) ? cursor[1] : null;
+    }
+
+    // 다음 폴더의 항목 이름을 읽음 (이어서 하는 폴더는 마지막으로 확인한 이름 다음부터)
+    private boolean nextDirectory() throws IOException {
+        String resumeAfter = lastName;
+        lastName = null;
+        directory = directories.poll();
+        if (directory == null) {
+            return false;
+        }
+        List<String> entries = new ArrayList<>();
+        Path path = uploadRoot.resolve(directory);
+        try (DirectoryStream<Path> children = Files.newDirectoryStream(path)) {
+            for (Path child : children) {
+                String name = child.getFileName().toString();
+                if (resumeAfter == null || name.compareTo(resumeAfter) > 0) {
+                    entries.add(name);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // 회차 중에 지워진 폴더
+        }
+        entries.sort(null);
+        names = entries.iterator();
+        if (!directory.isEmpty() && !directory.startsWith(".") && resumeAfter == null) {
+            enforceUserCap(directory);
+        }
+        return true;
+    }
+
+    private void finishPass() {
+        passes.incrementAndGet();
+        nextPassAt = System.currentTimeMillis() + passIntervalMillis;
+        directories = null;
+        directory = null;
+        names = null;
+        lastName = null;
+        try {
+            Files.deleteIfExists(cursorFile);
+        } catch (IOException e) {
+            log.debug("정리 위치 파일 삭제 실패: {}", e.getMessage());
+        }
+        log.debug("업로드 폴더 정리 {}회차 완료", passes.get());
+    }
+
+    private void sweep(String directory, String name) throws IOException {
+        if (directory.equals(BLOB_TEMP_DIR)) {
+            if (name.endsWith(".part")) {
+                deleteIfOlder(uploadRoot.resolve(directory).resolve(name), Duration.ofHours(tempMaxAgeHours), "temp");
+            }
+        } else if (directory.startsWith(BlobStore.BLOB_DIR + "/")) {
+            String hash = BlobStore.hashOfBlobName(directory.substring(BlobStore.BLOB_DIR.length() + 1), name);
+            count("orphan", blobStore.removeIfUnreferenced(hash));
+        } else if (directory.startsWith(ThumbnailService.THUMB_DIR + "/")) {
+            if (name.endsWith(".tmp")) {
+                deleteIfOlder(uploadRoot.resolve(directory).resolve(name), Duration.ofHours(tempMaxAgeHours), "temp");
+            }
+        } else if (!name.startsWith(".")) {
+            Duration keep = retentionOf(name);
+            if (keep == null) {
+                return;
+            }
+            if (directory.isEmpty()) {
+                deleteIfOlder(uploadRoot.resolve(name), keep, "retention"); // 이전 메일 내용(.txt) 등
+            } else {
+                expireUserFile(directory, name, keep);
+            }
+        }
+    }
+
+    // 사용자 파일은 업로드 시각 기준 (같은 내용 파일은 수정 시각을 공유하므로 색인 우선)
+    private void expireUserFile(String owner, String filename, Duration keep) throws IOException {
+        Path file = uploadRoot.resolve(owner).resolve(filename);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        if (!attributes.isRegularFile()) {
+            return;
+        }
+        FileEntry entry = fileIndexService.find(owner, filename);
+        Instant uploadedAt = entry != null ? entry.uploadedAt().atZone(ZoneId.systemDefault()).toInstant()
+                : attributes.lastModifiedTime().toInstant();
+        if (uploadedAt.isBefore(Instant.now().minus(keep)) && fileUploadService.deleteFile(owner, filename)) {
+            count("retention", attributes.size());
+        }
+    }
+
+    // 사용자별 용량 상한을 넘으면 오래된 파일부터 삭제
+    private void enforceUserCap(String owner) throws IOException {
+        long cap = maxBytesPerUser.toBytes();
+        if (cap <= 0) {
+            return;
+        }
+        long used = fileIndexService.usage(owner).usedBytes();
+        if (used <= cap) {
+            return;
+        }
+        List<FileEntry> files = fileIndexService.list(owner); // 최근 순
+        for (int i = files.size() - 1; i >= 0 && used > cap; i--) {
+            FileEntry entry = files.get(i);
+            if (fileUploadService.deleteFile(owner, entry.filename())) {
+                used -= entry.size();
+                count("user-cap", entry.size());
+            }
+        }
+        log.info("사용자 용량 상한 초과 파일 정리: {} ({} bytes 남음)", owner, used);
+    }
+
+    private void deleteIfOlder(Path file, Duration age, String reason) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        if (attributes.isRegularFile()
+                && attributes.lastModifiedTime().toInstant().isBefore(Instant.now().minus(age))
+                && Files.deleteIfExists(file)) {
+            count(reason, attributes.size());
+        }
+    }
+
+    private Duration retentionOf(String filename) {
+        int dot = filename.lastIndexOf('.');
+        String extension = dot >= 0 ? filename.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+        Duration keep = retention.get(extension);
+        return keep != null ? keep : retention.get(ANY_EXTENSION);
+    }
+
+    private void count(String reason, long bytes) {
+        if (bytes > 0) {
+            reclaimedBytes.get(reason).increment(bytes);
+            deletedFiles.get(reason).increment();
+        }
+    }
+
+    private String[] loadCursor() {
+        try {
+            String[] cursor = Files.readString(cursorFile, StandardCharsets.UTF_8).split("\n", -1);
+            return cursor.length == 2 ? cursor : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.debug("정리 위치 읽기 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void saveCursor() {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.writeString(cursorFile, directory + "\n" + (lastName != null ? lastName : ""),
+                    StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.debug("정리 위치 저장 실패: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.waiyannaung.sku.model.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 이전 사용자 폴더명(UserFolders.legacyOwnerOf) → 새 폴더명(UserFolders.ownerOf) 이전
+ * - 폴더 이름을 바꾸고 uploaded_file.owner도 같이 바꿈 (이름이 같은 회원은 그대로)
+ * - 이전 이름을 여러 회원이 같이 쓰던 폴더는 누구 파일인지 알 수 없으므로 건드리지 않고 경고만 남김
+ * - 새 폴더가 이미 있으면 (이미 이전됨 또는 충돌) 건너뜀 → 여러 번 실행해도 안전
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserFolderMigration implements InitializingBean {
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory; // 스키마 갱신 완료 후 실행되도록 의존
+
+    @Value("${spring.servlet.multipart.location}")
+    private String uploadFolder;
+
+    @Override
+    public void afterPropertiesSet() {
+        Path uploadRoot = Paths.get(uploadFolder).toAbsolutePath();
+        if (!Files.isDirectory(uploadRoot)) {
+            return;
+        }
+        Map<String, List<String>> emailsByLegacy = new HashMap<>();
+        jdbcTemplate.query("select email from member", rs -> {
+            String email = rs.getString(1);
+            if (email != null && !email.isBlank()) {
+                emailsByLegacy.computeIfAbsent(UserFolders.legacyOwnerOf(email), k -> new ArrayList<>(1)).add(email);
+            }
+        });
+        int moved = 0;
+        for (Map.Entry<String, List<String>> entry : emailsByLegacy.entrySet()) {
+            String legacy = entry.getKey();
+            List<String> emails = entry.getValue();
+            Path legacyDirectory = uploadRoot.resolve(legacy);
+            if (legacy.startsWith(".") || !Files.isDirectory(legacyDirectory)) {
+                continue;
+            }
+            if (emails.size() > 1) {
+                log.warn("여러 회원이 같이 쓰던 업로드 폴더라 이전하지 않음: {} {}", legacy, emails);
+                continue;
+            }
+            String owner = UserFolders.ownerOf(emails.get(0));
+            if (owner.equals(legacy)) {
+                continue;
+            }
+            Path directory = uploadRoot.resolve(owner);
+            if (Files.exists(directory)) {
+                log.warn("새 업로드 폴더가 이미 있어 이전하지 않음: {} → {}", legacy, owner);
+                continue;
+            }
+            try {
+                Files.move(legacyDirectory, directory, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.warn("업로드 폴더 이전 실패: {} → {}", legacy, owner, e);
+                continue;
+            }
+            jdbcTemplate.update("update uploaded_file set owner = ? where owner = ?", owner, legacy);
+            moved++;
+        }
+        if (moved > 0) {
+            log.info("업로드 폴더 {}개를 새 이름으로 이전", moved);
+        }
+    }
+}
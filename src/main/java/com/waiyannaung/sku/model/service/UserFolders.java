@@ -0,0 +1,66 @@
+package com.waiyannaung.sku.model.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 이메일 → 사용자 폴더명 (업로드 폴더, 파일 색인의 owner)
+ * - 영문 소문자, 숫자, '-', '.'(첫 글자 제외)은 그대로, 마지막 '@'는 '_'
+ * - 그 밖의 바이트(UTF-8, 대문자 포함)는 '~' + 16진수 2자리 → 서로 다른 이메일이 같은 폴더가 되지 않음
+ *   (대문자도 이스케이프하므로 대소문자를 구분하지 않는 파일 시스템에서도 겹치지 않음)
+ *   예) a+b@x.com → a~2bb_x.com, a_b@x.com → a~5fb_x.com, 흔한 이메일(d@x.com → d_x.com)은 이전 이름과 같음
+ * - 너무 길면 "~h" + SHA-256 (인코딩 결과는 '~' 뒤에 항상 16진수가 오므로 겹치지 않음)
+ */
+final class UserFolders {
+    private static final int MAX_LENGTH = 200; // 파일 시스템 이름 길이 제한(255바이트) 안쪽
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private UserFolders() {
+    }
+
+    /**
+     * @throws IllegalArgumentException 빈 이메일
+     */
+    static String ownerOf(String email) {
+        if (email.isBlank()) {
+            throw new IllegalArgumentException("사용할 수 없는 이메일입니다.");
+        }
+        byte[] bytes = email.getBytes(StandardCharsets.UTF_8);
+        int at = -1;
+        for (int i = bytes.length - 1; i >= 0; i--) {
+            if (bytes[i] == '@') {
+                at = i;
+                break;
+            }
+        }
+        StringBuilder owner = new StringBuilder(bytes.length + 8);
+        for (int i = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xff;
+            if (i == at) {
+                owner.append('_');
+            } else if ((b >= 'a' && b <= 'z') || (b >= '0' && b <= '9') || b == '-' || (b == '.' && i > 0)) {
+                owner.append((char) b); // 첫 글자 '.'은 .blobs 등 내부 폴더와 겹치지 않도록 이스케이프
+            } else {
+                owner.append('~').append(HEX[b >> 4]).append(HEX[b & 0xf]);
+            }
+        }
+        return owner.length() <= MAX_LENGTH ? owner.toString() : "~h" + sha256(bytes);
+    }
+
+    /**
+     * 이전 폴더명 (허용 문자 외에는 모두 '_' → 서로 다른 이메일이 겹칠 수 있음, 이전용)
+     */
+    static String legacyOwnerOf(String email) {
+        return email.replaceAll("[^a-zA-Z0-9._-]", "_");
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
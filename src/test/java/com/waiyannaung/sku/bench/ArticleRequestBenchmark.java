@@ -0,0 +1,58 @@
+package com.waiyannaung.sku.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.waiyannaung.sku.model.domain.Board;
+import com.waiyannaung.sku.model.service.AddArticleRequest;
+
+/**
+ * 게시글 요청 → 엔티티 변환 (AddArticleRequest.toEntity)
+ * - newdate가 "오늘날짜"면 서버에서 날짜 문자열 생성 (DateTimeFormatter 사용 경로)
+ * - 본문 길이별로 비교 (빌더 복사 비용)
+ *
+ * 실행: ./mvnw -Pbenchmark test -Djmh.args="ArticleRequestBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArticleRequestBenchmark {
+    @Param({ "오늘날짜", "18-10-2026" })
+    public String newdate;
+
+    @Param({ "100", "5000" })
+    public int contentLength;
+
+    private AddArticleRequest request;
+
+    @Setup
+    public void setUp() {
+        request = new AddArticleRequest();
+        request.setTitle("벤치마크 제목");
+        request.setContent("가".repeat(contentLength));
+        request.setUser("bench");
+        request.setNewdate(newdate);
+        request.setCount(0L);
+        request.setLikec(0L);
+        request.setEmail("bench@test.com");
+    }
+
+    @Benchmark
+    public Board toEntity() {
+        return request.toEntity();
+    }
+}
@@ -0,0 +1,42 @@
+package com.waiyannaung.sku.bench;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.waiyannaung.sku.SkuApplication;
+
+/**
+ * JMH 벤치마크용 애플리케이션 실행 (MySQL 대신 내장 H2, 업로드/메일 기록 폴더는 임시 폴더)
+ * - 명령행 인자로 넘겨 application.properties보다 우선 적용
+ * - 업로드 폴더 정리 작업은 측정에 끼어들지 않도록 끔
+ */
+final class BenchmarkContext {
+    private BenchmarkContext() {
+    }
+
+    /**
+     * @param workDir    임시 작업 폴더 (upload, mail-journal 생성)
+     * @param properties 추가 설정 (key=value)
+     */
+    static ConfigurableApplicationContext start(Path workDir, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;NON_KEYWORDS=USER,COUNT,VALUE;DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.show-sql=false",
+                "spring.servlet.multipart.location=" + workDir.resolve("upload"),
+                "app.mail.journal.dir=" + workDir.resolve("mail-journal"),
+                "app.file.sweep.enabled=false",
+                "logging.level.root=warn"));
+        args.addAll(List.of(properties));
+        return new SpringApplicationBuilder(SkuApplication.class)
+                .run(args.stream().map(arg -> "--" + arg).toArray(String[]::new));
+    }
+}
@@ -0,0 +1,240 @@
+package com.waiyannaung.sku.bench;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 로그인 → 게시판 목록 → 게시글 보기 부하 측정 (플랫폼 스레드 vs 가상 스레드 비교용)
+ * 테스트 클래스가 아니므로 mvn test에서는 실행되지 않음
+ *
+ * 사용법:
+ * 1) 서버 실행 - 플랫폼 스레드: ./mvnw spring-boot:run
+ *              가상 스레드:   ./mvnw spring-boot:run -Dspring-boot.run.profiles=virtual
+ * 2) ./mvnw test-compile
+ * 3) java -cp target/test-classes com.waiyannaung.sku.bench.BoardFlowBenchmark \
+ *      url=http://localhost:8080 users=200 warmup=10 duration=30 email=a@b.com password=1234
+ *
+ * - 먼저 모든 사용자가 로그인 (BCrypt 전용 풀이 503으로 거절하지 않도록 동시 로그인 수 제한, 별도 집계)
+ * - 이후 모든 사용자가 동시에 목록/보기 요청을 반복
+ * - 보기 요청은 목록에 나온 글 중 하나를 무작위로 선택, 조건부 요청 헤더 없이 항상 전체 렌더링
+ * - 워밍업 이후 구간만 집계하여 단계별 처리량과 p50/p99/최대 지연시간 출력
+ */
+public class BoardFlowBenchmark {
+    private static final Pattern BOARD_LINK = Pattern.compile("/board_view/(\\d+)");
+    private static final Pattern SESSION_COOKIE = Pattern.compile("JSESSIONID=([^;]+)");
+    private static final int LOGIN_RETRIES = 20; // 503(해싱 대기열 초과) 재시도 횟수
+
+    private final String baseUrl;
+    private final String email;
+    private final String password;
+    private final HttpClient client;
+    private final AtomicLong errors = new AtomicLong();
+    private volatile long measureFrom = Long.MIN_VALUE; // 이 시각 이후 응답만 집계 (nanoTime, 로그인 단계는 전부)
+
+    BoardFlowBenchmark(String baseUrl, String email, String password) {
+        this.baseUrl = baseUrl;
+        this.email = email;
+        this.password = password;
+        // Secure 쿠키를 http로 다시 보내야 하므로 CookieManager 대신 세션 쿠키를 직접 전달
+        this.client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq).replaceFirst("^--", ""), arg.substring(eq + 1));
+            }
+        }
+        int users = Integer.parseInt(options.getOrDefault("users", "200"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int loginConcurrency = Integer.parseInt(options.getOrDefault("login-concurrency", "8"));
+        BoardFlowBenchmark benchmark = new BoardFlowBenchmark(
+                options.getOrDefault("url", "http://localhost:8080"),
+                options.getOrDefault("email", "bench@test.com"),
+                options.getOrDefault("password", "bench1234"));
+        benchmark.run(users, loginConcurrency, warmupSeconds, durationSeconds);
+    }
+
+    void run(int users, int loginConcurrency, int warmupSeconds, int durationSeconds) throws InterruptedException {
+        List<Recorder> recorders = new ArrayList<>();
+        String[] cookies = new String[users];
+        Semaphore logins = new Semaphore(loginConcurrency);
+        long loginStarted = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) { // 1단계: 로그인
+            for (int i = 0; i < users; i++) {
+                Recorder recorder = new Recorder();
+                recorders.add(recorder);
+                int user = i;
+                executor.submit(() -> {
+                    logins.acquireUninterruptibly();
+                    try {
+                        cookies[user] = login(recorder);
+                    } finally {
+                        logins.release();
+                    }
+                    if (cookies[user] == null) {
+                        errors.incrementAndGet();
+                    }
+                });
+            }
+        }
+        System.out.printf("login phase: %.1fs%n", (System.nanoTime() - loginStarted) / 1e9);
+
+        measureFrom = System.nanoTime() + Duration.ofSeconds(warmupSeconds).toNanos();
+        long deadline = measureFrom + Duration.ofSeconds(durationSeconds).toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) { // 2단계: 동시 사용자 부하
+            for (int i = 0; i < users; i++) {
+                Recorder recorder = recorders.get(i);
+                String cookie = cookies[i];
+                if (cookie != null) {
+                    executor.submit(() -> runUser(recorder, cookie, deadline));
+                }
+            }
+        } // 모든 사용자 종료까지 대기
+
+        Recorder total = new Recorder();
+        recorders.forEach(total::addAll);
+        System.out.printf("users=%d, warmup=%ds, duration=%ds, errors=%d%n",
+                users, warmupSeconds, durationSeconds, errors.get());
+        System.out.printf("%-10s %10s %10s %10s %10s %10s%n", "step", "requests", "req/s", "p50(ms)", "p99(ms)",
+                "max(ms)");
+        for (String step : List.of("login", "board_list", "board_view")) {
+            long[] samples = total.samples(step);
+            System.out.printf("%-10s %10d %10s %10.2f %10.2f %10.2f%n", step, samples.length,
+                    step.equals("login") ? "-" : String.format("%.1f", samples.length / (double) durationSeconds),
+                    percentile(samples, 0.50), percentile(samples, 0.99), percentile(samples, 1.0));
+        }
+    }
+
+    private void runUser(Recorder recorder, String cookie, long deadline) {
+        try {
+            List<String> ids = List.of();
+            while (System.nanoTime() < deadline) {
+                HttpResponse<String> list = send(recorder, "board_list", get("/board_list", cookie));
+                if (list.statusCode() != 200) {
+                    errors.incrementAndGet();
+                    continue;
+                }
+                ids = boardIds(list.body(), ids);
+                if (ids.isEmpty()) {
+                    continue; // 게시글이 없으면 목록만 반복
+                }
+                String id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                HttpResponse<String> view = send(recorder, "board_view", get("/board_view/" + id, cookie));
+                if (view.statusCode() != 200) {
+                    errors.incrementAndGet();
+                }
+            }
+        } catch (Exception e) {
+            errors.incrementAndGet();
+        }
+    }
+
+    // 로그인 후 세션 쿠키 반환 (실패 시 null)
+    private String login(Recorder recorder) {
+        try {
+            return tryLogin(recorder);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private String tryLogin(Recorder recorder) throws Exception {
+        String form = "email=" + URLEncoder.encode(email, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+        for (int attempt = 0; attempt < LOGIN_RETRIES; attempt++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/login_check"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form))
+                    .build();
+            HttpResponse<String> response = send(recorder, "login", request);
+            if (response.statusCode() == 302) { // 성공 시 /board_list로 리다이렉트
+                return response.headers().allValues("Set-Cookie").stream()
+                        .map(SESSION_COOKIE::matcher)
+                        .filter(Matcher::find)
+                        .map(m -> "JSESSIONID=" + m.group(1))
+                        .findFirst()
+                        .orElse(null);
+            }
+            if (response.statusCode() != 503) {
+                return null; // 잘못된 계정 등
+            }
+            Thread.sleep(50L + ThreadLocalRandom.current().nextInt(200)); // 해싱 대기열 초과 → 잠시 후 재시도
+        }
+        return null;
+    }
+
+    private HttpRequest get(String path, String cookie) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Cookie", cookie).GET().build();
+    }
+
+    private HttpResponse<String> send(Recorder recorder, String step, HttpRequest request) throws Exception {
+        long started = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (started >= measureFrom) {
+            recorder.record(step, System.nanoTime() - started);
+        }
+        return response;
+    }
+
+    // 목록 HTML에서 게시글 id 추출 (없으면 직전 목록 유지)
+    private static List<String> boardIds(String html, List<String> previous) {
+        List<String> ids = new ArrayList<>();
+        Matcher matcher = BOARD_LINK.matcher(html);
+        while (matcher.find()) {
+            ids.add(matcher.group(1));
+        }
+        return ids.isEmpty() ? previous : ids;
+    }
+
+    private static double percentile(long[] sortedNanos, double p) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    // 사용자(스레드)별 지연시간 기록 - 공유 자료구조 없이 각자 기록 후 마지막에 합침
+    private static final class Recorder {
+        private final Map<String, List<Long>> latencies = new HashMap<>();
+
+        void record(String step, long nanos) {
+            latencies.computeIfAbsent(step, k -> new ArrayList<>()).add(nanos);
+        }
+
+        void addAll(Recorder other) {
+            other.latencies.forEach((step, values) -> latencies.computeIfAbsent(step, k -> new ArrayList<>())
+                    .addAll(values));
+        }
+
+        long[] samples(String step) { // 정렬된 지연시간 (나노초)
+            long[] values = latencies.getOrDefault(step, List.of()).stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(values);
+            return values;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.waiyannaung.sku.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.FileSystemUtils;
+
+import com.waiyannaung.sku.model.service.FileIndexService;
+import com.waiyannaung.sku.model.service.FileIndexService.FileEntry;
+import com.waiyannaung.sku.model.service.FileUploadService;
+
+/**
+ * 단일 파일 업로드 (FileUploadService.uploadFile: 검증 → 저장 → 색인)
+ * - newName: 매번 다른 이름, 같은 내용 → 검증 + 기존 blob에 링크
+ * - sameName: 같은 이름, 매번 다른 내용 → 이름 변경(타임스탬프) + 새 blob 저장(압축 포함)
+ * - 반복(iteration)마다 올린 파일을 모두 삭제해 폴더 크기를 일정하게 유지
+ *
+ * 실행: ./mvnw -Pbenchmark test -Djmh.args="FileUploadBenchmark -p fileSize=1024"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileUploadBenchmark {
+    private static final String EMAIL = "bench@test.com";
+    private static final int SEQUENCE_DIGITS = 19; // 내용 앞부분에 쓰는 일련번호 길이
+
+    @Param({ "1024", "1048576" })
+    public int fileSize;
+
+    private Path workDir;
+    private ConfigurableApplicationContext context;
+    private FileUploadService fileUploadService;
+    private FileIndexService fileIndexService;
+    private byte[] content;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        workDir = Files.createTempDirectory("sku-bench");
+        context = BenchmarkContext.start(workDir, "app.file.quota.bytes-per-user=0");
+        fileUploadService = context.getBean(FileUploadService.class);
+        fileIndexService = context.getBean(FileIndexService.class);
+        byte[] line = "benchmark upload line 업로드 벤치마크\n".getBytes(StandardCharsets.UTF_8);
+        content = new byte[Math.max(fileSize, SEQUENCE_DIGITS)];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = line[i % line.length];
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void clean() throws IOException {
+        for (FileEntry entry : fileIndexService.list(fileUploadService.ownerOf(EMAIL))) {
+            fileUploadService.deleteFile(EMAIL, entry.filename());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(workDir);
+    }
+
+    @Benchmark
+    public String newName() throws IOException {
+        return fileUploadService.uploadFile(
+                new MockMultipartFile("files", "doc-" + (++sequence) + ".txt", "text/plain", content), EMAIL);
+    }
+
+    @Benchmark
+    public String sameName() throws IOException {
+        byte[] digits = String.format("%0" + SEQUENCE_DIGITS + "d", ++sequence).getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(digits, 0, content, 0, SEQUENCE_DIGITS); // 같은 이름, 다른 내용
+        return fileUploadService.uploadFile(new MockMultipartFile("files", "report.txt", "text/plain", content), EMAIL);
+    }
+}
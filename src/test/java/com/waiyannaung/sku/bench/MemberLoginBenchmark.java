@@ -0,0 +1,81 @@
+package com.waiyannaung.sku.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import com.waiyannaung.sku.model.service.AddMemberRequest;
+import com.waiyannaung.sku.model.service.MemberService;
+
+/**
+ * 로그인 확인 (MemberService.loginCheck: 블룸 필터 → 회원 캐시 → BCrypt 검증)
+ * - success / wrong-password: BCrypt 검증까지 (strength별 비용)
+ * - unknown-email: 블룸 필터에서 바로 거절 (DB, BCrypt 없음)
+ * - strength 4는 해싱을 뺀 나머지 경로의 비용을 보기 위함
+ *
+ * 실행: ./mvnw -Pbenchmark test -Djmh.args="MemberLoginBenchmark -p bcryptStrength=10"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemberLoginBenchmark {
+    private static final String EMAIL = "bench@test.com";
+    private static final String PASSWORD = "Passw0rd!1";
+
+    @Param({ "4", "10" })
+    public int bcryptStrength;
+
+    @Param({ "success", "wrong-password", "unknown-email" })
+    public String outcome;
+
+    private Path workDir;
+    private ConfigurableApplicationContext context;
+    private MemberService memberService;
+    private String email;
+    private String password;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        workDir = Files.createTempDirectory("sku-bench");
+        context = BenchmarkContext.start(workDir, "app.security.bcrypt.strength=" + bcryptStrength);
+        memberService = context.getBean(MemberService.class);
+        memberService.saveMember(new AddMemberRequest("Bench", EMAIL, PASSWORD, "20", "01012345678", "Seoul"));
+        email = outcome.equals("unknown-email") ? "nobody@test.com" : EMAIL;
+        password = outcome.equals("wrong-password") ? PASSWORD + "x" : PASSWORD;
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(workDir);
+    }
+
+    @Benchmark
+    public Object loginCheck() {
+        try {
+            return memberService.loginCheck(email, password);
+        } catch (IllegalArgumentException e) {
+            return e; // 실패 경로도 예외 생성 비용까지 측정
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.waiyannaung.sku.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import com.waiyannaung.sku.model.service.FileUploadService;
+
+/**
+ * 이메일 → 사용자 폴더명 변환 (FileUploadService.ownerOf, 허용 문자 외 바이트를 ~16진수로 인코딩)
+ * - 업로드, 다운로드, 목록, 삭제 요청마다 한 번씩 호출되는 경로
+ * - 바꿀 문자가 없는 이메일과 많은 이메일(한글 도메인, +태그)을 비교
+ *
+ * 실행: ./mvnw -Pbenchmark test -Djmh.args="UserDirectoryBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserDirectoryBenchmark {
+    @Param({ "user@example.com", "kim.chulsoo+upload@회사.예시.kr" })
+    public String email;
+
+    private Path workDir;
+    private ConfigurableApplicationContext context;
+    private FileUploadService fileUploadService;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        workDir = Files.createTempDirectory("sku-bench");
+        context = BenchmarkContext.start(workDir);
+        fileUploadService = context.getBean(FileUploadService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(workDir);
+    }
+
+    @Benchmark
+    public String ownerOf() {
+        return fileUploadService.ownerOf(email);
+    }
+}
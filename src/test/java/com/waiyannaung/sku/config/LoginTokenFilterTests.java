@@ -0,0 +1,82 @@
+package com.waiyannaung.sku.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.waiyannaung.sku.model.domain.Member;
+import com.waiyannaung.sku.model.service.LoginTokenService;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+
+class LoginTokenFilterTests {
+    private final LoginTokenService service = new LoginTokenService(mock(JdbcTemplate.class),
+            "k1:" + Base64.getEncoder().encodeToString(new byte[32]), Duration.ofMinutes(30), false);
+    private final LoginTokenFilter filter = new LoginTokenFilter(service);
+
+    private MockHttpServletResponse run(MockHttpServletRequest request, MockFilterChain chain)
+            throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest withToken(String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.setCookies(new Cookie(LoginTokenService.COOKIE_NAME, value));
+        return request;
+    }
+
+    @Test
+    void validTokenSetsLoginAttributes() throws Exception {
+        Member member = Member.builder().name("Kim").email("d@x.com").password("").age("20")
+                .mobile("01012345678").address("Seoul").build();
+        MockHttpServletRequest request = withToken(service.issue("d@x.com", member).getValue());
+        MockFilterChain chain = new MockFilterChain();
+
+        MockHttpServletResponse response = run(request, chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(request.getAttribute("email")).isEqualTo("d@x.com");
+        assertThat(request.getAttribute("memberEmail")).isEqualTo("d@x.com");
+        assertThat(request.getAttribute("userName")).isEqualTo("Kim");
+        assertThat(response.getHeaders(HttpHeaders.SET_COOKIE)).isEmpty(); // 갱신할 때가 아님
+    }
+
+    @Test
+    void malformedTokenIsClearedWithoutException() throws Exception {
+        for (String value : new String[] { "k1.@@@.###", "k1.QUJD", "k1.QUJD.", "garbage", "k1.QUJD.QUJD" }) {
+            MockHttpServletRequest request = withToken(value);
+            MockFilterChain chain = new MockFilterChain();
+
+            MockHttpServletResponse response = run(request, chain);
+
+            assertThat(chain.getRequest()).as(value).isSameAs(request); // 요청은 비로그인으로 계속 진행
+            assertThat(request.getAttribute("email")).as(value).isNull();
+            assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).as(value)
+                    .startsWith(LoginTokenService.COOKIE_NAME + "=").contains("Max-Age=0");
+        }
+    }
+
+    @Test
+    void requestWithoutTokenIsUntouched() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        MockFilterChain chain = new MockFilterChain();
+
+        MockHttpServletResponse response = run(request, chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(response.getHeaders(HttpHeaders.SET_COOKIE)).isEmpty();
+    }
+}
@@ -0,0 +1,72 @@
+package com.waiyannaung.sku.model.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+
+class SessionAttributeCodecTests {
+
+    private static Map<String, Object> roundTrip(Map<String, Object> attributes) {
+        return SessionAttributeCodec.decode(SessionAttributeCodec.encode(attributes));
+    }
+
+    @Test
+    void knownTypesRoundTrip() {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("userId", UUID.randomUUID().toString());
+        attributes.put("email", "d@x.com");
+        attributes.put("memberEmail", "D@X.com"); // 대문자 포함 문자열 그대로
+        attributes.put("userName", "김철수");
+        attributes.put("custom", "550E8400-E29B-41D4-A716-446655440000"); // 표준 형식이 아닌 UUID는 문자열로
+        attributes.put("visits", 42L);
+        attributes.put("page", 7);
+        attributes.put("admin", true);
+
+        assertThat(roundTrip(attributes)).containsExactlyEntriesOf(attributes);
+    }
+
+    @Test
+    void securityContextRoundTrip() {
+        User user = new User("d@x.com", "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        SecurityContext context = new SecurityContextImpl(
+                UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+
+        Object decoded = roundTrip(Map.of("SPRING_SECURITY_CONTEXT", context)).get("SPRING_SECURITY_CONTEXT");
+
+        assertThat(decoded).isInstanceOf(SecurityContext.class).isEqualTo(context);
+        assertThat(((SecurityContext) decoded).getAuthentication().getAuthorities())
+                .extracting(Object::toString).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void disallowedClassIsDropped() {
+        List<Object> nested = new ArrayList<>(List.of("ok", URI.create("http://example.com")));
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("email", "d@x.com");
+        attributes.put("uri", URI.create("http://example.com")); // 허용 목록 밖 클래스
+        attributes.put("list", nested); // 허용된 컨테이너 안의 허용되지 않은 클래스
+
+        Map<String, Object> decoded = roundTrip(attributes);
+
+        assertThat(decoded).containsOnlyKeys("email");
+        assertThat(decoded.get("email")).isEqualTo("d@x.com");
+    }
+
+    @Test
+    void emptyData() {
+        assertThat(SessionAttributeCodec.decode(null)).isEmpty();
+        assertThat(roundTrip(Map.of())).isEmpty();
+    }
+}
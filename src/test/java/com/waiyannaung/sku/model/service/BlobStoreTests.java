@@ -0,0 +1,145 @@
+package com.waiyannaung.sku.model.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BlobStoreTests {
+    @TempDir
+    Path uploadFolder;
+
+    private BlobStore blobStore;
+    private final List<String> removed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        blobStore = new BlobStore(new SimpleMeterRegistry(), uploadFolder.toString());
+        blobStore.init();
+        blobStore.onBlobRemoved(removed::add);
+    }
+
+    private BlobStore.StoredFile store(String owner, String filename, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        Path temp = blobStore.createTempFile();
+        Files.write(temp, bytes);
+        Path directory = Files.createDirectories(uploadFolder.resolve(owner));
+        return blobStore.store(temp, sha256(bytes), null, directory,
+                attempt -> attempt == 0 ? filename : attempt + "_" + filename);
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hashOf(String content) {
+        return HexFormat.of().formatHex(sha256(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static int linkCount(Path path) throws IOException {
+        return (Integer) Files.getAttribute(path, "unix:nlink");
+    }
+
+    private long blobFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(uploadFolder.resolve(BlobStore.BLOB_DIR))) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    @Test
+    void sameContentIsStoredOnceAndRemovedWithLastLink() throws IOException {
+        BlobStore.StoredFile first = store("a", "doc.txt", "same content");
+        BlobStore.StoredFile second = store("b", "copy.txt", "same content");
+
+        assertThat(first.deduplicated()).isFalse();
+        assertThat(second.deduplicated()).isTrue();
+        Path firstFile = uploadFolder.resolve("a").resolve("doc.txt");
+        Path secondFile = uploadFolder.resolve("b").resolve("copy.txt");
+        assertThat(Files.isSameFile(firstFile, secondFile)).isTrue();
+        assertThat(linkCount(firstFile)).isEqualTo(3); // blob + 사용자 파일 2개
+        assertThat(blobFiles()).isEqualTo(1);
+        assertThat(blobStore.stats().blobs()).isEqualTo(1);
+        assertThat(blobStore.stats().savedBytes()).isEqualTo("same content".length());
+
+        assertThat(blobStore.delete(firstFile)).isTrue();
+        assertThat(blobStore.contains(hashOf("same content"))).isTrue(); // 아직 참조 중
+        assertThat(linkCount(secondFile)).isEqualTo(2);
+        assertThat(blobStore.stats().savedBytes()).isZero();
+        assertThat(removed).isEmpty();
+
+        assertThat(blobStore.delete(secondFile)).isTrue();
+        assertThat(blobStore.contains(hashOf("same content"))).isFalse();
+        assertThat(blobFiles()).isZero();
+        assertThat(blobStore.stats().blobs()).isZero();
+        assertThat(blobStore.stats().storedBytes()).isZero();
+        assertThat(removed).containsExactly(hashOf("same content"));
+        assertThat(blobStore.delete(secondFile)).isFalse(); // 이미 삭제됨
+    }
+
+    @Test
+    void sameNameSameContentReusesExistingFile() throws IOException {
+        store("a", "doc.txt", "content");
+        BlobStore.StoredFile again = store("a", "doc.txt", "content");
+
+        assertThat(again.filename()).isEqualTo("doc.txt");
+        assertThat(again.deduplicated()).isTrue();
+        assertThat(linkCount(uploadFolder.resolve("a").resolve("doc.txt"))).isEqualTo(2);
+    }
+
+    @Test
+    void sameNameOtherContentGetsNewName() throws IOException {
+        store("a", "doc.txt", "first");
+        BlobStore.StoredFile other = store("a", "doc.txt", "second");
+
+        assertThat(other.filename()).isEqualTo("1_doc.txt");
+        assertThat(other.deduplicated()).isFalse();
+        assertThat(blobStore.stats().blobs()).isEqualTo(2);
+    }
+
+    @Test
+    void unreferencedBlobIsRemovedOnRestart() throws IOException {
+        store("a", "doc.txt", "orphan");
+        Files.delete(uploadFolder.resolve("a").resolve("doc.txt")); // BlobStore를 거치지 않고 삭제
+
+        BlobStore restarted = new BlobStore(new SimpleMeterRegistry(), uploadFolder.toString());
+        restarted.init();
+
+        assertThat(restarted.contains(hashOf("orphan"))).isFalse();
+        assertThat(restarted.stats().blobs()).isZero();
+        assertThat(blobFiles()).isZero();
+    }
+
+    @Test
+    void restartRestoresLinkCounts() throws IOException {
+        store("a", "doc.txt", "shared");
+        store("b", "doc.txt", "shared");
+
+        BlobStore restarted = new BlobStore(new SimpleMeterRegistry(), uploadFolder.toString());
+        restarted.init();
+        assertThat(restarted.stats().blobs()).isEqualTo(1);
+        assertThat(restarted.stats().savedBytes()).isEqualTo("shared".length());
+
+        assertThat(restarted.delete(uploadFolder.resolve("a").resolve("doc.txt"))).isTrue();
+        assertThat(restarted.contains(hashOf("shared"))).isTrue();
+        assertThat(restarted.delete(uploadFolder.resolve("b").resolve("doc.txt"))).isTrue();
+        assertThat(restarted.contains(hashOf("shared"))).isFalse();
+    }
+}
@@ -0,0 +1,52 @@
+package com.waiyannaung.sku.model.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+class EmailBloomFilterTests {
+
+    private static List<String> emails(String prefix, int count) {
+        return IntStream.range(0, count).mapToObj(i -> prefix + i + "@x.com").toList();
+    }
+
+    @Test
+    void matchingIgnoresCase() {
+        EmailBloomFilter filter = new EmailBloomFilter(1000, 0.01);
+        filter.put("Kim.ChulSoo@Example.COM");
+
+        assertThat(filter.mightContain("kim.chulsoo@example.com")).isTrue();
+        assertThat(filter.mightContain("KIM.CHULSOO@EXAMPLE.COM")).isTrue();
+    }
+
+    @Test
+    void noFalseNegatives() {
+        EmailBloomFilter filter = new EmailBloomFilter(10000, 0.01);
+        List<String> members = emails("member", 10000);
+        members.forEach(filter::put);
+
+        assertThat(members).allMatch(filter::mightContain);
+        long falsePositives = emails("other", 10000).stream().filter(filter::mightContain).count();
+        assertThat(falsePositives).isLessThan(300); // 설정 오탐률 1%의 3배 이내
+    }
+
+    @Test
+    void rebuildReplacesContentsAndKeepsConcurrentPuts() {
+        EmailBloomFilter filter = new EmailBloomFilter(1000, 0.01);
+        List<String> removed = emails("removed", 100);
+        removed.forEach(filter::put);
+        List<String> members = emails("member", 100);
+
+        // 재구성 도중 가입한 이메일 (전체 목록에는 없음)
+        filter.rebuild(Stream.concat(members.stream(), Stream.of("last@x.com")
+                .peek(email -> filter.put("Joined@X.com"))));
+
+        assertThat(members).allMatch(filter::mightContain);
+        assertThat(filter.mightContain("joined@x.com")).isTrue();
+        assertThat(removed.stream().filter(filter::mightContain).count()).isLessThan(10);
+    }
+}
@@ -0,0 +1,142 @@
+package com.waiyannaung.sku.model.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.waiyannaung.sku.model.domain.Member;
+import com.waiyannaung.sku.model.service.LoginTokenService.LoginToken;
+
+class LoginTokenServiceTests {
+    private static final String OLD_KEY = secret(1);
+    private static final String NEW_KEY = secret(2);
+
+    private static String secret(int seed) {
+        byte[] bytes = new byte[32];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (seed * 31 + i);
+        }
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    private static LoginTokenService service(String keySpec, Duration ttl) {
+        return new LoginTokenService(mock(JdbcTemplate.class), keySpec, ttl, false);
+    }
+
+    private static final Member MEMBER = Member.builder().name("김철수").email("d@x.com").password("")
+            .age("20").mobile("01012345678").address("Seoul").build();
+
+    private static String issue(LoginTokenService service) {
+        return service.issue("d@x.com", MEMBER).getValue();
+    }
+
+    // 같은 키로 임의 내용에 서명 (서명은 맞지만 내용 형식이 잘못된 토큰)
+    private static String signed(String keyId, String secret, byte[] payload) throws Exception {
+        String content = keyId + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(payload);
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(Base64.getDecoder().decode(secret), "HmacSHA256"));
+        byte[] signature = mac.doFinal(content.getBytes(StandardCharsets.US_ASCII));
+        return content + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    private static String replaceAt(String value, int index) {
+        char replacement = value.charAt(index) == 'A' ? 'B' : 'A';
+        return value.substring(0, index) + replacement + value.substring(index + 1);
+    }
+
+    @Test
+    void issueVerifyRoundTrip() {
+        LoginTokenService service = service("k1:" + NEW_KEY, Duration.ofMinutes(30));
+        LoginToken token = service.verify(issue(service));
+
+        assertThat(token).isNotNull();
+        assertThat(token.email()).isEqualTo("d@x.com");
+        assertThat(token.memberEmail()).isEqualTo("d@x.com");
+        assertThat(token.userName()).isEqualTo("김철수");
+        assertThat(token.expiresAt() - token.issuedAt()).isEqualTo(30 * 60);
+        assertThat(service.renewIfStale(token)).isNull(); // 막 발급한 토큰은 갱신하지 않음
+    }
+
+    @Test
+    void tamperedPayloadOrSignatureIsRejected() {
+        LoginTokenService service = service("k1:" + NEW_KEY, Duration.ofMinutes(30));
+        String value = issue(service);
+        int first = value.indexOf('.');
+        int second = value.lastIndexOf('.');
+
+        assertThat(service.verify(replaceAt(value, first + 5))).isNull(); // 내용 변경
+        assertThat(service.verify(replaceAt(value, second + 3))).isNull(); // 서명 변경
+        assertThat(service.verify(value.substring(0, second + 1)
+                + issue(service).substring(second + 1))).isNull(); // 다른 토큰의 서명
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        LoginTokenService service = service("k1:" + NEW_KEY, Duration.ZERO);
+        assertThat(service.verify(issue(service))).isNull();
+    }
+
+    @Test
+    void previousKeyStillVerifiesAfterRotation() {
+        LoginTokenService before = service("k1:" + OLD_KEY, Duration.ofMinutes(30));
+        LoginTokenService after = service("k2:" + NEW_KEY + ",k1:" + OLD_KEY, Duration.ofMinutes(30));
+        String oldToken = issue(before);
+
+        assertThat(after.verify(oldToken)).isNotNull();
+        assertThat(issue(after)).startsWith("k2."); // 새 토큰은 첫 번째 키로 서명
+        assertThat(before.verify(issue(after))).isNull(); // 모르는 키 ID
+
+        LoginTokenService removed = service("k2:" + NEW_KEY, Duration.ofMinutes(30));
+        assertThat(removed.verify(oldToken)).isNull(); // 제거된 키
+    }
+
+    @Test
+    void sameKeyIdWithOtherSecretIsRejected() {
+        LoginTokenService one = service("k1:" + OLD_KEY, Duration.ofMinutes(30));
+        LoginTokenService other = service("k1:" + NEW_KEY, Duration.ofMinutes(30));
+        assertThat(other.verify(issue(one))).isNull();
+    }
+
+    @Test
+    void revokedTokenIsRejected() {
+        LoginTokenService service = service("k1:" + NEW_KEY, Duration.ofMinutes(30));
+        String value = issue(service);
+        LoginToken token = service.verify(value);
+
+        service.revoke(token.id());
+
+        assertThat(service.verify(value)).isNull();
+        assertThat(service.verify(issue(service))).isNotNull(); // 다른 로그인은 영향 없음
+    }
+
+    @Test
+    void malformedTokensAreRejected() throws Exception {
+        LoginTokenService service = service("k1:" + NEW_KEY, Duration.ofMinutes(30));
+        String value = issue(service);
+
+        for (String malformed : new String[] { "", ".", "..", "k1", "k1.", "k1..", ".abc.def", "k1.abc",
+                "k1.a.b.c", "k1.!!!.@@@", "k1.abc.%%%", "k1.한글.서명",
+                value.substring(0, value.length() - 5), // 잘린 서명
+                value.substring(0, value.indexOf('.') + 4) + value.substring(value.lastIndexOf('.')) }) { // 잘린 내용
+            assertThat(service.verify(malformed)).as(malformed).isNull();
+        }
+
+        // 서명은 맞지만 내용이 잘리거나 형식이 다른 경우
+        assertThat(service.verify(signed("k1", NEW_KEY, new byte[0]))).isNull();
+        assertThat(service.verify(signed("k1", NEW_KEY, new byte[] { 1, 2, 3 }))).isNull();
+        assertThat(service.verify(signed("k1", NEW_KEY, new byte[] { 9 }))).isNull(); // 다른 버전
+        byte[] longString = new byte[1 + 16 + 8 + 1 + 2];
+        longString[0] = 1;
+        longString[longString.length - 2] = 0x7f; // 남은 길이보다 긴 문자열
+        assertThat(service.verify(signed("k1", NEW_KEY, longString))).isNull();
+    }
+}
@@ -0,0 +1,107 @@
+package com.waiyannaung.sku.model.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MailJournalServiceTests {
+    @TempDir
+    Path directory;
+
+    private MailJournalService journal;
+
+    private MailJournalService open() throws IOException {
+        MailJournalService service = new MailJournalService(new SimpleMeterRegistry(), directory.toString());
+        ReflectionTestUtils.setField(service, "segmentSize", DataSize.ofMegabytes(16));
+        ReflectionTestUtils.setField(service, "segmentMaxAgeHours", 24L);
+        ReflectionTestUtils.setField(service, "queueCapacity", 100);
+        ReflectionTestUtils.setField(service, "maxBatch", 16);
+        ReflectionTestUtils.setField(service, "maxRecordSize", DataSize.ofKilobytes(256));
+        ReflectionTestUtils.setField(service, "commitTimeoutMillis", 5000L);
+        ReflectionTestUtils.setField(service, "retainPerEmail", 0);
+        ReflectionTestUtils.setField(service, "retentionDays", 0L);
+        ReflectionTestUtils.setField(service, "compactIntervalMillis", Long.MAX_VALUE);
+        service.init();
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (journal != null) {
+            journal.shutdown();
+        }
+    }
+
+    private Path segment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+    }
+
+    @Test
+    void recordsSurviveRestart() throws Exception {
+        journal = open();
+        long first = journal.append("a@x.com", "제목 1", "내용 1");
+        long second = journal.append("A@x.com ", "제목 2", "내용 2"); // 대소문자, 공백 무시
+        journal.append("b@x.com", "other", "other");
+        journal.shutdown();
+
+        journal = open();
+        List<MailJournalService.MailRecord> records = journal.findByEmail("a@x.com", 10);
+        assertThat(records).extracting(MailJournalService.MailRecord::sequence).containsExactly(second, first);
+        assertThat(records.get(1).subject()).isEqualTo("제목 1");
+        assertThat(records.get(1).message()).isEqualTo("내용 1");
+        assertThat(journal.findByEmail("a@x.com", 1)).hasSize(1);
+        assertThat(journal.findByEmail("none@x.com", 10)).isEmpty();
+    }
+
+    @Test
+    void tornTailIsTruncatedOnRecovery() throws Exception {
+        journal = open();
+        long first = journal.append("a@x.com", "kept", "kept");
+        journal.shutdown();
+        Path segment = segment();
+        long validSize = Files.size(segment);
+        // 기록 중 중단된 묶음: 길이는 맞지만 본문이 잘린 기록
+        Files.write(segment, new byte[] { 0, 0, 0, 64, 1, 2, 3, 4, 5, 6 }, StandardOpenOption.APPEND);
+
+        journal = open();
+        assertThat(Files.size(segment)).isEqualTo(validSize);
+        long next = journal.append("a@x.com", "after", "after");
+        assertThat(next).isEqualTo(first + 1);
+        journal.shutdown();
+
+        journal = open(); // 잘라낸 뒤 이어 쓴 기록도 다시 읽힘
+        assertThat(journal.findByEmail("a@x.com", 10)).extracting(MailJournalService.MailRecord::subject)
+                .containsExactly("after", "kept");
+    }
+
+    @Test
+    void corruptedTailRecordIsDropped() throws Exception {
+        journal = open();
+        journal.append("a@x.com", "first", "first");
+        journal.append("a@x.com", "second", "second");
+        journal.shutdown();
+        Path segment = segment();
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length - 1] ^= 0x1; // 마지막 기록의 CRC 불일치
+        Files.write(segment, bytes);
+
+        journal = open();
+        assertThat(journal.findByEmail("a@x.com", 10)).extracting(MailJournalService.MailRecord::subject)
+                .containsExactly("first");
+    }
+}
@@ -0,0 +1,149 @@
+package com.waiyannaung.sku.model.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class MultipartStreamTests {
+    private static final String BOUNDARY = "----sku-boundary";
+    private static final int BUFFER_SIZE = 8 * 1024; // 허용되는 최소 버퍼
+
+    // 한 번의 read()에 최대 chunk 바이트만 돌려주는 입력 (경계가 읽기 사이에 걸치도록)
+    private static InputStream trickle(byte[] body, int chunk) {
+        return new ByteArrayInputStream(body) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, chunk));
+            }
+        };
+    }
+
+    private static byte[] multipart(String disposition, byte[]... parts) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write("preamble\r\n".getBytes(StandardCharsets.US_ASCII));
+        for (int i = 0; i < parts.length; i++) {
+            out.write(("--" + BOUNDARY + "\r\nContent-Disposition: " + disposition.replace("#", String.valueOf(i))
+                    + "\r\nContent-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            out.write(parts[i]);
+            out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+        }
+        out.write(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        return out.toByteArray();
+    }
+
+    private static List<byte[]> readAll(InputStream in) throws IOException {
+        MultipartStream multipart = new MultipartStream(in, BOUNDARY, new byte[BUFFER_SIZE], Long.MAX_VALUE);
+        List<byte[]> bodies = new ArrayList<>();
+        while (multipart.nextPart()) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            multipart.readBody(body::write);
+            bodies.add(body.toByteArray());
+        }
+        return bodies;
+    }
+
+    @Test
+    void boundarySplitAcrossReads() throws IOException {
+        // 버퍼보다 큰 본문 + 경계의 앞부분("\r\n--")과 같은 바이트를 본문 곳곳에 넣음
+        byte[] large = new byte[3 * BUFFER_SIZE + 17];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) (i % 251);
+        }
+        byte[] nearMiss = ("x\r\n--" + BOUNDARY.substring(0, BOUNDARY.length() - 1) + "z\r\n-")
+                .getBytes(StandardCharsets.US_ASCII);
+        byte[] empty = new byte[0];
+        byte[] body = multipart("form-data; name=\"f#\"; filename=\"f#.bin\"", large, nearMiss, empty);
+
+        for (int chunk : new int[] { 1, 2, 3, 7, 64, 4093, BUFFER_SIZE }) {
+            List<byte[]> bodies = readAll(trickle(body, chunk));
+            assertThat(bodies).as("chunk=%d", chunk).hasSize(3);
+            assertThat(bodies.get(0)).as("chunk=%d", chunk).isEqualTo(large);
+            assertThat(bodies.get(1)).as("chunk=%d", chunk).isEqualTo(nearMiss);
+            assertThat(bodies.get(2)).as("chunk=%d", chunk).isEmpty();
+        }
+    }
+
+    @Test
+    void skipsUnreadBodies() throws IOException {
+        byte[] body = multipart("form-data; name=\"f#\"; filename=\"f#.txt\"",
+                "first".getBytes(StandardCharsets.US_ASCII), "second".getBytes(StandardCharsets.US_ASCII));
+        MultipartStream multipart = new MultipartStream(trickle(body, 5), BOUNDARY, new byte[BUFFER_SIZE],
+                Long.MAX_VALUE);
+        assertThat(multipart.nextPart()).isTrue();
+        assertThat(multipart.nextPart()).isTrue(); // 첫 본문은 읽지 않고 넘어감
+        assertThat(multipart.filename()).isEqualTo("f1.txt");
+        assertThat(multipart.readValue(16)).isEqualTo("second");
+        assertThat(multipart.nextPart()).isFalse();
+    }
+
+    @Test
+    void quotedDispositionParameters() throws IOException {
+        byte[] body = multipart("form-data; name=\"up;load\"; filename=\"a; b=\\\"c\\\".txt\"",
+                "x".getBytes(StandardCharsets.US_ASCII));
+        MultipartStream multipart = new MultipartStream(new ByteArrayInputStream(body), BOUNDARY,
+                new byte[BUFFER_SIZE], Long.MAX_VALUE);
+        assertThat(multipart.nextPart()).isTrue();
+        assertThat(multipart.name()).isEqualTo("up;load");
+        assertThat(multipart.filename()).isEqualTo("a; b=\"c\".txt");
+        assertThat(multipart.contentType()).isEqualTo("application/octet-stream");
+    }
+
+    @Test
+    void dispositionParameterOrderAndBackslashes() throws IOException {
+        byte[] body = multipart("form-data; filename=\"C:\\dir\\name=x.txt\"; NAME=files",
+                "x".getBytes(StandardCharsets.US_ASCII));
+        MultipartStream multipart = new MultipartStream(new ByteArrayInputStream(body), BOUNDARY,
+                new byte[BUFFER_SIZE], Long.MAX_VALUE);
+        assertThat(multipart.nextPart()).isTrue();
+        assertThat(multipart.name()).isEqualTo("files");
+        assertThat(multipart.filename()).isEqualTo("C:\\dir\\name=x.txt"); // 따옴표 앞이 아닌 \ 는 그대로
+    }
+
+    @Test
+    void fieldWithoutFilename() throws IOException {
+        byte[] body = multipart("form-data; name=\"title\"", "hello".getBytes(StandardCharsets.UTF_8));
+        MultipartStream multipart = new MultipartStream(new ByteArrayInputStream(body), BOUNDARY,
+                new byte[BUFFER_SIZE], Long.MAX_VALUE);
+        assertThat(multipart.nextPart()).isTrue();
+        assertThat(multipart.name()).isEqualTo("title");
+        assertThat(multipart.filename()).isNull();
+    }
+
+    @Test
+    void truncatedBodyFails() throws IOException {
+        byte[] body = multipart("form-data; name=\"f#\"; filename=\"f#.bin\"", new byte[100]);
+        byte[] truncated = Arrays.copyOf(body, body.length - BOUNDARY.length() - 8); // 마지막 경계 전에 끊김
+        assertThatThrownBy(() -> readAll(trickle(truncated, 7))).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void requestSizeLimit() throws IOException {
+        byte[] body = multipart("form-data; name=\"f#\"; filename=\"f#.bin\"", new byte[4 * BUFFER_SIZE]);
+        MultipartStream multipart = new MultipartStream(trickle(body, 1024), BOUNDARY, new byte[BUFFER_SIZE],
+                2 * BUFFER_SIZE);
+        assertThatThrownBy(() -> {
+            while (multipart.nextPart()) {
+                multipart.readBody(null);
+            }
+        }).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void boundaryFromContentType() {
+        assertThat(MultipartStream.boundaryOf("multipart/form-data; boundary=abc")).isEqualTo("abc");
+        assertThat(MultipartStream.boundaryOf("Multipart/Form-Data; charset=utf-8; BOUNDARY=\"a b\""))
+                .isEqualTo("a b");
+        assertThat(MultipartStream.boundaryOf("application/json")).isNull();
+        assertThat(MultipartStream.boundaryOf(null)).isNull();
+    }
+}
@@ -0,0 +1,41 @@
+package com.waiyannaung.sku.model.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class UserFoldersTests {
+
+    @Test
+    void commonEmailsKeepLegacyName() {
+        assertThat(UserFolders.ownerOf("d@x.com")).isEqualTo("d_x.com").isEqualTo(UserFolders.legacyOwnerOf("d@x.com"));
+        assertThat(UserFolders.ownerOf("kim.chulsoo-1@example.co.kr")).isEqualTo("kim.chulsoo-1_example.co.kr");
+    }
+
+    @Test
+    void emailsThatSharedLegacyFolderGetDistinctFolders() {
+        List<String> emails = List.of("a+b@x.com", "a_b@x.com", "a@b@x.com", "A_b@x.com", "a~5fb@x.com");
+        assertThat(emails.stream().map(UserFolders::legacyOwnerOf).distinct()).hasSizeLessThan(emails.size());
+        assertThat(emails.stream().map(UserFolders::ownerOf).distinct()).hasSameSizeAs(emails);
+        assertThat(UserFolders.ownerOf("a+b@x.com")).isEqualTo("a~2bb_x.com");
+        assertThat(UserFolders.ownerOf("a_b@x.com")).isEqualTo("a~5fb_x.com");
+    }
+
+    @Test
+    void caseAndLeadingDotAreEscaped() {
+        assertThat(UserFolders.ownerOf("D@x.com")).isNotEqualTo(UserFolders.ownerOf("d@x.com")).isEqualTo("~44_x.com");
+        assertThat(UserFolders.ownerOf(".blobs")).isEqualTo("~2eblobs"); // 내부 폴더와 겹치지 않음
+        assertThat(UserFolders.ownerOf("김@예시.kr")).matches("[a-z0-9._~-]+");
+        assertThatThrownBy(() -> UserFolders.ownerOf(" ")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void longEmailIsHashed() {
+        String longEmail = "u".repeat(300) + "@x.com";
+        assertThat(UserFolders.ownerOf(longEmail)).startsWith("~h").hasSize(2 + 64);
+        assertThat(UserFolders.ownerOf(longEmail)).isNotEqualTo(UserFolders.ownerOf("v" + longEmail.substring(1)));
+    }
+}